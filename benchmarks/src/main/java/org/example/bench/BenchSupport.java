@@ -0,0 +1,52 @@
+package org.example.bench;
+
+import org.example.Client.News;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+// utilitare comune: fiecare benchmark ruleaza intr-un director temporar propriu (persist.dir si
+// log.file sunt setate ca proprietati de sistem inainte de a construi NewsList/Client), ca sa nu
+// atinga datele din src/main/resources si sa nu fie influentat de rulari anterioare
+final class BenchSupport {
+
+    static final String[] TOPICS = {"technology", "science", "sports", "business"};
+
+    private BenchSupport() {
+    }
+
+    static Path isolate(String name) {
+        try {
+            Path dir = Files.createTempDirectory("bench-" + name + "-");
+            System.setProperty("persist.dir", dir.resolve("data").toString());
+            System.setProperty("log.file", dir.resolve("logs.txt").toString());
+            return dir;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void deleteRecursively(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException ignored) {
+            // directorul temporar ramane; nu afecteaza rezultatele
+        }
+    }
+
+    // o stire de marime realista (~250 B de continut, sub pragul de compresie implicit)
+    static News sampleNews(int i) {
+        return new News("N1",
+                "Physicists magnetize a material with light " + i,
+                "MIT physicists have created a new and long-lasting magnetic state in a material, using only light. "
+                        + "In a study appearing in Nature, the researchers report using a terahertz laser " + i + ".",
+                TOPICS[i % TOPICS.length]);
+    }
+}
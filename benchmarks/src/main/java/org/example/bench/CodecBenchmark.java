@@ -0,0 +1,74 @@
+package org.example.bench;
+
+import org.example.Client.BinaryNewsCodec;
+import org.example.Client.JsonNewsCodec;
+import org.example.Client.News;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// serializarea unei stiri:
+//  - News.toJson/fromJson (Gson partajat, prin String)
+//  - JsonNewsCodec (Gson partajat, parsare direct din byte[])
+//  - BinaryNewsCodec
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    private News news;
+    private String json;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup
+    public void setup() {
+        news = BenchSupport.sampleNews(1);
+        json = news.toJson();
+        jsonBytes = JsonNewsCodec.INSTANCE.encode(news);
+        binaryBytes = BinaryNewsCodec.INSTANCE.encode(news);
+    }
+
+    @Benchmark
+    public byte[] newsToJson() {
+        return news.toJson().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public News newsFromJson() {
+        return News.fromJson(json);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() {
+        return JsonNewsCodec.INSTANCE.encode(news);
+    }
+
+    @Benchmark
+    public News jsonDecode() {
+        return JsonNewsCodec.INSTANCE.decode(jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return BinaryNewsCodec.INSTANCE.encode(news);
+    }
+
+    @Benchmark
+    public News binaryDecode() {
+        return BinaryNewsCodec.INSTANCE.decode(binaryBytes);
+    }
+}
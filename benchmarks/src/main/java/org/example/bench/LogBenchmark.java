@@ -0,0 +1,67 @@
+package org.example.bench;
+
+import org.example.Client.Client;
+import org.example.Client.LogLevel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// costul Client.writeToLogFile pentru apelant (punerea in ring buffer-ul AsyncLogger), dintr-un fir
+// si din 4 fire concurente. cand scrierea pe disc nu tine pasul, mesajele INFO sunt pierdute si
+// numarate; la final se afiseaza cate au fost scrise si cate pierdute, ca rezultatul sa poata fi
+// interpretat (un apel pierdut este mai ieftin decat unul scris)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogBenchmark {
+
+    private Path dir;
+    private Client client;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        dir = BenchSupport.isolate("log");
+        client = new Client();
+        client.setId("N1");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println("Mesaje scrise: " + client.getLogger().getWrittenCount()
+                + ", pierdute: " + client.getLogger().getDroppedCount());
+        client.getLogger().close();
+        BenchSupport.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public void info() {
+        client.writeToLogFile("Succesor nou: N2, Predecesor nou: N3");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void infoContended() {
+        client.writeToLogFile("Succesor nou: N2, Predecesor nou: N3");
+    }
+
+    @Benchmark
+    public void warn() {
+        client.writeToLogFile(LogLevel.WARN, "Conectare cu ESUAT la broker-ul tcp://localhost:1883");
+    }
+}
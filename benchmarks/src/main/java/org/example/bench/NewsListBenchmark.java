@@ -0,0 +1,97 @@
+package org.example.bench;
+
+import org.example.Client.News;
+import org.example.Client.NewsList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// operatiile NewsList pe o lista cu size stiri (4 topicuri). addThenDelete adauga o stire noua si o sterge,
+// ca dimensiunea sa ramana constanta pe toata masuratoarea; indexurile pe topic si indexul
+// full-text sunt actualizate ca in rularea normala
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class NewsListBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private Path dir;
+    private NewsList list;
+    private String[] ids;
+    private final List<String> oneTopic = Collections.singletonList(BenchSupport.TOPICS[0]);
+    private final List<String> allTopics = Arrays.asList(BenchSupport.TOPICS);
+    private int cursor;
+    private int fresh;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        dir = BenchSupport.isolate("newslist");
+        list = new NewsList();
+        ids = new String[size];
+        for (int i = 0; i < size; i++) {
+            News n = BenchSupport.sampleNews(i);
+            ids[i] = n.getId();
+            list.addNews(n);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchSupport.deleteRecursively(dir);
+    }
+
+    private int next() {
+        int i = cursor;
+        cursor = i + 1 == size ? 0 : i + 1;
+        // pas prim fata de size, ca accesele sa nu fie secventiale
+        return (int) ((i * 7919L) % size);
+    }
+
+    @Benchmark
+    public boolean existsIdHit() {
+        return list.existsId(ids[next()]);
+    }
+
+    @Benchmark
+    public boolean existsIdMiss() {
+        return list.existsId("N9:" + next());
+    }
+
+    @Benchmark
+    public News getNewsWithIndexOneTopic() {
+        return list.getNewsWithIndex(1 + next() / BenchSupport.TOPICS.length, oneTopic);
+    }
+
+    @Benchmark
+    public News getNewsWithIndexAllTopics() {
+        return list.getNewsWithIndex(1 + next(), allTopics);
+    }
+
+    @Benchmark
+    public int addThenDelete() {
+        News n = BenchSupport.sampleNews(fresh++);
+        list.addNews(n);
+        return list.deleteNewsById(n.getId());
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.bench;
+
+import org.example.Client.News;
+import org.example.Client.NewsList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// debitul scrierii in jurnal (NewsList.persistNews -> SegmentStore, cu group commit), pentru fiecare
+// politica fsync. single asteapta fiecare scriere, contended face acelasi lucru din 8 fire (scrierile
+// lor concurente intra in acelasi lot), iar pipelined trimite WINDOW scrieri si asteapta doar ultima,
+// ca publicarea din Client
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersistBenchmark {
+
+    private static final int WINDOW = 64;
+
+    @Param({"PER_BATCH", "INTERVAL", "OS"})
+    public String fsync;
+
+    private Path dir;
+    private NewsList list;
+    private News news;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        System.setProperty("persist.fsync", fsync);
+        dir = BenchSupport.isolate("persist-" + fsync);
+        list = new NewsList();
+        news = BenchSupport.sampleNews(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchSupport.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public void single() {
+        list.persistNews(news).join();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void contended() {
+        list.persistNews(news).join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WINDOW)
+    public void pipelined() {
+        CompletableFuture<Void> last = null;
+        for (int i = 0; i < WINDOW; i++) {
+            last = list.persistNews(news);
+        }
+        last.join();
+    }
+}
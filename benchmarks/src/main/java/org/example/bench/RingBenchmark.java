@@ -0,0 +1,90 @@
+package org.example.bench;
+
+import org.example.Client.Client;
+import org.example.Client.RingManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// RingManager.updateRing pentru nodul N1 intr-un inel de members noduri, in modul replicat si in cel
+// partitionat (unde o schimbare de membri reconstruieste inelul de hash cu partition.vnodes noduri
+// virtuale pe nod). steady apeleaza updateRing fara schimbari de membri; churn scoate si readauga
+// alternativ ultimul nod, deci fiecare apel schimba predecesorul (si inelul de hash)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RingBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int members;
+
+    @Param({"false", "true"})
+    public boolean partitioned;
+
+    private Path dir;
+    private Client client;
+    private RingManager ring;
+    private PrintStream out;
+    private String last;
+    private boolean present = true;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        System.setProperty("partition.enabled", Boolean.toString(partitioned));
+        dir = BenchSupport.isolate("ring");
+        client = new Client();
+        client.setId("N1");
+        // jurnalul gol este marcat ca incarcat, altfel predarea cheilor (handoff) se reprogrameaza
+        client.getNewsList().loadPersistedNews().join();
+        for (int i = 1; i <= members; i++) {
+            client.addActiveNode("N" + i);
+        }
+        last = "N" + members;
+        ring = new RingManager(client);
+        ring.updateRing();
+        // updateRing afiseaza fiecare schimbare de vecini; la churn ar inunda iesirea JMH
+        out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(out);
+        client.getLogger().close();
+        BenchSupport.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public void steady() {
+        ring.updateRing();
+    }
+
+    @Benchmark
+    public void churn() {
+        if (present) {
+            client.removeActiveNode(last);
+        } else {
+            client.addActiveNode(last);
+        }
+        present = !present;
+        ring.updateRing();
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.bench;
+
+import org.example.Client.News;
+import org.example.Client.NewsList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// cautarea full-text (NewsList.search, top 10 din toate topicurile) pe size documente sintetice:
+// ~88 de termeni pe document, distribuiti Zipf pe un vocabular de 50000 de cuvinte, ca in textul real.
+// termenii sunt alesi dupa rang: rank 0 apare in aproape fiecare document, rank 5000 in cateva sute
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SearchBenchmark {
+
+    private static final int TOKENS = 88;
+    private static final int VOCABULARY = 50000;
+    private static final int LIMIT = 10;
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private Path dir;
+    private NewsList list;
+    private final List<String> allTopics = Arrays.asList(BenchSupport.TOPICS);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        dir = BenchSupport.isolate("search");
+        list = new NewsList();
+        Random random = new Random(42);
+        double[] cumulative = zipf(VOCABULARY);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            content.setLength(0);
+            for (int t = 0; t < TOKENS; t++) {
+                content.append(word(rank(random, cumulative))).append(' ');
+            }
+            list.addNews(new News("N1",
+                    word(rank(random, cumulative)) + " " + word(rank(random, cumulative)),
+                    content.toString(), BenchSupport.TOPICS[i % BenchSupport.TOPICS.length]));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchSupport.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public List<News> rareTerm() {
+        return list.search(word(5000), LIMIT, allTopics);
+    }
+
+    @Benchmark
+    public List<News> commonTerm() {
+        return list.search(word(0), LIMIT, allTopics);
+    }
+
+    @Benchmark
+    public List<News> threeTerms() {
+        return list.search(word(3) + " " + word(80) + " " + word(900), LIMIT, allTopics);
+    }
+
+    @Benchmark
+    public List<News> commonPhrase() {
+        return list.search("\"" + word(0) + " " + word(1) + "\"", LIMIT, allTopics);
+    }
+
+    private static int rank(Random random, double[] cumulative) {
+        int r = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(r < 0 ? -r - 1 : r, cumulative.length - 1);
+    }
+
+    private static double[] zipf(int n) {
+        double[] c = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / (i + 1);
+            c[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            c[i] /= sum;
+        }
+        return c;
+    }
+
+    // cuvinte doar din litere, ca tokenizarea sa nu le imparta
+    private static String word(int rank) {
+        StringBuilder sb = new StringBuilder("w");
+        do {
+            sb.append((char) ('a' + rank % 26));
+            rank /= 26;
+        } while (rank > 0);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.loadtest;
+
+import com.hivemq.embedded.EmbeddedHiveMQ;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// brokerul MQTT pornit in proces (HiveMQ CE embedded), ascultand doar pe 127.0.0.1:port.
+// o instanta HiveMQ nu poate fi pornita din nou dupa oprire, deci restart() construieste una noua
+// peste acelasi director de date: sesiunile persistente si mesajele retinute supravietuiesc,
+// ca la repornirea unui broker real
+final class EmbeddedBroker {
+
+    private final Path configDir;
+    private final Path dataDir;
+    private final Path extensionsDir;
+    private EmbeddedHiveMQ hiveMQ;
+
+    EmbeddedBroker(Path dir, int port) throws IOException {
+        this.configDir = Files.createDirectories(dir.resolve("conf"));
+        this.dataDir = Files.createDirectories(dir.resolve("data"));
+        this.extensionsDir = Files.createDirectories(dir.resolve("extensions"));
+        Files.write(configDir.resolve("config.xml"), ("<hivemq>\n"
+                + "    <listeners>\n"
+                + "        <tcp-listener>\n"
+                + "            <port>" + port + "</port>\n"
+                + "            <bind-address>127.0.0.1</bind-address>\n"
+                + "        </tcp-listener>\n"
+                + "    </listeners>\n"
+                + "    <anonymous-usage-statistics>\n"
+                + "        <enabled>false</enabled>\n"
+                + "    </anonymous-usage-statistics>\n"
+                + "</hivemq>\n").getBytes(StandardCharsets.UTF_8));
+        // doar avertismentele brokerului, ca raportul sa ramana lizibil
+        Files.write(configDir.resolve("logback.xml"), ("<configuration>\n"
+                + "    <appender name=\"CONSOLE\" class=\"ch.qos.logback.core.ConsoleAppender\">\n"
+                + "        <target>System.err</target>\n"
+                + "        <encoder><pattern>%d{HH:mm:ss.SSS} [broker] %-5level - %msg%n</pattern></encoder>\n"
+                + "    </appender>\n"
+                + "    <root level=\"WARN\"><appender-ref ref=\"CONSOLE\"/></root>\n"
+                + "</configuration>\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    synchronized void start() {
+        hiveMQ = EmbeddedHiveMQ.builder()
+                .withConfigurationFolder(configDir)
+                .withDataFolder(dataDir)
+                .withExtensionsFolder(extensionsDir)
+                .build();
+        hiveMQ.start().join();
+    }
+
+    synchronized void stop() {
+        if (hiveMQ == null) {
+            return;
+        }
+        try {
+            hiveMQ.close();
+        } catch (Exception e) {
+            System.err.println("Oprirea brokerului a esuat: " + e.getMessage());
+        }
+        hiveMQ = null;
+    }
+
+    // intoarce durata in care brokerul a fost indisponibil, in milisecunde
+    long restart() {
+        long start = System.nanoTime();
+        stop();
+        start();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
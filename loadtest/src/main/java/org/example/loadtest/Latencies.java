@@ -0,0 +1,33 @@
+package org.example.loadtest;
+
+import java.util.Arrays;
+
+// latentele de livrare ale unei etape, in nanosecunde; pastrate toate (o etapa are cel mult
+// cateva sute de mii de livrari), deci percentilele sunt exacte
+final class Latencies {
+
+    private long[] values = new long[1024];
+    private int size;
+
+    synchronized void add(long nanos) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = nanos;
+    }
+
+    synchronized int count() {
+        return size;
+    }
+
+    // percentila p (0..100) in milisecunde; 0 daca nu exista valori
+    synchronized double percentileMs(double p) {
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(values, size);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(p / 100.0 * size) - 1;
+        return sorted[Math.max(0, Math.min(rank, size - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,347 @@
+package org.example.loadtest;
+
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.example.Client.AppConfig;
+import org.example.Client.Client;
+import org.example.Client.News;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// generator de incarcare pentru inel: porneste loadtest.nodes noduri Client (N1..Nn) in acest proces,
+// fiecare cu directorul de date si fisierul de log propriu, conectate la un broker HiveMQ pornit tot aici.
+// publica stiri in etape de cate loadtest.stageSec secunde, la ritmurile totale din loadtest.rates
+// (stiri/s, impartite intre nodurile vii), cu amestecul de topicuri loadtest.topics ("topic:pondere,...").
+// dupa fiecare etapa asteapta loadtest.settleSec secunde si raporteaza:
+//  - debitul: publicari confirmate de broker si livrari (o stire ajunsa la alt nod) pe secunda
+//  - latenta de livrare p50/p99/max, de la publishNews pana la sosirea pe fiecare nod
+//  - completitudinea replicarii: stirile confirmate aflate pe toate nodurile vii (in modul
+//    partitionat, pe cel putin min(replication.factor, noduri vii))
+// ritmul la care latenta creste brusc sau completitudinea scade este genunchiul de scalare al inelului.
+// caderi: loadtest.kills="N3@20,N4@45" opreste brusc nodul la secunda data (numarata de la inceputul
+// publicarii), iar loadtest.brokerRestarts="30,60" reporneste brokerul la secundele date.
+// optiunile se dau ca -D<cheie>=<valoare>; orice cheie din application.properties
+// (ex: -Dreplication.factor=3 -Dpartition.enabled=true) se aplica tuturor nodurilor
+public final class LoadGenerator {
+
+    private final int nodeCount = Math.max(1, AppConfig.getInt("loadtest.nodes", 5));
+    private final int port = AppConfig.getInt("loadtest.port", 18830);
+    private final long stageMs = TimeUnit.SECONDS.toMillis(AppConfig.getLong("loadtest.stageSec", 30));
+    private final long settleMs = TimeUnit.SECONDS.toMillis(AppConfig.getLong("loadtest.settleSec", 10));
+    private final long warmupMs = TimeUnit.SECONDS.toMillis(AppConfig.getLong("loadtest.warmupSec", 5));
+    private final int payloadBytes = Math.max(16, AppConfig.getInt("loadtest.payloadBytes", 256));
+    private final boolean partitioned = AppConfig.getBoolean("partition.enabled", false);
+    private final int replicationFactor = Math.max(1, AppConfig.getInt("replication.factor", 2));
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final List<String> topics = new ArrayList<>();
+    private final List<Integer> cumulativeWeights = new ArrayList<>();
+    // momentul publicarii fiecarei stiri, dupa id
+    private final Map<String, Sent> sent = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ScheduledExecutorService events = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "loadtest-events");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private PrintStream report;
+    private EmbeddedBroker broker;
+    private long publishStart;
+    private int roundRobin;
+
+    private static final class Node {
+        final String id;
+        final Client client;
+        volatile boolean alive = true;
+
+        Node(String id, Client client) {
+            this.id = id;
+            this.client = client;
+        }
+    }
+
+    private static final class Sent {
+        final long nanos;
+        final Stage stage;
+
+        Sent(long nanos, Stage stage) {
+            this.nanos = nanos;
+            this.stage = stage;
+        }
+    }
+
+    private static final class Stage {
+        final int rate;
+        final LongAdder published = new LongAdder();
+        final LongAdder acked = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        // livrarile sosite cat timp etapa publica, pentru debit
+        final LongAdder deliveredDuring = new LongAdder();
+        final Latencies latencies = new Latencies();
+        final List<String> ackedIds = Collections.synchronizedList(new ArrayList<>());
+        volatile boolean publishing = true;
+
+        Stage(int rate) {
+            this.rate = rate;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadGenerator().run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        parseTopics(AppConfig.getString("loadtest.topics", "technology:5,science:3,sports:2"));
+        Path dir = Paths.get(AppConfig.getString("loadtest.dir",
+                Files.createTempDirectory("loadtest-").toString()));
+
+        // nodurile afiseaza fiecare stire primita; raportul foloseste iesirea originala
+        report = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        broker = new EmbeddedBroker(dir.resolve("broker"), port);
+        broker.start();
+        log("Broker pornit pe 127.0.0.1:" + port + ", date in " + dir);
+
+        startNodes(dir);
+        log(nodeCount + " noduri conectate; se asteapta " + warmupMs / 1000 + " s pentru formarea inelului");
+        Thread.sleep(warmupMs);
+
+        publishStart = System.nanoTime();
+        scheduleFaults();
+        report.println(String.format(Locale.ROOT, "%8s %10s %13s %11s %9s %9s %9s %9s %9s",
+                "ritm/s", "publicate", "confirmate/s", "livrari/s", "p50 ms", "p99 ms", "max ms", "complet", "esuate"));
+        for (String rate : AppConfig.getString("loadtest.rates", "100,200,400").split(",")) {
+            if (rate.trim().isEmpty()) {
+                continue;
+            }
+            if (liveNodes().isEmpty()) {
+                log("Nu mai exista noduri vii; testul se opreste");
+                break;
+            }
+            runStage(new Stage(Integer.parseInt(rate.trim())));
+        }
+
+        for (Node node : nodes) {
+            node.client.crash();
+        }
+        broker.stop();
+        log("Gata. Datele si logurile nodurilor raman in " + dir);
+    }
+
+    private void parseTopics(String spec) {
+        int total = 0;
+        for (String part : spec.split(",")) {
+            String[] tw = part.trim().split(":");
+            if (tw[0].isEmpty()) {
+                continue;
+            }
+            total += tw.length > 1 ? Math.max(1, Integer.parseInt(tw[1].trim())) : 1;
+            topics.add(tw[0]);
+            cumulativeWeights.add(total);
+        }
+        if (topics.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.topics nu contine niciun topic: " + spec);
+        }
+    }
+
+    private String pickTopic() {
+        int r = ThreadLocalRandom.current().nextInt(cumulativeWeights.get(cumulativeWeights.size() - 1));
+        for (int i = 0; i < topics.size(); i++) {
+            if (r < cumulativeWeights.get(i)) {
+                return topics.get(i);
+            }
+        }
+        return topics.get(topics.size() - 1);
+    }
+
+    // configuratia este citita la constructia fiecarui Client, deci proprietatile per nod
+    // se seteaza inainte de fiecare constructie
+    private void startNodes(Path dir) throws MqttException {
+        System.setProperty("mqtt.brokers", "tcp://127.0.0.1:" + port);
+        System.setProperty("metrics.httpPort", "0");
+        System.setProperty("metrics.jmx", "false");
+        for (int i = 1; i <= nodeCount; i++) {
+            String id = "N" + i;
+            Path nodeDir = dir.resolve(id);
+            System.setProperty("persist.dir", nodeDir.resolve("data").toString());
+            System.setProperty("log.file", nodeDir.resolve("logs.txt").toString());
+            Client client = new Client();
+            client.setId(id);
+            Node node = new Node(id, client);
+            client.setNewsListener(news -> onDelivered(node, news));
+            client.connectToBroker();
+            for (String topic : topics) {
+                client.subscribe(topic);
+            }
+            nodes.add(node);
+        }
+    }
+
+    private void scheduleFaults() {
+        for (String kill : AppConfig.getString("loadtest.kills", "").split(",")) {
+            if (kill.trim().isEmpty()) {
+                continue;
+            }
+            String[] parts = kill.trim().split("@");
+            String id = parts[0];
+            long atMs = (long) (Double.parseDouble(parts[1]) * 1000);
+            events.schedule(() -> {
+                for (Node node : nodes) {
+                    if (node.id.equals(id) && node.alive) {
+                        node.alive = false;
+                        node.client.crash();
+                        log("Nodul " + id + " a fost oprit brusc");
+                    }
+                }
+            }, atMs, TimeUnit.MILLISECONDS);
+        }
+        for (String restart : AppConfig.getString("loadtest.brokerRestarts", "").split(",")) {
+            if (restart.trim().isEmpty()) {
+                continue;
+            }
+            long atMs = (long) (Double.parseDouble(restart.trim()) * 1000);
+            events.schedule(() -> {
+                log("Brokerul se reporneste");
+                long downMs = broker.restart();
+                log("Brokerul a revenit dupa " + downMs + " ms");
+            }, atMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private List<Node> liveNodes() {
+        List<Node> live = new ArrayList<>();
+        for (Node node : nodes) {
+            if (node.alive) {
+                live.add(node);
+            }
+        }
+        return live;
+    }
+
+    // publica la ritmul etapei (distribuit uniform in timp, nodurile vii pe rand), apoi asteapta
+    // livrarile si replicarea si raporteaza
+    private void runStage(Stage stage) throws InterruptedException {
+        long start = System.nanoTime();
+        long end = start + TimeUnit.MILLISECONDS.toNanos(stageMs);
+        long published = 0;
+        String filler = filler();
+        while (true) {
+            long now = System.nanoTime();
+            if (now >= end) {
+                break;
+            }
+            long due = (now - start) * stage.rate / 1_000_000_000L;
+            while (published < due) {
+                List<Node> live = liveNodes();
+                if (live.isEmpty()) {
+                    break;
+                }
+                publish(live.get(roundRobin++ % live.size()), stage, filler);
+                published++;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        stage.publishing = false;
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Thread.sleep(settleMs);
+
+        report.println(String.format(Locale.ROOT, "%8d %10d %13.1f %11.1f %9.1f %9.1f %9.1f %8.2f%% %9d",
+                stage.rate, stage.published.sum(), stage.acked.sum() / seconds, stage.deliveredDuring.sum() / seconds,
+                stage.latencies.percentileMs(50), stage.latencies.percentileMs(99), stage.latencies.percentileMs(100),
+                completeness(stage), stage.failed.sum()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void publish(Node node, Stage stage, String filler) {
+        long seq = sequence.incrementAndGet();
+        News news = new News(node.id, "Load test " + seq, seq + " " + filler, pickTopic());
+        sent.put(news.getId(), new Sent(System.nanoTime(), stage));
+        stage.published.increment();
+        Future<Void> ack = node.client.publishNews(news);
+        if (ack instanceof CompletableFuture) {
+            ((CompletableFuture<Void>) ack).whenComplete((ok, err) -> {
+                if (err == null) {
+                    stage.acked.increment();
+                    stage.ackedIds.add(news.getId());
+                } else {
+                    stage.failed.increment();
+                }
+            });
+        }
+    }
+
+    // prima sosire a unei stiri pe un nod, altul decat autorul
+    private void onDelivered(Node node, News news) {
+        if (news.getId().startsWith(node.id + ":")) {
+            return;
+        }
+        Sent s = sent.get(news.getId());
+        if (s == null) {
+            return;
+        }
+        s.stage.latencies.add(System.nanoTime() - s.nanos);
+        if (s.stage.publishing) {
+            s.stage.deliveredDuring.increment();
+        }
+    }
+
+    // procentul stirilor confirmate de broker care se afla pe cate noduri vii trebuie
+    private double completeness(Stage stage) {
+        List<Node> live = liveNodes();
+        int expected = partitioned ? Math.min(replicationFactor, live.size()) : live.size();
+        List<String> ids;
+        synchronized (stage.ackedIds) {
+            ids = new ArrayList<>(stage.ackedIds);
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int complete = 0;
+        for (String id : ids) {
+            int holders = 0;
+            for (Node node : live) {
+                if (node.client.getNewsList().existsId(id)) {
+                    holders++;
+                }
+            }
+            if (holders >= expected) {
+                complete++;
+            }
+        }
+        return 100.0 * complete / ids.size();
+    }
+
+    private String filler() {
+        StringBuilder sb = new StringBuilder(payloadBytes);
+        while (sb.length() < payloadBytes) {
+            sb.append("lorem ipsum dolor sit amet ");
+        }
+        return sb.substring(0, payloadBytes);
+    }
+
+    private void log(String message) {
+        long sinceStart = publishStart == 0 ? 0 : (System.nanoTime() - publishStart) / 1_000_000;
+        report.println(String.format(Locale.ROOT, "[%7.1f s] %s", sinceStart / 1000.0, message));
+    }
+}
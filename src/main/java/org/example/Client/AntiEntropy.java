@@ -0,0 +1,360 @@
+package org.example.Client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// clasa AntiEntropy reconciliaza periodic lista locala cu cea a succesorului.
+// vecinii schimba hash-urile arborelui Merkle (BucketDigest) nivel cu nivel, coborand doar
+// in subarborii diferiti; pentru galetile diferite schimba listele de id-uri si transfera
+// doar stirile care lipsesc. stergerile ajung la fel, ca stiri "stergere".
+// mesajele sunt fara stare, json pe "antientropy/<destinatar>"
+public class AntiEntropy {
+
+    // un mesaj al protocolului
+    static final class Message {
+        static final String DIGEST = "digest";
+        static final String BUCKET_IDS = "bucket_ids";
+        static final String REQUEST = "request";
+        static final String NEWS = "news";
+
+        String type;
+        String from;
+        // digest: nivelul, nodurile si hash-urile lor
+        int level;
+        int[] nodes;
+        long[] hashes;
+        // bucket_ids: galetile si id-urile din fiecare; request: id-urile cerute in ids[0]
+        int[] buckets;
+        List<List<String>> ids;
+        // news: stirile transferate
+        List<News> news;
+    }
+
+    // cat incape intr-un mesaj, sub limita de mesaj a brokerului: aproximativ pentru bucket_ids/request,
+    // dupa json-ul codificat al stirilor pentru news
+    private final int maxMessageBytes = Math.max(4096, AppConfig.getInt("antiEntropy.maxMessageBytes", 256 * 1024));
+
+    private final Client client;
+    private final NewsList newsList;
+    private final RingManager ringManager;
+    private final long intervalMs;
+    private ScheduledFuture<?> task;
+
+    private final AtomicLong rounds = new AtomicLong();
+    private final AtomicLong bucketsRepaired = new AtomicLong();
+    private final AtomicLong newsSent = new AtomicLong();
+    private final AtomicLong newsReceived = new AtomicLong();
+
+    public AntiEntropy(Client client, NewsList newsList, RingManager ringManager) {
+        this.client = client;
+        this.newsList = newsList;
+        this.ringManager = ringManager;
+        this.intervalMs = AppConfig.getLong("antiEntropy.intervalMs", TimeUnit.MINUTES.toMillis(1));
+    }
+
+    public synchronized void start() {
+        if (task != null || intervalMs <= 0) {
+            return;
+        }
+        // runda publica, deci poate astepta dupa fereastra de publicari: ruleaza pe blocking()
+        task = ClientExecutors.scheduler().scheduleWithFixedDelay(() -> ClientExecutors.blocking().execute(() -> {
+            try {
+                startRound();
+            } catch (RuntimeException e) {
+                client.writeToLogFile(LogLevel.ERROR, "[AntiEntropie] Eroare: " + e.getMessage());
+            }
+        }), intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // trimite radacina arborelui catre succesor
+    public void startRound() {
+        String succ = ringManager.getSuccessor();
+        if (succ == null || succ.equals(client.getId())) {
+            return;
+        }
+        rounds.incrementAndGet();
+        int[] root = {0};
+        send(succ, digest(0, root));
+    }
+
+    public void handleMessage(byte[] payload) {
+        Message m;
+        try {
+            m = JsonNewsCodec.GSON.fromJson(new String(payload, StandardCharsets.UTF_8), Message.class);
+        } catch (RuntimeException e) {
+            client.writeToLogFile(LogLevel.WARN, "[AntiEntropie] Mesaj invalid ignorat: " + e.getMessage());
+            return;
+        }
+        if (m == null || m.type == null || m.from == null || m.from.equals(client.getId())) {
+            return;
+        }
+        switch (m.type) {
+            case Message.DIGEST:
+                onDigest(m);
+                break;
+            case Message.BUCKET_IDS:
+                onBucketIds(m);
+                break;
+            case Message.REQUEST:
+                onRequest(m);
+                break;
+            case Message.NEWS:
+                onNews(m);
+                break;
+            default:
+                client.writeToLogFile(LogLevel.WARN, "[AntiEntropie] Tip de mesaj necunoscut: " + m.type);
+        }
+    }
+
+    // compara hash-urile primite; coboara un nivel in nodurile diferite sau, la frunze,
+    // trimite id-urile galetilor diferite
+    private void onDigest(Message m) {
+        if (m.nodes == null || m.hashes == null || m.nodes.length != m.hashes.length
+                || m.level < 0 || m.level > BucketDigest.DEPTH) {
+            return;
+        }
+        int count = BucketDigest.nodesOn(m.level);
+        if (m.nodes.length > count) {
+            return;
+        }
+        for (int node : m.nodes) {
+            if (node < 0 || node >= count) {
+                client.writeToLogFile(LogLevel.WARN, "[AntiEntropie] Digest invalid de la " + m.from
+                        + ": nodul " + node + " pe nivelul " + m.level);
+                return;
+            }
+        }
+        long[] mine = newsList.digestHashes(m.level, m.nodes);
+        List<Integer> differing = new ArrayList<>();
+        for (int i = 0; i < m.nodes.length; i++) {
+            if (mine[i] != m.hashes[i]) {
+                differing.add(m.nodes[i]);
+            }
+        }
+        if (differing.isEmpty()) {
+            if (m.level == 0) {
+                client.writeToLogFile("[AntiEntropie] Sincronizat cu " + m.from);
+            }
+            return;
+        }
+        if (m.level == BucketDigest.DEPTH) {
+            sendBucketIds(m.from, differing);
+            return;
+        }
+        int[] children = new int[differing.size() * BucketDigest.FANOUT];
+        int c = 0;
+        for (int node : differing) {
+            for (int k = 0; k < BucketDigest.FANOUT; k++) {
+                children[c++] = node * BucketDigest.FANOUT + k;
+            }
+        }
+        send(m.from, digest(m.level + 1, children));
+    }
+
+    // o galeata nu este impartita intre mesaje (destinatarul compara galeata intreaga), dar galetile
+    // sunt grupate in mesaje de cel mult maxMessageBytes
+    private void sendBucketIds(String to, List<Integer> buckets) {
+        List<Integer> chunkBuckets = new ArrayList<>();
+        List<List<String>> chunkIds = new ArrayList<>();
+        int bytes = 0;
+        for (int bucket : buckets) {
+            List<String> ids = newsList.idsInBucket(bucket);
+            int size = 8 + idsBytes(ids);
+            if (!chunkBuckets.isEmpty() && bytes + size > maxMessageBytes) {
+                sendBucketIdsChunk(to, chunkBuckets, chunkIds);
+                chunkBuckets.clear();
+                chunkIds.clear();
+                bytes = 0;
+            }
+            chunkBuckets.add(bucket);
+            chunkIds.add(ids);
+            bytes += size;
+        }
+        if (!chunkBuckets.isEmpty()) {
+            sendBucketIdsChunk(to, chunkBuckets, chunkIds);
+        }
+        bucketsRepaired.addAndGet(buckets.size());
+    }
+
+    private void sendBucketIdsChunk(String to, List<Integer> buckets, List<List<String>> ids) {
+        Message out = message(Message.BUCKET_IDS);
+        out.buckets = new int[buckets.size()];
+        for (int i = 0; i < buckets.size(); i++) {
+            out.buckets[i] = buckets.get(i);
+        }
+        out.ids = new ArrayList<>(ids);
+        send(to, out);
+    }
+
+    // dimensiunea aproximativa in json a unei liste de id-uri
+    private static int idsBytes(List<String> ids) {
+        int bytes = 2;
+        for (String id : ids) {
+            bytes += id.length() + 3;
+        }
+        return bytes;
+    }
+
+    // pentru fiecare galeata: trimitem ce le lipseste lor si cerem ce ne lipseste noua
+    private void onBucketIds(Message m) {
+        if (m.buckets == null || m.ids == null || m.buckets.length != m.ids.size()) {
+            return;
+        }
+        List<News> theyLack = new ArrayList<>();
+        List<String> weLack = new ArrayList<>();
+        for (int i = 0; i < m.buckets.length; i++) {
+            int bucket = m.buckets[i];
+            if (bucket < 0 || bucket >= BucketDigest.LEAVES) {
+                continue;
+            }
+            Set<String> theirs = new HashSet<>(m.ids.get(i));
+            for (String id : newsList.idsInBucket(bucket)) {
+                if (!theirs.remove(id)) {
+                    News n = newsList.getNewsById(id);
+                    if (n != null && isOwnedBy(n, m.from)) {
+                        theyLack.add(n);
+                    }
+                }
+            }
+            for (String id : theirs) {
+                if (!newsList.isDeleted(id) && isOwnedBy(id, client.getId())) {
+                    weLack.add(id);
+                }
+            }
+        }
+        sendNews(m.from, theyLack);
+        // cererea este impartita la fel, dupa dimensiune
+        int from = 0;
+        int bytes = 0;
+        for (int i = 0; i < weLack.size(); i++) {
+            int size = weLack.get(i).length() + 3;
+            if (i > from && bytes + size > maxMessageBytes) {
+                sendRequest(m.from, weLack.subList(from, i));
+                from = i;
+                bytes = 0;
+            }
+            bytes += size;
+        }
+        if (from < weLack.size()) {
+            sendRequest(m.from, weLack.subList(from, weLack.size()));
+        }
+    }
+
+    private void sendRequest(String to, List<String> ids) {
+        Message request = message(Message.REQUEST);
+        request.ids = Collections.singletonList(new ArrayList<>(ids));
+        send(to, request);
+    }
+
+    private void onRequest(Message m) {
+        if (m.ids == null || m.ids.isEmpty()) {
+            return;
+        }
+        List<News> found = new ArrayList<>();
+        for (String id : m.ids.get(0)) {
+            News n = newsList.getNewsById(id);
+            if (n != null) {
+                found.add(n);
+            }
+        }
+        sendNews(m.from, found);
+    }
+
+    private void onNews(Message m) {
+        if (m.news == null) {
+            return;
+        }
+        for (News n : m.news) {
+            if (n != null && n.getId() != null) {
+                newsReceived.incrementAndGet();
+                client.processNewsInternal(n, true);
+            }
+        }
+        client.writeToLogFile("[AntiEntropie] " + m.news.size() + " stiri primite de la " + m.from);
+    }
+
+    // in modul partitionat se transfera doar stirile pe care destinatarul trebuie sa le pastreze
+    private boolean isOwnedBy(News n, String nodeId) {
+        return "stergere".equals(n.getTopic()) || isOwnedBy(n.getId(), nodeId);
+    }
+
+    private boolean isOwnedBy(String newsId, String nodeId) {
+        return !ringManager.isPartitioned() || ringManager.ownersOf(newsId).contains(nodeId);
+    }
+
+    // stirile sunt grupate dupa dimensiune, nu dupa numar: cateva continuturi mari ar depasi altfel
+    // limita brokerului, mesajul s-ar pierde si galeata nu s-ar mai sincroniza. o stire mai mare decat
+    // limita pleaca singura
+    private void sendNews(String to, List<News> news) {
+        List<News> chunk = new ArrayList<>();
+        int bytes = 0;
+        for (News n : news) {
+            int size = JsonNewsCodec.INSTANCE.encode(n).length + 1;
+            if (!chunk.isEmpty() && bytes + size > maxMessageBytes) {
+                sendNewsChunk(to, chunk);
+                chunk = new ArrayList<>();
+                bytes = 0;
+            }
+            if (size > maxMessageBytes) {
+                client.writeToLogFile(LogLevel.WARN, "[AntiEntropie] Stirea " + n.getId() + " are " + size
+                        + " octeti, peste antiEntropy.maxMessageBytes");
+            }
+            chunk.add(n);
+            bytes += size;
+        }
+        if (!chunk.isEmpty()) {
+            sendNewsChunk(to, chunk);
+        }
+    }
+
+    private void sendNewsChunk(String to, List<News> news) {
+        Message out = message(Message.NEWS);
+        out.news = news;
+        newsSent.addAndGet(news.size());
+        send(to, out);
+    }
+
+    private Message digest(int level, int[] nodes) {
+        Message m = message(Message.DIGEST);
+        m.level = level;
+        m.nodes = nodes;
+        m.hashes = newsList.digestHashes(level, nodes);
+        return m;
+    }
+
+    private Message message(String type) {
+        Message m = new Message();
+        m.type = type;
+        m.from = client.getId();
+        return m;
+    }
+
+    private void send(String to, Message m) {
+        byte[] payload = JsonNewsCodec.GSON.toJson(m).getBytes(StandardCharsets.UTF_8);
+        client.publishAsync("antientropy/" + to, payload, false).whenComplete((ok, err) -> {
+            if (err != null) {
+                client.writeToLogFile(LogLevel.WARN, "[AntiEntropie] Mesajul " + m.type + " catre " + to
+                        + " nu a fost trimis: " + err.getMessage());
+            }
+        });
+    }
+
+    public long getRounds() {
+        return rounds.get();
+    }
+
+    public long getBucketsRepaired() {
+        return bucketsRepaired.get();
+    }
+
+    public long getNewsSent() {
+        return newsSent.get();
+    }
+
+    public long getNewsReceived() {
+        return newsReceived.get();
+    }
+}
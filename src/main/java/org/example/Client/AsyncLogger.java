@@ -0,0 +1,368 @@
+package org.example.Client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// clasa AsyncLogger inlocuieste deschiderea unui FileWriter la fiecare mesaj de log.
+// apelantii pun mesajele intr-un ring buffer fara lock-uri (MPSC), iar un singur
+// thread de fundal le scrie in loturi pe un FileChannel deschis pe toata durata rularii.
+// fiecare nod scrie in propriul fisier, log.dir/<id>.log (sau log.file, daca este setat);
+// fisierul este deschis la prima scriere, deci id-ul setat dupa constructie este deja cunoscut
+public class AsyncLogger implements AutoCloseable {
+
+    public static final String DEFAULT_LOG_DIR = "./logs";
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final long DEFAULT_MAX_FILE_BYTES = 10L * 1024 * 1024; // 10 MB
+    private static final long DEFAULT_ROTATE_INTERVAL_MS = TimeUnit.DAYS.toMillis(1);
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    // cat timp asteapta un mesaj WARN/ERROR dupa loc in buffer inainte de a fi pierdut
+    private static final long MAX_BLOCK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    // pauza dupa o eroare de I/O, inainte de redeschiderea fisierului
+    private static final long RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss").withZone(ZoneId.systemDefault());
+    private static final DateTimeFormatter ROTATE_SUFFIX_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneId.systemDefault());
+
+    // un slot din ring buffer; campurile sunt publicate prin secventa slotului
+    private static final class Slot {
+        LogLevel level;
+        long timeMillis;
+        String nodeId;
+        String message;
+    }
+
+    // fisierul cerut; thread-ul de scriere trece pe el la urmatoarea scriere
+    private volatile Path logFile;
+    private final long maxFileBytes;
+    private final long rotateIntervalMs;
+
+    private final Slot[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // folosit doar de thread-ul de scriere
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private volatile LogLevel minLevel = LogLevel.INFO;
+    private volatile boolean running;
+    private Thread writerThread;
+    private Thread shutdownHook;
+
+    // stare folosita exclusiv de thread-ul de scriere
+    private FileChannel channel;
+    private Path openFile;
+    private int bufferedLines;
+    private long fileBytes;
+    private long fileOpenedAt;
+    private long cachedSecond = -1;
+    private String cachedTimestamp;
+    private final StringBuilder lineBuilder = new StringBuilder(256);
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+
+    public AsyncLogger() {
+        this(AppConfig.getString("log.file", Paths.get(AppConfig.getString("log.dir", DEFAULT_LOG_DIR), "client.log").toString()),
+                DEFAULT_CAPACITY, DEFAULT_MAX_FILE_BYTES, DEFAULT_ROTATE_INTERVAL_MS);
+    }
+
+    // fisierul de log al unui nod: log.file daca este setat explicit, altfel log.dir/<id>.log
+    public static Path fileFor(String nodeId) {
+        String explicit = AppConfig.getString("log.file", null);
+        return explicit != null ? Paths.get(explicit) : Paths.get(AppConfig.getString("log.dir", DEFAULT_LOG_DIR), nodeId + ".log");
+    }
+
+    public AsyncLogger(String logFile, int capacity, long maxFileBytes, long rotateIntervalMs) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacitatea trebuie sa fie o putere a lui 2: " + capacity);
+        }
+        this.logFile = Paths.get(logFile);
+        this.maxFileBytes = maxFileBytes;
+        this.rotateIntervalMs = rotateIntervalMs;
+        this.slots = new Slot[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+            sequences.set(i, i);
+        }
+    }
+
+    // porneste thread-ul de scriere si inregistreaza flush-ul la oprirea JVM-ului
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        writerThread = new Thread(this::writerLoop, "async-logger");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        shutdownHook = new Thread(this::close, "async-logger-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    // schimba fisierul de log; mesajele deja scrise raman in fisierul vechi
+    public void setLogFile(Path file) {
+        this.logFile = file;
+    }
+
+    public void setMinLevel(LogLevel level) {
+        this.minLevel = level;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    // adauga un mesaj in buffer; nu blocheaza pe I/O
+    public boolean log(LogLevel level, String nodeId, String message) {
+        if (!level.isAtLeast(minLevel)) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (offer(level, now, nodeId, message)) {
+            return true;
+        }
+        // buffer plin: mesajele importante asteapta putin, restul se pierd (pierdere limitata si numarata)
+        if (level.isAtLeast(LogLevel.WARN)) {
+            long deadline = System.nanoTime() + MAX_BLOCK_NANOS;
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(50_000);
+                if (offer(level, now, nodeId, message)) {
+                    return true;
+                }
+            }
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    // coada marginita multi-producer / single-consumer (algoritmul Vyukov)
+    private boolean offer(LogLevel level, long timeMillis, String nodeId, String message) {
+        while (true) {
+            long pos = tail.get();
+            int idx = (int) (pos & mask);
+            long diff = sequences.get(idx) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    Slot slot = slots[idx];
+                    slot.level = level;
+                    slot.timeMillis = timeMillis;
+                    slot.nodeId = nodeId;
+                    slot.message = message;
+                    sequences.lazySet(idx, pos + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false; // plin
+            }
+        }
+    }
+
+    private void writerLoop() {
+        long reportedDropped = 0;
+        while (running || hasPending()) {
+            try {
+                int drained = drainBatch();
+                long droppedNow = dropped.get();
+                if (droppedNow != reportedDropped) {
+                    appendLine(LogLevel.WARN, System.currentTimeMillis(), "AsyncLogger",
+                            "Mesaje de log pierdute: " + (droppedNow - reportedDropped));
+                    reportedDropped = droppedNow;
+                    drained++;
+                }
+                if (drained > 0) {
+                    flushBuffer();
+                    rotateIfNeeded();
+                } else {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (IOException e) {
+                writeFailed(e);
+            }
+        }
+        try {
+            flushBuffer();
+            if (channel != null) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            writeFailed(e);
+        }
+        closeChannel();
+    }
+
+    // o eroare de I/O nu opreste thread-ul: liniile din buffer se pierd (si sunt numarate),
+    // iar fisierul este redeschis la urmatoarea scriere, dupa o pauza
+    private void writeFailed(IOException e) {
+        System.err.println("[AsyncLogger] Scrierea in " + logFile + " a esuat: " + e.getMessage());
+        written.addAndGet(-bufferedLines);
+        dropped.addAndGet(bufferedLines);
+        bufferedLines = 0;
+        buffer.clear();
+        closeChannel();
+        if (running) {
+            LockSupport.parkNanos(RETRY_DELAY_NANOS);
+        }
+    }
+
+    private boolean hasPending() {
+        return sequences.get((int) (head & mask)) == head + 1;
+    }
+
+    private int drainBatch() throws IOException {
+        int count = 0;
+        while (count < BATCH_SIZE) {
+            int idx = (int) (head & mask);
+            if (sequences.get(idx) != head + 1) {
+                break;
+            }
+            Slot slot = slots[idx];
+            LogLevel level = slot.level;
+            long time = slot.timeMillis;
+            String nodeId = slot.nodeId;
+            String message = slot.message;
+            slot.nodeId = null;
+            slot.message = null;
+            sequences.lazySet(idx, head + slots.length);
+            head++;
+            appendLine(level, time, nodeId, message);
+            count++;
+        }
+        return count;
+    }
+
+    // formatul liniei ramane cel vechi: [id][dd-MM-yyyy HH:mm:ss] mesaj
+    private void appendLine(LogLevel level, long timeMillis, String nodeId, String message) throws IOException {
+        lineBuilder.setLength(0);
+        lineBuilder.append('[').append(nodeId).append("][").append(timestamp(timeMillis)).append("] ");
+        if (level != LogLevel.INFO) {
+            lineBuilder.append('[').append(level.name()).append("] ");
+        }
+        lineBuilder.append(message).append(System.lineSeparator());
+
+        byte[] bytes = lineBuilder.toString().getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > buffer.remaining()) {
+            flushBuffer();
+            if (bytes.length > buffer.capacity()) {
+                buffer = ByteBuffer.allocateDirect(bytes.length);
+            }
+        }
+        buffer.put(bytes);
+        bufferedLines++;
+        written.incrementAndGet();
+    }
+
+    // formatarea se face o singura data pe secunda
+    private String timestamp(long timeMillis) {
+        long second = timeMillis / 1000;
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedTimestamp = TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(timeMillis));
+        }
+        return cachedTimestamp;
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        Path target = logFile;
+        if (channel != null && !target.equals(openFile)) {
+            closeChannel();
+        }
+        if (channel == null) {
+            openChannel(target);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            fileBytes += channel.write(buffer);
+        }
+        buffer.clear();
+        bufferedLines = 0;
+    }
+
+    private void openChannel(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        openFile = file;
+        fileBytes = channel.size();
+        fileOpenedAt = System.currentTimeMillis();
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            channel = null;
+        }
+    }
+
+    // rotatie dupa dimensiune sau dupa timp: N1.log -> N1.log.yyyyMMdd-HHmmss
+    private void rotateIfNeeded() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        boolean tooBig = maxFileBytes > 0 && fileBytes >= maxFileBytes;
+        boolean tooOld = rotateIntervalMs > 0 && now - fileOpenedAt >= rotateIntervalMs && fileBytes > 0;
+        if (!tooBig && !tooOld) {
+            return;
+        }
+        Path file = openFile;
+        channel.force(false);
+        closeChannel();
+        String base = file.getFileName() + "." + ROTATE_SUFFIX_FORMAT.format(Instant.ofEpochMilli(now));
+        Path rotated = file.resolveSibling(base);
+        for (int i = 1; Files.exists(rotated); i++) {
+            rotated = file.resolveSibling(base + "-" + i);
+        }
+        Files.move(file, rotated);
+        openChannel(file);
+    }
+
+    // goleste buffer-ul si inchide fisierul; apelata si din shutdown hook
+    @Override
+    public void close() {
+        Thread t;
+        synchronized (this) {
+            if (!running) return;
+            running = false;
+            t = writerThread;
+        }
+        LockSupport.unpark(t);
+        try {
+            t.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // inchis explicit: hook-ul nu mai este necesar (in timpul opririi JVM nu mai poate fi scos)
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.Client;
+
+import java.nio.charset.StandardCharsets;
+
+// format binar compact: [0x01][camp id][camp titlu][camp continut][camp topic]
+// fiecare camp este un varint (lungime + 1, 0 = null) urmat de octetii UTF-8
+public class BinaryNewsCodec implements NewsCodec {
+
+    public static final byte FORMAT_ID = 0x01;
+
+    public static final BinaryNewsCodec INSTANCE = new BinaryNewsCodec();
+
+    @Override
+    public byte formatId() {
+        return FORMAT_ID;
+    }
+
+    @Override
+    public byte[] encode(News news) {
+        byte[] id = utf8(news.getId());
+        // octetii UTF-8 pastrati deja de stire, fara trecere prin String
+        byte[] title = news.titleUtf8();
+        byte[] content = news.contentUtf8();
+        byte[] topic = utf8(news.getTopic());
+        int size = 1 + fieldSize(id) + fieldSize(title) + fieldSize(content) + fieldSize(topic);
+
+        byte[] out = new byte[size];
+        out[0] = FORMAT_ID;
+        int pos = 1;
+        pos = writeField(out, pos, id);
+        pos = writeField(out, pos, title);
+        pos = writeField(out, pos, content);
+        writeField(out, pos, topic);
+        return out;
+    }
+
+    @Override
+    public News decode(byte[] payload) {
+        if (payload.length == 0 || payload[0] != FORMAT_ID) {
+            throw new IllegalArgumentException("Payload-ul nu este in format binar");
+        }
+        int[] pos = {1};
+        String id = readField(payload, pos);
+        byte[] title = readBytes(payload, pos);
+        byte[] content = readBytes(payload, pos);
+        String topic = readField(payload, pos);
+        return News.restoreUtf8(id, title, content, topic);
+    }
+
+    private static byte[] utf8(String s) {
+        return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int fieldSize(byte[] field) {
+        int len = field == null ? 0 : field.length + 1;
+        return varintSize(len) + (field == null ? 0 : field.length);
+    }
+
+    private static int writeField(byte[] out, int pos, byte[] field) {
+        if (field == null) {
+            return writeVarint(out, pos, 0);
+        }
+        pos = writeVarint(out, pos, field.length + 1);
+        System.arraycopy(field, 0, out, pos, field.length);
+        return pos + field.length;
+    }
+
+    private static String readField(byte[] in, int[] pos) {
+        int len = readLength(in, pos);
+        if (len < 0) {
+            return null;
+        }
+        String s = new String(in, pos[0], len, StandardCharsets.UTF_8);
+        pos[0] += len;
+        return s;
+    }
+
+    private static byte[] readBytes(byte[] in, int[] pos) {
+        int len = readLength(in, pos);
+        if (len < 0) {
+            return null;
+        }
+        byte[] out = new byte[len];
+        System.arraycopy(in, pos[0], out, 0, len);
+        pos[0] += len;
+        return out;
+    }
+
+    // lungimea unui camp, -1 pentru null; o lungime negativa (varint peste 2^31) sau mai mare decat
+    // octetii ramasi inseamna un payload corupt, nu o alocare sau o exceptie de indexare
+    private static int readLength(byte[] in, int[] pos) {
+        int encoded = readVarint(in, pos);
+        if (encoded == 0) {
+            return -1;
+        }
+        int len = encoded - 1;
+        if (encoded < 0 || len > in.length - pos[0]) {
+            throw new IllegalArgumentException("Camp trunchiat in payload-ul binar");
+        }
+        return len;
+    }
+
+    static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    static int writeVarint(byte[] out, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            out[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        return pos;
+    }
+
+    static int readVarint(byte[] in, int[] pos) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (pos[0] >= in.length) {
+                throw new IllegalArgumentException("Varint trunchiat in payload-ul binar");
+            }
+            byte b = in[pos[0]++];
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Varint invalid in payload-ul binar");
+    }
+}
@@ -0,0 +1,264 @@
+package org.example.Client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// regiune in afara heap-ului pentru continutul stirilor.
+// corpurile sunt scrise in fisiere de bodies.chunkBytes mapate in memorie, deci ocupa page cache,
+// nu heap; GC-ul nu le mai parcurge si nu le mai copiaza. o referinta este (fisier << 32 | pozitie),
+// iar o inregistrare este [int lungime][octeti].
+// fiecare instanta are propriul director (persist.dir/bodies/instance-*), blocat cu un FileLock;
+// directoarele ramase de la procese oprite sunt sterse la pornire. pentru fiecare fisier se tin
+// octetii inca folositi: un fisier golit complet este refolosit pentru scrierile urmatoare, iar
+// compactarea (NewsList.compactBodies) muta corpurile ramase din fisierele rare, ca sa se goleasca.
+// regiunea nu este o sursa de adevar: jurnalul si snapshot-ul raman persistenta reala
+final class BodyStore implements AutoCloseable {
+
+    private static final String CHUNK_PREFIX = "bodies-";
+    private static final String CHUNK_SUFFIX = ".dat";
+    private static final String INSTANCE_PREFIX = "instance-";
+    private static final String LOCK_FILE = "lock";
+    private static final int HEADER_BYTES = 4;
+    // un director fara fisier de blocare poate fi al unei instante abia pornite
+    private static final long UNLOCKED_GRACE_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Path directory;
+    private final long chunkBytes;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+
+    // citite fara blocare; inlocuite cu o copie mai mare la fiecare fisier nou
+    private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+    private final Object appendLock = new Object();
+    // sub appendLock: octetii folositi din fiecare fisier, fisierele goale si fisierul curent
+    private long[] liveBytes = new long[0];
+    private final List<Integer> freeChunks = new ArrayList<>();
+    private int writeChunk = -1;
+    private int writePosition;
+    private long usedBytes;
+
+    BodyStore(String directory, long chunkBytes) throws IOException {
+        Path root = Paths.get(directory);
+        this.chunkBytes = Math.min(Integer.MAX_VALUE, Math.max(64 * 1024, chunkBytes));
+        Files.createDirectories(root);
+        removeStale(root);
+        this.directory = Files.createTempDirectory(root, INSTANCE_PREFIX);
+        this.lockChannel = FileChannel.open(this.directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.lock = lockChannel.tryLock();
+    }
+
+    // din configuratie; null daca regiunea este dezactivata sau nu poate fi creata
+    static BodyStore fromConfig(String persistDir) {
+        if (!AppConfig.getBoolean("bodies.offHeap", true)) {
+            return null;
+        }
+        try {
+            return new BodyStore(Paths.get(persistDir, "bodies").toString(),
+                    AppConfig.getLong("bodies.chunkBytes", 256L * 1024 * 1024));
+        } catch (IOException e) {
+            System.out.println("Regiunea off-heap nu a putut fi creata, continutul ramane in heap: " + e.getMessage());
+            return null;
+        }
+    }
+
+    Path getDirectory() {
+        return directory;
+    }
+
+    // copiaza octetii in regiune si intoarce referinta lor
+    long append(byte[] bytes) throws IOException {
+        synchronized (appendLock) {
+            int needed = HEADER_BYTES + bytes.length;
+            if (writeChunk < 0 || chunks[writeChunk].capacity() - writePosition < needed) {
+                nextChunk(needed);
+            }
+            ByteBuffer view = chunks[writeChunk].duplicate();
+            view.position(writePosition);
+            view.putInt(bytes.length);
+            view.put(bytes);
+            long ref = ((long) writeChunk << 32) | writePosition;
+            writePosition += needed;
+            liveBytes[writeChunk] += needed;
+            usedBytes += needed;
+            return ref;
+        }
+    }
+
+    // corpul referintei nu mai este folosit; un fisier ramas fara corpuri este refolosit
+    void free(long ref) {
+        int chunk = (int) (ref >>> 32);
+        int length = HEADER_BYTES + chunks[chunk].getInt((int) ref);
+        synchronized (appendLock) {
+            liveBytes[chunk] -= length;
+            usedBytes -= length;
+            if (liveBytes[chunk] == 0 && chunk != writeChunk) {
+                freeChunks.add(chunk);
+            }
+        }
+    }
+
+    // vedere read-only peste octetii referintei, direct din maparea fisierului (fara copiere)
+    ByteBuffer slice(long ref) {
+        ByteBuffer view = chunks[(int) (ref >>> 32)].asReadOnlyBuffer();
+        int position = (int) ref;
+        int length = view.getInt(position);
+        view.position(position + HEADER_BYTES);
+        view.limit(position + HEADER_BYTES + length);
+        return view.slice();
+    }
+
+    // octetii referintei copiati in heap (pentru codec-uri si decompresie)
+    byte[] read(long ref) {
+        ByteBuffer view = slice(ref);
+        byte[] out = new byte[view.remaining()];
+        view.get(out);
+        return out;
+    }
+
+    // octetii corpurilor inca folosite
+    long usedBytes() {
+        synchronized (appendLock) {
+            return usedBytes;
+        }
+    }
+
+    // octetii mapati, in toate fisierele
+    long capacityBytes() {
+        long capacity = 0;
+        for (MappedByteBuffer chunk : chunks) {
+            capacity += chunk.capacity();
+        }
+        return capacity;
+    }
+
+    // fisierele (in afara celui curent) folosite sub fractia data, de compactat
+    boolean[] sparseChunks(double below) {
+        synchronized (appendLock) {
+            boolean[] sparse = new boolean[chunks.length];
+            for (int i = 0; i < chunks.length; i++) {
+                sparse[i] = i != writeChunk && liveBytes[i] > 0 && liveBytes[i] < below * chunks[i].capacity();
+            }
+            return sparse;
+        }
+    }
+
+    static int chunkOf(long ref) {
+        return (int) (ref >>> 32);
+    }
+
+    // fisierele mapate raman valabile pana la oprirea procesului (java nu permite demaparea
+    // explicita); pe linux stergerea lor elibereaza spatiul dupa demapare
+    @Override
+    public void close() {
+        try {
+            if (lock != null) {
+                lock.release();
+            }
+            lockChannel.close();
+            deleteRecursively(directory);
+        } catch (IOException e) {
+            System.out.println("Fisierele regiunii off-heap nu au putut fi sterse: " + e.getMessage());
+        }
+    }
+
+    // trece la un fisier gol refolosit sau la unul nou; cel curent, daca este deja gol, devine liber
+    private void nextChunk(int needed) throws IOException {
+        int previous = writeChunk;
+        int reuse = -1;
+        for (Iterator<Integer> it = freeChunks.iterator(); it.hasNext(); ) {
+            int candidate = it.next();
+            if (chunks[candidate].capacity() >= needed) {
+                it.remove();
+                reuse = candidate;
+                break;
+            }
+        }
+        writeChunk = reuse >= 0 ? reuse : addChunk(Math.max(chunkBytes, needed));
+        writePosition = 0;
+        if (previous >= 0 && liveBytes[previous] == 0) {
+            freeChunks.add(previous);
+        }
+    }
+
+    private int addChunk(long size) throws IOException {
+        MappedByteBuffer[] current = chunks;
+        if (current.length == Integer.MAX_VALUE >>> 1) {
+            throw new IOException("Regiunea off-heap este plina");
+        }
+        Path file = directory.resolve(String.format("%s%06d%s", CHUNK_PREFIX, current.length, CHUNK_SUFFIX));
+        MappedByteBuffer mapped;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // maparea ramane valabila si dupa inchiderea canalului
+            mapped = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        MappedByteBuffer[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = mapped;
+        liveBytes = Arrays.copyOf(liveBytes, next.length);
+        chunks = next;
+        return current.length;
+    }
+
+    // directoarele instantelor oprite (blocarea poate fi luata) si fisierele din formatul vechi,
+    // scrise direct in bodies/
+    private static void removeStale(Path root) throws IOException {
+        try (DirectoryStream<Path> legacy = Files.newDirectoryStream(root, CHUNK_PREFIX + "*" + CHUNK_SUFFIX)) {
+            for (Path file : legacy) {
+                Files.deleteIfExists(file);
+            }
+        }
+        try (DirectoryStream<Path> instances = Files.newDirectoryStream(root, INSTANCE_PREFIX + "*")) {
+            for (Path instance : instances) {
+                if (Files.isDirectory(instance) && isAbandoned(instance)) {
+                    deleteRecursively(instance);
+                }
+            }
+        }
+    }
+
+    private static boolean isAbandoned(Path instance) throws IOException {
+        Path lockFile = instance.resolve(LOCK_FILE);
+        if (!Files.exists(lockFile)) {
+            return System.currentTimeMillis() - Files.getLastModifiedTime(instance).toMillis() > UNLOCKED_GRACE_MS;
+        }
+        try (FileChannel ch = FileChannel.open(lockFile, StandardOpenOption.WRITE)) {
+            FileLock probe = ch.tryLock();
+            if (probe == null) {
+                return false;
+            }
+            probe.release();
+            return true;
+        } catch (OverlappingFileLockException e) {
+            // blocat de alta instanta din acelasi proces
+            return false;
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
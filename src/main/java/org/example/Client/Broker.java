@@ -1,8 +1,20 @@
 package org.example.Client;
 
+// un broker si starea lui de sanatate, folosita la alegerea tintei la conectare/failover:
+// latenta conectarilor reusite (medie exponentiala) si esecurile recente, a caror penalizare
+// scade in timp, ca un broker cazut sa fie reincercat dupa ce si-a revenit
 public class Broker {
+
+    // timpul dupa care penalizarea unui esec scade la jumatate
+    private static final long FAILURE_HALF_LIFE_MS = 30000;
+    private static final double FAILURE_PENALTY_MS = 5000;
+    private static final double LATENCY_WEIGHT = 0.3;
+
     private final String ipBroker;
-    private boolean isRunning;
+    private volatile boolean isRunning;
+    private double latencyMs = -1;
+    private int consecutiveFailures;
+    private long lastFailureAt;
 
     public Broker(String ipBroker, boolean isRunning) {
         this.ipBroker = ipBroker;
@@ -13,7 +25,42 @@ public class Broker {
         return ipBroker;
     }
 
+    public boolean isRunning() {
+        return isRunning;
+    }
+
     public void setRunning(boolean running) {
         isRunning = running;
     }
+
+    // conectare reusita, in connectMs milisecunde
+    public synchronized void recordSuccess(long connectMs) {
+        latencyMs = latencyMs < 0 ? connectMs : latencyMs + LATENCY_WEIGHT * (connectMs - latencyMs);
+        consecutiveFailures = 0;
+        isRunning = true;
+    }
+
+    // conectare esuata sau conexiune pierduta
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        lastFailureAt = System.currentTimeMillis();
+        isRunning = false;
+    }
+
+    // costul estimat al brokerului, in milisecunde; cel mai mic este incercat primul
+    public synchronized double score() {
+        double score = latencyMs < 0 ? 0 : latencyMs;
+        if (consecutiveFailures > 0) {
+            long age = System.currentTimeMillis() - lastFailureAt;
+            score += FAILURE_PENALTY_MS * Math.min(consecutiveFailures, 8)
+                    * Math.pow(0.5, (double) age / FAILURE_HALF_LIFE_MS);
+        }
+        return score;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return ipBroker + " (latenta " + (latencyMs < 0 ? "-" : Math.round(latencyMs) + " ms")
+                + ", esecuri " + consecutiveFailures + ")";
+    }
 }
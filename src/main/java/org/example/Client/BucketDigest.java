@@ -0,0 +1,111 @@
+package org.example.Client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// rezumatul continutului unui NewsList pentru anti-entropie.
+// id-urile sunt impartite dupa hash in LEAVES galeti; fiecare galeata are un digest
+// (XOR-ul hash-urilor pe 64 de biti ale id-urilor), actualizat in O(1) la adaugare/stergere.
+// deasupra galetilor se construieste la cerere un arbore Merkle cu FANOUT copii pe nod,
+// astfel incat doi vecini gasesc galetile diferite comparand doar subarborii diferiti.
+// nu este thread-safe; NewsList il apeleaza sub lock-ul de scriere
+final class BucketDigest {
+
+    static final int FANOUT = 16;
+    static final int DEPTH = 3;                  // nivelurile 0 (radacina) .. 3 (frunze)
+    static final int LEAVES = 16 * 16 * 16;      // FANOUT ^ DEPTH
+
+    private final long[] leaves = new long[LEAVES];
+    // id-urile din fiecare galeata; null pana la primul id
+    private final List<List<String>> ids = new ArrayList<>(Collections.nCopies(LEAVES, null));
+
+    void add(String id) {
+        long h = hash(id);
+        int b = bucketOf(h);
+        leaves[b] ^= h;
+        List<String> bucket = ids.get(b);
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            ids.set(b, bucket);
+        }
+        bucket.add(id);
+    }
+
+    void remove(String id) {
+        long h = hash(id);
+        int b = bucketOf(h);
+        List<String> bucket = ids.get(b);
+        if (bucket == null) {
+            return;
+        }
+        int i = bucket.indexOf(id);
+        if (i < 0) {
+            return;
+        }
+        // ordinea in galeata nu conteaza: mutam ultimul element in locul celui sters
+        bucket.set(i, bucket.get(bucket.size() - 1));
+        bucket.remove(bucket.size() - 1);
+        leaves[b] ^= h;
+    }
+
+    // hash-urile nodurilor cerute de pe un nivel al arborelui (nivelul DEPTH = frunzele)
+    long[] hashes(int level, int[] nodes) {
+        int span = span(level);
+        int count = LEAVES / span;
+        long[] out = new long[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            if (nodes[i] < 0 || nodes[i] >= count) {
+                throw new IllegalArgumentException("Nod " + nodes[i] + " in afara nivelului " + level);
+            }
+            long h = 0;
+            int from = nodes[i] * span;
+            for (int leaf = from; leaf < from + span; leaf++) {
+                h ^= leaves[leaf];
+            }
+            out[i] = h;
+        }
+        return out;
+    }
+
+    List<String> idsIn(int bucket) {
+        List<String> bucketIds = ids.get(bucket);
+        return bucketIds == null ? new ArrayList<>() : new ArrayList<>(bucketIds);
+    }
+
+    static int bucketOf(String id) {
+        return bucketOf(hash(id));
+    }
+
+    // cate frunze acopera un nod de pe nivelul dat
+    static int span(int level) {
+        int span = 1;
+        for (int l = level; l < DEPTH; l++) {
+            span *= FANOUT;
+        }
+        return span;
+    }
+
+    static int nodesOn(int level) {
+        return LEAVES / span(level);
+    }
+
+    private static int bucketOf(long hash) {
+        return (int) (hash >>> (64 - 12)); // primii 12 biti -> 4096 galeti
+    }
+
+    // FNV-1a pe 64 de biti urmat de finalizatorul MurmurHash3, pentru o distributie uniforma
+    static long hash(String id) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            h ^= id.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,63 +1,142 @@
 package org.example.Client;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import org.eclipse.paho.client.mqttv3.*;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.eclipse.paho.client.mqttv3.persist.MqttDefaultFilePersistence;
 
 import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.text.SimpleDateFormat;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 // clasa client gestioneaza conexiunea mqtt, publicarea si abonarea la stiri,
 // precum si integrarea cu RingManager pentru topologia inelara (Ring topology)
 public class Client implements MqttCallback {
 
+    // metricile acestui nod (fiecare Client are registrul lui), exportate de MetricsServer
+    private final Metrics metrics = new Metrics();
+    private final Metrics.Histogram publishAck = metrics.histogram("news_publish_ack_seconds",
+            "Timpul de la publicarea unei stiri pana la confirmarea broker-ului (inclusiv asteptarea in outbox)");
+    private final Metrics.Counter published = metrics.counter("news_published_total",
+            "Stiri publicate si confirmate de broker");
+    private final Metrics.Counter publishFailed = metrics.counter("news_publish_failed_total",
+            "Stiri a caror publicare a esuat");
+    private final Metrics.Counter messagesReceived = metrics.counter("mqtt_messages_received_total",
+            "Mesaje primite de la broker");
+    private final Metrics.Histogram heartbeatRtt = metrics.histogram("heartbeat_rtt_seconds",
+            "Timpul dus-intors al sondelor rtt catre vecini");
+    private final Metrics.Counter heartbeatsSent = metrics.counter("heartbeats_sent_total",
+            "Heartbeat-uri trimise vecinilor");
+    private final Metrics.Counter heartbeatsReceived = metrics.counter("heartbeats_received_total",
+            "Heartbeat-uri primite de la vecini");
+    private final Metrics.Counter brokerFailures = metrics.counter("mqtt_connection_failures_total",
+            "Conectari esuate si conexiuni pierdute cu brokerii");
+    private MetricsServer metricsServer;
+
     private final RingManager ringManager;
+    // reconcilierea periodica cu succesorul
+    private final AntiEntropy antiEntropy;
     private String broker;
+    // brokerii din mqtt.brokers, cu starea lor de sanatate
     private List<Broker> brokerList;
+    private volatile Broker currentBroker;
+    // cate un client Paho per broker, refolosit la reconectare: cu sesiuni persistente
+    // (mqtt.cleanSession=false), abonarile raman pe broker, iar mesajele qos 1/2 neconfirmate sunt
+    // pastrate in persist.dir/mqtt si retrimise cand clientul se reconecteaza
+    private final Map<String, MqttAsyncClient> brokerClients = new ConcurrentHashMap<>();
+    private final boolean cleanSession = AppConfig.getBoolean("mqtt.cleanSession", false);
+    private final int connectTimeoutSec = AppConfig.getInt("mqtt.connectTimeoutSec", 3);
+    private final int keepAliveSec = AppConfig.getInt("mqtt.keepAliveSec", 10);
+    // pauza dupa care este pornita in paralel incercarea pe urmatorul broker
+    private final long raceDelayMs = AppConfig.getLong("mqtt.raceDelayMs", 250);
+    private final long retryDelayMs = AppConfig.getLong("mqtt.retryDelayMs", 1000);
+    // abonarile implicite, anti-entropia si incarcarea stirilor se fac doar la prima conectare
+    private boolean initialized;
     // id-ul clientului (N1, N2, N3, etc.)
     private String id;
     private final int qos;
-    private MqttClient mqttClient;
+    private volatile MqttAsyncClient mqttClient;
     private boolean connected;
-    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    // directorul de date al nodului, citit o singura data la constructie (mai multe noduri pot rula
+    // in acelasi proces, fiecare cu persist.dir propriu)
+    private final String persistDir = AppConfig.getString("persist.dir", NewsList.SEGMENT_DIR);
     // lista locala de stiri (cu deduplicare)
     private NewsList newsList;
     private String newsApiKey;
     private final List<String> subscribedTopics = new ArrayList<>();
 
-    private int localPublishCounter = 0;
-
-    // flag care indica daca incarcam stiri din fisier
-    private boolean isLoadingPersistedNews = false;
-
-    // pentru heartbeat
-    private final AtomicLong lastHeartbeatReceived = new AtomicLong(System.currentTimeMillis());
-    private final AtomicLong lastPredecessorHeartbeatReceived = new AtomicLong(System.currentTimeMillis()); // Adăugat
-    private static final long HEARTBEAT_TIMEOUT_MS = 20000; // 20 sec
+    private final AtomicInteger localPublishCounter = new AtomicInteger();
+
+    // fereastra de publicari trimise si inca neconfirmate de broker
+    private final int maxInflight = AppConfig.getInt("publish.maxInflight", 64);
+    private final Semaphore inflightWindow = new Semaphore(maxInflight);
+    // stirile vazute dar nepastrate local (modul partitionat), ca sa fie tratate o singura data
+    private final DedupFilter seenIds = DedupFilter.fromConfig();
+    // stiri publicate de acest nod al caror lant (outbox, adaugare, persistare, replicare) nu s-a terminat
+    private final Set<String> pendingPublishIds = ConcurrentHashMap.newKeySet();
+    // publicarile de stiri trec printr-o coada pe disc, trimisa cand brokerul este disponibil
+    private final Outbox outbox;
+    // amprentele articolelor deja vazute: un articol preluat din nou primeste alt id, dar aceeasi amprenta
+    private final ContentFingerprints fingerprints = ContentFingerprints.fromConfig(persistDir);
+    // ruleaza etapele de dupa ack, nu pe thread-ul de callback Paho
+    private final ExecutorService publishPipeline = ClientExecutors.blocking();
+
+    // heartbeat-uri directe catre vecini, pe "heartbeat/<vecin>"
+    private final long heartbeatIntervalMs = AppConfig.getLong("heartbeat.intervalMs", 1000);
+    // la fiecare al n-lea heartbeat pleaca si o sonda rtt ("rtt:<id>:<nanoTime>"), intoarsa imediat de vecin
+    private final int rttEvery = Math.max(1, AppConfig.getInt("heartbeat.rttEvery", 5));
+    private long heartbeatRounds;
+    private ScheduledFuture<?> heartbeatTask;
+    // evita doua bucle de reconectare simultane
+    private final AtomicBoolean reconnecting = new AtomicBoolean();
+    // nodul a fost oprit brusc (crash); nu se mai reconecteaza
+    private volatile boolean crashed;
+    // anuntat la fiecare stire noua primita de la alte noduri (ex: generatorul de incarcare)
+    private volatile Consumer<News> newsListener;
 
     // lista actualizata de noduri active
     private final Set<String> activeNodes = ConcurrentHashMap.newKeySet();
 
-    // threadpool pentru messageArrived
-    private final ExecutorService messageExecutor = Executors.newFixedThreadPool(10);
+    // mesajele primite sunt impartite pe shard-uri cu cate un singur consumator: ordinea se
+    // pastreaza pe cheie (id-ul stirii sau topicul), iar cheile diferite ruleaza in paralel.
+    // fiecare shard are o coada limitata, cu politica ingress.policy cand se umple. implicit nu se
+    // blocheaza: thread-ul Paho livreaza si heartbeat-urile, iar o coada plina nu trebuie sa le opreasca
+    private final ShardedDispatcher dispatcher = new ShardedDispatcher(this, "dispatch",
+            AppConfig.getInt("dispatch.shards", Runtime.getRuntime().availableProcessors()),
+            AppConfig.getInt("ingress.capacityPerShard", 10000),
+            AppConfig.getEnum("ingress.policy", IngressPolicy.class, IngressPolicy.DROP_OLDEST),
+            AppConfig.getLong("ingress.maxBlockMs", 200));
+    // prioritatea fiecarui topic pentru DROP_BY_PRIORITY (ingress.priority.<topic>, implicit 0)
+    private final Map<String, Integer> topicPriorities = new ConcurrentHashMap<>();
+    private final boolean shardByTopic = "TOPIC".equalsIgnoreCase(AppConfig.getString("dispatch.shardBy", "ID"));
+
+    // logger asincron, scrie in loturi in fisierul nodului (log.dir/<id>.log)
+    private final AsyncLogger logger = new AsyncLogger();
 
     // constructor client
     public Client() {
         this.brokerList = new ArrayList<>();
-        Broker broker1 = new Broker("tcp://localhost:1883", false);
-        Broker broker2 = new Broker("tcp://localhost:1884", false);
-        brokerList.add(broker1);
-        brokerList.add(broker2);
+        for (String uri : AppConfig.getString("mqtt.brokers", "tcp://localhost:1883,tcp://localhost:1884").split(",")) {
+            if (!uri.trim().isEmpty()) {
+                brokerList.add(new Broker(uri.trim(), false));
+            }
+        }
 
         this.qos = 2;
         this.connected = false;
-        this.newsList = new NewsList();
+        this.logger.start();
+        this.newsList = new NewsList(metrics);
         this.ringManager = new RingManager(this);
+        this.antiEntropy = new AntiEntropy(this, newsList, ringManager);
+        this.outbox = new Outbox(Paths.get(persistDir, "outbox").toString(), metrics,
+                (topic, payload) -> publishAsync(topic, payload, false), this::writeToLogFile);
+        outbox.start();
+        registerGauges();
+        Runtime.getRuntime().addShutdownHook(new Thread(fingerprints::save, "fingerprints-shutdown"));
     }
 
     // metoda getter pentru activenodes
@@ -87,82 +166,270 @@ public class Client implements MqttCallback {
     // seteaza id-ul clientului
     public void setId(String newId) {
         this.id = newId;
+        logger.setLogFile(AsyncLogger.fileFor(newId));
     }
 
-    // conectare la broker si initializarea descoperirii nodurilor
+    // conectare la broker si initializarea descoperirii nodurilor; asteapta pana reuseste
     public void connectToBroker() {
-        Future<?> connectFuture = executorService.submit(() -> {
-            while (true) {
-                for (Broker myBroker : brokerList) {
-                    try {
-                        mqttClient = new MqttClient(myBroker.getIpBroker(), id, null);
-                        mqttClient.setCallback(this);
-                        MqttConnectOptions connOpts = new MqttConnectOptions();
-                        connOpts.setCleanSession(true);
-
-                        System.out.println("[" + id + "] Conectare la broker : " + myBroker.getIpBroker());
-                        mqttClient.connect(connOpts);
-                        System.out.println("[" + id + "] Conectat cu succes. ID-ul clientului: " + id);
-
-                        myBroker.setRunning(true);
-                        this.broker = myBroker.getIpBroker();
-                        this.connected = true;
-                        writeToLogFile("Conectare cu SUCCES la broker-ul " + myBroker.getIpBroker() + " #############################");
-
-                        // abonari implicite
-                        subscribe("stergere");
-                        subscribe("ring_heartbeat");
-                        subscribe("ring_discovery");
-
-                        // anunta prezenta sa in inel
-                        announcePresence();
-
-                        // porneste thread-ul de heartbeat
-                        startHeartbeatThread();
-
-                        // incarca stirile persistate la prima conexiune
-                        isLoadingPersistedNews = true;
-                        newsList.loadPersistedNews();
-                        isLoadingPersistedNews = false;
-
-                        return; // ne oprim dupa primul broker valid
-                    } catch (MqttException e) {
-                        this.connected = false;
-                        myBroker.setRunning(false);
-                        writeToLogFile("Conectare cu ESUAT la broker-ul " + myBroker.getIpBroker());
-                        System.out.println("[" + id + "] Conectarea la broker-ul " + myBroker.getIpBroker() + " a esuat, se incearca alt broker");
-                    }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        raceConnect(done);
+        try {
+            done.get(); // asteapta finalizarea
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // o runda de conectare: brokerii sunt incercati in ordinea scorului de sanatate, iar fiecare
+    // incercare porneste la mqtt.raceDelayMs dupa precedenta, fara sa o astepte (incercarile ruleaza
+    // in paralel). primul broker conectat castiga, ceilalti sunt deconectati; daca toti esueaza,
+    // runda se reia dupa mqtt.retryDelayMs
+    private void raceConnect(CompletableFuture<Void> done) {
+        if (crashed) {
+            return;
+        }
+        List<Broker> candidates = new ArrayList<>(brokerList);
+        // sortare stabila: la scor egal ramane ordinea din configuratie
+        candidates.sort(Comparator.comparingDouble(Broker::score));
+        AtomicBoolean won = new AtomicBoolean();
+        AtomicInteger pending = new AtomicInteger(candidates.size());
+        Runnable attemptDone = () -> {
+            if (pending.decrementAndGet() == 0 && !won.get()) {
+                ClientExecutors.scheduler().schedule(() -> raceConnect(done), retryDelayMs, TimeUnit.MILLISECONDS);
+            }
+        };
+        for (int i = 0; i < candidates.size(); i++) {
+            Broker candidate = candidates.get(i);
+            ClientExecutors.scheduler().schedule(() -> {
+                if (won.get()) {
+                    attemptDone.run();
+                } else {
+                    tryBroker(candidate, won, done, attemptDone);
                 }
-                try {
-                    Thread.sleep(5000);
-                } catch (InterruptedException ex) {
-                    ex.printStackTrace();
+            }, i * raceDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // conectare asincrona la un broker; nu blocheaza niciun fir
+    private void tryBroker(Broker candidate, AtomicBoolean won, CompletableFuture<Void> done, Runnable attemptDone) {
+        long start = System.nanoTime();
+        try {
+            MqttAsyncClient client = clientFor(candidate);
+            if (client.isConnected()) {
+                // pierzatorul unei curse anterioare, inca nedeconectat; sesiunea nu este cunoscuta
+                settleAttempt(candidate, client, false, won, done);
+                attemptDone.run();
+                return;
+            }
+            System.out.println("[" + id + "] Conectare la broker : " + candidate.getIpBroker());
+            client.connect(connectOptions(), null, new IMqttActionListener() {
+                @Override
+                public void onSuccess(IMqttToken token) {
+                    candidate.recordSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    settleAttempt(candidate, client, token.getSessionPresent(), won, done);
+                    attemptDone.run();
+                }
+
+                @Override
+                public void onFailure(IMqttToken token, Throwable e) {
+                    candidate.recordFailure();
+                    brokerFailures.inc();
+                    writeToLogFile(LogLevel.WARN, "Conectare cu ESUAT la broker-ul " + candidate.getIpBroker()
+                            + (e != null ? ": " + e.getMessage() : ""));
+                    System.out.println("[" + id + "] Conectarea la broker-ul " + candidate.getIpBroker() + " a esuat");
+                    attemptDone.run();
+                }
+            });
+        } catch (MqttException e) {
+            candidate.recordFailure();
+            writeToLogFile(LogLevel.WARN, "Conectare cu ESUAT la broker-ul " + candidate.getIpBroker() + ": " + e.getMessage());
+            System.out.println("[" + id + "] Conectarea la broker-ul " + candidate.getIpBroker() + " a esuat");
+            attemptDone.run();
+        }
+    }
+
+    // primul client conectat castiga cursa, ceilalti sunt deconectati. ruleaza pe thread-ul Paho,
+    // unde nici abonarea (asteapta confirmarea), nici deconectarea nu sunt permise
+    private void settleAttempt(Broker candidate, MqttAsyncClient client, boolean sessionPresent,
+                               AtomicBoolean won, CompletableFuture<Void> done) {
+        if (won.compareAndSet(false, true)) {
+            ClientExecutors.blocking().execute(() -> onConnected(candidate, client, sessionPresent, done));
+        } else {
+            ClientExecutors.blocking().execute(() -> disconnectQuietly(client));
+        }
+    }
+
+    // brokerul castigator devine cel curent; abonarile sunt refacute doar daca brokerul nu a pastrat sesiunea
+    private void onConnected(Broker chosen, MqttAsyncClient client, boolean sessionPresent, CompletableFuture<Void> done) {
+        MqttAsyncClient previous = mqttClient;
+        mqttClient = client;
+        currentBroker = chosen;
+        this.broker = chosen.getIpBroker();
+        this.connected = true;
+        if (previous != null && previous != client) {
+            disconnectQuietly(previous);
+        }
+        System.out.println("[" + id + "] Conectat cu succes la " + broker + (sessionPresent ? " (sesiune reluata)" : "")
+                + ". ID-ul clientului: " + id);
+        writeToLogFile("Conectare cu SUCCES la broker-ul " + chosen + (sessionPresent ? ", sesiune reluata" : "")
+                + " #############################");
+
+        try {
+            if (!initialized) {
+                // abonari implicite
+                subscribe("stergere");
+                subscribe("heartbeat/" + id);
+                subscribe("ring_discovery");
+                // loturile de replicare pentru acest nod si confirmarile pentru loturile trimise
+                subscribe("replicate/" + id);
+                subscribe("replicate_ack/" + id);
+                subscribe("antientropy/" + id);
+            } else if (!sessionPresent) {
+                renewSubscriptions();
+            }
+        } catch (MqttException e) {
+            // conexiunea a cazut imediat dupa conectare; se incearca din nou
+            writeToLogFile(LogLevel.WARN, "Abonarea la broker-ul " + broker + " a esuat: " + e.getMessage());
+            chosen.recordFailure();
+            connected = false;
+            disconnectQuietly(client);
+            ClientExecutors.scheduler().schedule(() -> raceConnect(done), retryDelayMs, TimeUnit.MILLISECONDS);
+            return;
+        }
+
+        // anunta prezenta sa in inel
+        announcePresence();
+
+        // porneste thread-ul de heartbeat
+        startHeartbeatThread();
+
+        // trimite publicarile adunate cat timp conexiunea a lipsit
+        outbox.resume();
+
+        if (!initialized) {
+            initialized = true;
+
+            // metricile pe JMX si pe http://127.0.0.1:<port>/metrics
+            metricsServer = MetricsServer.start(this, id, metrics);
+
+            // porneste reconcilierea periodica cu succesorul
+            antiEntropy.start();
+
+            // incarca stirile persistate la prima conexiune; snapshot-ul se incarca
+            // imediat, coada jurnalului continua in fundal. incarcarea adauga direct in lista
+            // (fara applyNews), deci stirile primite intre timp sunt persistate si publicate normal
+            newsList.loadPersistedNews().whenComplete((ok, err) -> {
+                if (err != null) {
+                    writeToLogFile(LogLevel.ERROR, "Eroare la incarcarea stirilor persistate: " + err.getMessage());
+                } else {
+                    writeToLogFile("Stiri persistate incarcate: " + newsList.size());
                 }
+            });
+        }
+        done.complete(null);
+    }
+
+    // clientul Paho al brokerului, creat la prima folosire
+    private synchronized MqttAsyncClient clientFor(Broker target) throws MqttException {
+        MqttAsyncClient client = brokerClients.get(target.getIpBroker());
+        if (client != null) {
+            return client;
+        }
+        MqttClientPersistence persistence = cleanSession
+                ? new MemoryPersistence()
+                : new MqttDefaultFilePersistence(Paths.get(persistDir, "mqtt").toString());
+        MqttAsyncClient created = new MqttAsyncClient(target.getIpBroker(), id, persistence);
+        created.setCallback(new MqttCallback() {
+            @Override
+            public void connectionLost(Throwable cause) {
+                // un client care nu mai este cel curent (ex: pierzatorul unei curse) nu porneste failover
+                if (created == mqttClient) {
+                    Client.this.connectionLost(cause);
+                }
+            }
+
+            @Override
+            public void messageArrived(String topic, MqttMessage message) {
+                messagesReceived.inc();
+                Client.this.messageArrived(topic, message);
+            }
+
+            @Override
+            public void deliveryComplete(IMqttDeliveryToken token) {
+                Client.this.deliveryComplete(token);
             }
         });
+        brokerClients.put(target.getIpBroker(), created);
+        return created;
+    }
 
+    private MqttConnectOptions connectOptions() {
+        MqttConnectOptions connOpts = new MqttConnectOptions();
+        connOpts.setCleanSession(cleanSession);
+        connOpts.setMaxInflight(maxInflight);
+        connOpts.setConnectionTimeout(Math.max(1, connectTimeoutSec));
+        connOpts.setKeepAliveInterval(keepAliveSec);
+        return connOpts;
+    }
+
+    private void disconnectQuietly(MqttAsyncClient client) {
         try {
-            connectFuture.get(); // asteapta finalizarea
-        } catch (InterruptedException | ExecutionException e) {
-            e.printStackTrace();
+            if (client.isConnected()) {
+                client.disconnect();
+            }
+        } catch (MqttException e) {
+            writeToLogFile(LogLevel.WARN, "Deconectarea de la " + client.getServerURI() + " a esuat: " + e.getMessage());
+        }
+    }
+
+    // opreste nodul brusc, ca o cadere: fara mesaj "leave" si fara reconectare, deci celelalte noduri
+    // il scot din inel doar prin detectorul de caderi. folosit de generatorul de incarcare
+    public void crash() {
+        crashed = true;
+        connected = false;
+        outbox.pause();
+        synchronized (this) {
+            if (heartbeatTask != null) {
+                heartbeatTask.cancel(false);
+            }
+            // portul si MBean-ul raman libere pentru un nod repornit cu acelasi id
+            if (metricsServer != null) {
+                metricsServer.stop();
+                metricsServer = null;
+            }
+        }
+        for (MqttAsyncClient client : brokerClients.values()) {
+            try {
+                client.disconnectForcibly(0, 1000);
+            } catch (MqttException e) {
+                writeToLogFile(LogLevel.WARN, "Oprirea conexiunii cu " + client.getServerURI() + " a esuat: " + e.getMessage());
+            }
         }
+        writeToLogFile(LogLevel.WARN, "Nodul a fost oprit brusc (crash)");
+    }
+
+    // observatorul stirilor noi primite de la alte noduri; null il elimina
+    public void setNewsListener(Consumer<News> listener) {
+        this.newsListener = listener;
     }
 
     public void disconnectFromBroker() throws MqttException {
-        mqttClient.disconnect();
+        mqttClient.disconnect().waitForCompletion();
         System.out.println("[" + id + "] Deconectat de la broker");
     }
 
     //abonare
     public void subscribe(String topic) throws MqttException {
-        mqttClient.subscribe(topic);
-        subscribedTopics.add(topic);
+        mqttClient.subscribe(topic, 1).waitForCompletion();
+        if (!subscribedTopics.contains(topic)) {
+            subscribedTopics.add(topic);
+        }
         writeToLogFile("Abonare la topicul [" + topic + "]");
     }
 
     //dezabonare
     public void unsubscribe(String topic) throws MqttException {
-        mqttClient.unsubscribe(topic);
+        mqttClient.unsubscribe(topic).waitForCompletion();
         subscribedTopics.remove(topic);
         writeToLogFile("Dezabonare de la topicul [" + topic + "]");
     }
@@ -170,7 +437,7 @@ public class Client implements MqttCallback {
     // reinnoieste abonamentele
     private void renewSubscriptions() throws MqttException {
         for (String topic : subscribedTopics) {
-            mqttClient.subscribe(topic);
+            mqttClient.subscribe(topic, 1).waitForCompletion();
         }
     }
 
@@ -182,132 +449,206 @@ public class Client implements MqttCallback {
 
     // metoda simpla pentru a publica pe un topic (folosita in ringmanager)
     public void publishOnTopic(String anyTopic, String payload, boolean retained) throws MqttException {
-        MqttMessage message = new MqttMessage(payload.getBytes());
-        message.setQos(this.qos);
+        publishOnTopic(anyTopic, payload.getBytes(StandardCharsets.UTF_8), retained);
+    }
+
+    // publica un payload deja codificat (ex: stiri prin NewsCodec) si asteapta confirmarea broker-ului
+    public void publishOnTopic(String anyTopic, byte[] payload, boolean retained) throws MqttException {
+        try {
+            publishAsync(anyTopic, payload, retained).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MqttException(MqttException.REASON_CODE_CLIENT_EXCEPTION, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MqttException) {
+                throw (MqttException) e.getCause();
+            }
+            throw new MqttException(MqttException.REASON_CODE_CLIENT_EXCEPTION, e.getCause());
+        }
+    }
+
+    // publica fara sa astepte; viitorul se completeaza la confirmarea broker-ului (PUBCOMP pt QoS 2).
+    // daca fereastra de publicari neconfirmate e plina, apelantul asteapta un loc liber
+    public CompletableFuture<Void> publishAsync(String anyTopic, byte[] payload, boolean retained) {
+        return publishAsync(anyTopic, payload, this.qos, retained);
+    }
+
+    // publicare cu qos explicit; mesajele qos 0 (ex: heartbeat) nu asteapta dupa fereastra de publicari
+    public CompletableFuture<Void> publishAsync(String anyTopic, byte[] payload, int qos, boolean retained) {
+        CompletableFuture<Void> acked = new CompletableFuture<>();
+        MqttMessage message = new MqttMessage(payload);
+        message.setQos(qos);
         message.setRetained(retained);
-        mqttClient.publish(anyTopic, message);
+        boolean windowed = qos > 0;
+        if (windowed) {
+            try {
+                inflightWindow.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acked.completeExceptionally(e);
+                return acked;
+            }
+        }
+        try {
+            mqttClient.publish(anyTopic, message, null, new IMqttActionListener() {
+                @Override
+                public void onSuccess(IMqttToken token) {
+                    if (windowed) {
+                        inflightWindow.release();
+                    }
+                    acked.complete(null);
+                }
+
+                @Override
+                public void onFailure(IMqttToken token, Throwable cause) {
+                    if (windowed) {
+                        inflightWindow.release();
+                    }
+                    acked.completeExceptionally(cause != null ? cause : new MqttException(MqttException.REASON_CODE_CLIENT_EXCEPTION));
+                }
+            });
+        } catch (MqttException | RuntimeException e) {
+            if (windowed) {
+                inflightWindow.release();
+            }
+            acked.completeExceptionally(e);
+        }
+        return acked;
+    }
+
+    // numarul de publicari trimise si neconfirmate inca
+    public int getInflightCount() {
+        return maxInflight - inflightWindow.availablePermits();
     }
 
     @Override
     public void connectionLost(Throwable cause) {
+        if (crashed) {
+            return;
+        }
         this.connected = false;
+        outbox.pause();
+        Broker lost = currentBroker;
+        if (lost != null) {
+            lost.recordFailure();
+        }
+        brokerFailures.inc();
         System.out.println("[" + id + "] Conexiune pierduta cu broker-ul");
         writeToLogFile("Conexiune pierduta cu broker-ul [" + this.broker + "]");
         startReconnectThread();
     }
 
-    // porneste firul de reconectare
+    // porneste imediat o runda de reconectare, daca nu ruleaza deja
     private void startReconnectThread() {
-        Thread connectThread = new Thread(() -> {
-            while (!connected) {
-                for (Broker myBroker : brokerList) {
-                    try {
-                        mqttClient = new MqttClient(myBroker.getIpBroker(), id, null);
-                        mqttClient.setCallback(this);
-                        MqttConnectOptions connOpts = new MqttConnectOptions();
-                        connOpts.setCleanSession(true);
-
-                        writeToLogFile("Se incearca reconectarea la broker-ul: " + myBroker.getIpBroker());
-                        mqttClient.connect(connOpts);
-
-                        System.out.println("[" + id + "] Reconectare cu SUCCES la broker-ul: " + myBroker.getIpBroker());
-                        writeToLogFile("Conectare cu SUCCES la broker-ul: " + myBroker.getIpBroker());
-
-                        myBroker.setRunning(true);
-                        this.broker = myBroker.getIpBroker();
-                        this.connected = true;
-                        renewSubscriptions();
-
-                        // anunta din nou prezenta sa in inel
-                        announcePresence();
-
-                        // porneste din nou thread-ul de heartbeat
-                        startHeartbeatThread();
-
-                        return;
-                    } catch (MqttException e) {
-                        myBroker.setRunning(false);
-                        connected = false;
-                        System.out.println("[" + id + "] Eroare reconectare la: " + myBroker.getIpBroker());
-                        writeToLogFile("Eroare reconectare la broker-ul " + myBroker.getIpBroker() + ": " + e.getMessage());
-                    }
-                }
-                try {
-                    Thread.sleep(5000);
-                } catch (InterruptedException ex) {
-                    ex.printStackTrace();
-                }
-            }
-        });
-        connectThread.start();
+        if (reconnecting.compareAndSet(false, true)) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            done.whenComplete((ok, err) -> reconnecting.set(false));
+            raceConnect(done);
+        }
     }
 
     @Override
     public void messageArrived(String topic, MqttMessage message) {
-        messageExecutor.submit(() -> {
-            String payload = new String(message.getPayload());
-            if (topic.equals("ring_heartbeat")) {
-                handleHeartbeat(payload);
-            } else if (topic.equals("ring_discovery")) {
-                handleRingDiscovery(payload);
-            } else if (topic.startsWith("replicate/")) {
-                // stiri replicate de la alt nod
-                News replicatedNews = deserializeNews(payload);
-                writeToLogFile("[" + id + "] REPLICATED NEWS on topic " + topic + ": " + replicatedNews.getId());
-                processNewsInternal(replicatedNews, true);
-            } else {
-                // stiri obisnuite
-                News news = deserializeNews(payload);
-                processNewsInternal(news, false);
-            }
-        });
+        if (topic.startsWith("heartbeat/")) {
+            // tratat direct pe thread-ul Paho: o coada plina de stiri nu trebuie sa intarzie
+            // heartbeat-urile si sa ridice fals suspiciunea detectorului
+            handleHeartbeat(new String(message.getPayload(), StandardCharsets.UTF_8));
+            return;
+        }
+        byte[] payload = message.getPayload();
+        if (isControlTopic(topic)) {
+            // mesajele de control nu se pierd niciodata si raman in ordine pe topic (ex: loturile unui expeditor)
+            dispatcher.dispatchControl(topic, () -> handleMessage(topic, payload));
+            return;
+        }
+        int priority = topicPriorities.computeIfAbsent(topic, t -> AppConfig.getInt("ingress.priority." + t, 0));
+        if (shardByTopic) {
+            dispatcher.dispatch(topic, () -> handleMessage(topic, payload), priority);
+            return;
+        }
+        // stirile se decodeaza aici, ca sa fie impartite dupa id
+        News news = deserializeNews(payload);
+        if (news == null) {
+            return;
+        }
+        dispatcher.dispatch(news.getId(), () -> processNewsInternal(news, false), priority);
     }
 
-    private void handleHeartbeat(String payload) {
-        if (payload.startsWith("heartbeat_request:")) {
-            String fromNode = payload.split(":")[1];
-            String responseMsg = "heartbeat_response:" + this.id;
-            try {
-                publishOnTopic("ring_heartbeat", responseMsg);
-                writeToLogFile("Heartbeat response trimis catre " + fromNode);
-            } catch (MqttException e) {
-                e.printStackTrace();
-                writeToLogFile("Eroare la trimiterea heartbeat_response catre " + fromNode);
-            }
-        } else if (payload.startsWith("heartbeat_response:")) {
-            String fromNode = payload.split(":")[1];
+    // traficul de control al inelului (descoperire, replicare, anti-entropie) si stergerile, care
+    // nu au voie sa se piarda; heartbeat-urile sunt tratate direct in messageArrived
+    private static boolean isControlTopic(String topic) {
+        return topic.equals("ring_discovery") || topic.equals("stergere") || topic.startsWith("antientropy/")
+                || topic.startsWith("replicate_ack/") || topic.startsWith("replicate/");
+    }
 
+    // numarul de mesaje primite care asteapta procesarea
+    public int getIngressQueueDepth() {
+        return dispatcher.getQueueDepth();
+    }
 
-            if (fromNode.equals(this.id)) {
-                writeToLogFile("[Heartbeat] Am primit propriul heartbeat response: " + fromNode + ". Ignorat.");
+    // numarul de mesaje primite pierdute de politica de supraincarcare
+    public long getIngressDroppedCount() {
+        return dispatcher.getDroppedCount();
+    }
+
+    private void handleMessage(String topic, byte[] payload) {
+        if (topic.equals("ring_discovery")) {
+            handleRingDiscovery(new String(payload, StandardCharsets.UTF_8));
+        } else if (topic.startsWith("antientropy/")) {
+            antiEntropy.handleMessage(payload);
+        } else if (topic.startsWith("replicate_ack/")) {
+            ringManager.handleReplicationAck(new String(payload, StandardCharsets.UTF_8));
+        } else if (topic.startsWith("replicate/") && ReplicationEnvelope.isEnvelope(payload)) {
+            // lot de stiri replicate de la predecesor
+            ringManager.handleReplicationBatch(payload);
+        } else if (topic.startsWith("replicate/")) {
+            // stiri replicate de la alt nod (format vechi, o stire per mesaj)
+            News replicatedNews = deserializeNews(payload);
+            if (replicatedNews == null) {
                 return;
             }
-
-            if (ringManager.getSuccessor() != null && ringManager.getSuccessor().equals(fromNode)) {
-                ringManager.resetFailureCount(fromNode);
-                lastHeartbeatReceived.set(System.currentTimeMillis());
-                writeToLogFile("Heartbeat response primit de la succesor: " + fromNode);
+            writeToLogFile("[" + id + "] REPLICATED NEWS on topic " + topic + ": " + replicatedNews.getId());
+            processNewsInternal(replicatedNews, true);
+        } else {
+            // stiri obisnuite
+            News news = deserializeNews(payload);
+            if (news == null) {
+                return;
             }
+            processNewsInternal(news, false);
+        }
+    }
 
-            if (ringManager.getPredecessor() != null && ringManager.getPredecessor().equals(fromNode)) {
-                ringManager.resetFailureCount(fromNode);
-                lastPredecessorHeartbeatReceived.set(System.currentTimeMillis());
-                writeToLogFile("Heartbeat response primit de la predecesor: " + fromNode);
+    // heartbeat de la un vecin: "hb:<nod>"
+    private void handleHeartbeat(String payload) {
+        if (payload.startsWith("rtt:")) {
+            // "rtt:<de la>:<marcaj>": intors imediat, cu marcajul neschimbat
+            int sep = payload.indexOf(':', 4);
+            if (sep > 4) {
+                publishAsync("heartbeat/" + payload.substring(4, sep),
+                        ("rttr:" + id + payload.substring(sep)).getBytes(StandardCharsets.UTF_8), 0, false);
             }
-
-            if (getActiveNodes().size() == 2
-                    && ringManager.getSuccessor() != null
-                    && ringManager.getPredecessor() != null
-                    && ringManager.getSuccessor().equals(ringManager.getPredecessor())
-                    && ringManager.getSuccessor().equals(fromNode)) {
-
-                // În ring-ul cu 2 noduri, succesorul și predecesorul sunt același nod
-                ringManager.resetFailureCount(fromNode);
-                lastHeartbeatReceived.set(System.currentTimeMillis());
-                lastPredecessorHeartbeatReceived.set(System.currentTimeMillis());
-
-                writeToLogFile("[Heartbeat 2-nodes patch] Reset complet al contorului pentru " + fromNode);
+            return;
+        }
+        if (payload.startsWith("rttr:")) {
+            // marcajul este nanoTime-ul nostru de la trimitere; dupa o repornire poate fi fara sens
+            try {
+                long rtt = System.nanoTime() - Long.parseLong(payload.substring(payload.lastIndexOf(':') + 1));
+                if (rtt >= 0 && rtt < TimeUnit.MINUTES.toNanos(1)) {
+                    heartbeatRtt.record(rtt);
+                }
+            } catch (NumberFormatException e) {
+                // sonda invalida, ignorata
             }
+            return;
+        }
+        if (!payload.startsWith("hb:")) {
+            return;
+        }
+        String fromNode = payload.substring(3);
+        if (!fromNode.equals(this.id)) {
+            heartbeatsReceived.inc();
+            ringManager.heartbeatReceived(fromNode);
         }
     }
 
@@ -324,8 +665,8 @@ public class Client implements MqttCallback {
                     return;
                 }
                 activeNodes.add(newNode);
-                // reset heartbeatFailures in ringManager
-                ringManager.resetFailureCount(newNode);
+                // monitorizarea nodului reincepe de la zero
+                ringManager.resetFailureDetector(newNode);
                 writeToLogFile("Nodul " + newNode + " s-a alaturat inelului.");
                 System.out.println("[" + id + "] Nodul " + newNode + " s-a alaturat inelului.");
                 updateRing();
@@ -350,7 +691,7 @@ public class Client implements MqttCallback {
             updateRing();
         } catch (MqttException e) {
             e.printStackTrace();
-            writeToLogFile("Eroare la anuntarea prezentei: " + e.getMessage());
+            writeToLogFile(LogLevel.WARN, "Eroare la anuntarea prezentei: " + e.getMessage());
         }
     }
 
@@ -359,39 +700,75 @@ public class Client implements MqttCallback {
     }
 
     // prelucreaza stirile, cu deduplicare si persistare
-    public synchronized void processNewsInternal(News news, boolean replicated) {
-        // deduplicare
-        if (newsList.existsId(news.getId())) {
+    // apelata concurent din mai multe shard-uri; aceeasi stire poate sosi simultan pe topicul ei
+    // si intr-un lot de replicare, deci decizia de deduplicare este rezultatul atomic al addNews.
+    // intoarce persistarea stirii, ca replicarea sa confirme doar ce este scris pe disc
+    public CompletableFuture<Void> processNewsInternal(News news, boolean replicated) {
+        return applyNews(news, replicated, false);
+    }
+
+    // aplica local o stire: deduplicare, adaugare, persistare si, pentru "stergere", stergerea stirii tinta.
+    // own = stirea publicata chiar de acest nod (publishNews): nu este anuntata ca primita si nu este
+    // republicata. intoarce persistarea (completata imediat daca stirea nu este pastrata local)
+    private CompletableFuture<Void> applyNews(News news, boolean replicated, boolean own) {
+        CompletableFuture<Void> persisted = CompletableFuture.completedFuture(null);
+        // deduplicare rapida (si stiri deja sterse, care nu trebuie readuse)
+        if (newsList.existsId(news.getId()) || newsList.isDeleted(news.getId())) {
             writeToLogFile("[" + id + "] Stirea " + news.getId() + " e deja in local. Se ignora.");
-            return;
+            return persisted;
+        }
+
+        // in modul partitionat pastram doar stirile din intervalele proprii; celelalte sunt doar afisate.
+        // stirile replicate sunt pastrate mereu: expeditorul ne considera proprietar si, dupa confirmare,
+        // poate sterge copia lui (predare), deci cu o vedere inca veche a inelului s-ar pierde de tot.
+        // o copie in plus este eliminata la urmatoarea predare
+        boolean owned = replicated || ringManager.isOwnedLocally(news);
+
+        // adaugam in memorie; daca alt shard a adaugat-o intre timp, ne oprim
+        if (owned ? !newsList.addNews(news) : !seenIds.add(news.getId())) {
+            writeToLogFile("[" + id + "] Stirea " + news.getId() + " e deja in local. Se ignora.");
+            return persisted;
         }
 
-        // adaugam in memorie
-        newsList.addNews(news);
+        Consumer<News> listener = newsListener;
+        if (listener != null && !own) {
+            listener.accept(news);
+        }
 
-        // persistam doar daca nu incarcam din fisier
-        if (!isLoadingPersistedNews) {
-            newsList.persistNews(news);
+        // persistam asincron (group commit)
+        if (owned) {
+            persisted = newsList.persistNews(news);
+            if (!own) {
+                persisted.whenComplete((ok, err) -> {
+                    if (err != null) {
+                        writeToLogFile(LogLevel.ERROR, "Persistarea stirii " + news.getId() + " a esuat: " + err.getMessage());
+                    }
+                });
+            }
         }
 
         // verificam topic stergere
         if (news.getTopic().equals("stergere")) {
             stergeStire(news);
-        } else {
-            System.out.println("\n[" + id + "] Received News:");
-            System.out.println("ID: " + news.getId());
-            System.out.println("Title: " + news.getTitle());
-            System.out.println("Content: " + news.getContent());
-            System.out.println("Topic: " + news.getTopic());
-            System.out.println();
+        } else if (!own) {
+            // un singur println, ca afisarile din shard-uri diferite sa nu se amestece
+            System.out.println("\n[" + id + "] Received News:"
+                    + "\nID: " + news.getId()
+                    + "\nTitle: " + news.getTitle()
+                    + "\nContent: " + news.getContent()
+                    + "\nTopic: " + news.getTopic() + "\n");
 
             writeToLogFile("S-a primit o stire cu topicul [" + news.getTopic() + "]");
 
-            // replicam si publicam doar daca nu e replicat si nu incarcam din fisier
-            if (!isLoadingPersistedNews && !replicated) {
+            // articolele preluate de alte noduri nu mai sunt publicate din nou daca le preluam si noi
+            fingerprints.add(news.getTopic(), null, news.getTitle(), news.getContent());
+
+            // replicam si publicam doar daca nu e replicat
+            if (owned && !replicated) {
                 publishNews(news);
             }
         }
+        return persisted;
     }
 
     // sterge local o stire
@@ -412,21 +789,32 @@ public class Client implements MqttCallback {
         // nu folosim in mod curent
     }
 
-    private News deserializeNews(String json) {
-        Gson gson = new GsonBuilder().create();
-        return gson.fromJson(json, News.class);
+    // decodifica o stire (json sau binar, dupa primul octet); null daca payload-ul e invalid
+    private News deserializeNews(byte[] payload) {
+        try {
+            return NewsCodecs.decode(payload);
+        } catch (IllegalArgumentException e) {
+            writeToLogFile(LogLevel.WARN, "Payload de stire invalid ignorat: " + e.getMessage());
+            return null;
+        }
     }
 
-    // scrie mesaje in fisierul de log
+    // scrie mesaje in fisierul de log (asincron, fara I/O pe thread-ul apelant)
     public void writeToLogFile(String mesaj) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter("./src/main/java/org/example/logs.txt", true))) {
-            String timestamp = new SimpleDateFormat("dd-MM-yyyy HH:mm:ss").format(new Date());
-            String mesajFinal = "[" + id + "][" + timestamp + "] " + mesaj;
-            writer.write(mesajFinal);
-            writer.newLine();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        logger.log(LogLevel.INFO, id, mesaj);
+    }
+
+    // scrie mesaje in fisierul de log cu un nivel explicit
+    public void writeToLogFile(LogLevel level, String mesaj) {
+        logger.log(level, id, mesaj);
+    }
+
+    public AsyncLogger getLogger() {
+        return logger;
+    }
+
+    public NewsList getNewsList() {
+        return newsList;
     }
 
     // adauga stirie in baza unui meniu
@@ -465,50 +853,90 @@ public class Client implements MqttCallback {
         }
     }
 
-    // publica o stirie pe un topic si replica la succesor
+    // publica o stirie pe un topic si replica la succesor.
+    // stirea este scrisa intai in outbox, care o trimite cand brokerul este disponibil; viitorul intors
+    // se completeaza la confirmarea broker-ului. odata scrisa pe disc, stirea este aplicata local ca una
+    // primita (inclusiv "stergere", al carei ecou de la broker este ignorat ca duplicat), persistata si
+    // replicata fara sa astepte brokerul (etape inlantuite pe publishPipeline)
     public Future<Void> publishNews(News news) {
-        CompletableFuture<Void> future = new CompletableFuture<>();
+        String newsId = news.getId();
 
-        // deduplicare locala inainte de publicare
-        if (newsList.existsId(news.getId())) {
-            writeToLogFile("[" + id + "] Deja exista stirea " + news.getId() + " local. Nu o republicam.");
-            future.complete(null);
-            return future;
+        // deduplicare locala inainte de publicare (inclusiv publicari aflate in curs)
+        if (newsList.existsId(newsId) || !pendingPublishIds.add(newsId)) {
+            writeToLogFile("[" + id + "] Deja exista stirea " + newsId + " local. Nu o republicam.");
+            return CompletableFuture.completedFuture(null);
         }
 
         String topic = news.getTopic();
-        String payload = news.toJson();
-        MqttMessage message = new MqttMessage(payload.getBytes());
-        message.setQos(this.qos);
+        long submitted = System.nanoTime();
+        Outbox.Ticket ticket = outbox.submit(topic, NewsCodecs.wire().encode(news));
+        ticket.acked.whenComplete((ok, err) -> {
+            if (err == null) {
+                publishAck.recordSince(submitted);
+                published.inc();
+                System.out.println("[" + id + "] Stirea publicata cu succes " + localPublishCounter.getAndIncrement());
+                writeToLogFile("Publicare stire cu topicul [" + topic + "]");
+            } else {
+                publishFailed.inc();
+                System.out.println("[" + id + "] Stirea nu a putut fi publicata");
+                writeToLogFile(LogLevel.WARN, "Stirea cu topicul [" + topic + "] nu a putut fi publicata. " + err.getMessage());
+            }
+        });
 
-        try {
-            mqttClient.publish(topic, message);
-            System.out.println("[" + id + "] Stirea publicata cu succes " + localPublishCounter);
-            localPublishCounter++;
+        ticket.durable.exceptionally(err -> {
+                    // intrarea ramane in coada din memorie si este trimisa oricum
+                    writeToLogFile(LogLevel.WARN, "Stirea " + newsId + " nu a putut fi scrisa in outbox: " + err.getMessage());
+                    return null;
+                })
+                // daca stirea a ajuns deja prin abonare, a fost aplicata si persistata acolo.
+                // in modul partitionat, o stire din intervalul altor noduri este pastrata doar de proprietari
+                .thenComposeAsync(ok -> applyNews(news, false, true), publishPipeline)
+                // replicare la succesor; fluxul de replicare retrimite singur loturile neconfirmate
+                .thenRunAsync(() -> ringManager.replicateNews(news), publishPipeline)
+                .whenComplete((ok, err) -> {
+                    pendingPublishIds.remove(newsId);
+                    if (err != null) {
+                        writeToLogFile(LogLevel.ERROR, "Persistarea/replicarea stirii " + newsId + " a esuat: " + err.getMessage());
+                    }
+                });
+        return ticket.acked;
+    }
 
-            writeToLogFile("Publicare stire cu topicul [" + topic + "]");
+    Metrics getMetrics() {
+        return metrics;
+    }
 
-            // adaugam local (+ persistam)
-            newsList.addNews(news);
-            if (!isLoadingPersistedNews) {
-                newsList.persistNews(news);
-            }
+    // valorile citite la export (MetricsServer)
+    private void registerGauges() {
+        metrics.gauge("news_list_size", "Stiri pastrate local", () -> newsList.size());
+        metrics.gauge("publish_inflight", "Publicari trimise si neconfirmate de broker", this::getInflightCount);
+        metrics.gauge("outbox_depth", "Publicari din outbox neconfirmate de broker", () -> outbox.depth());
+        metrics.gauge("outbox_drain_rate", "Publicari din outbox confirmate in ultima secunda", outbox::drainRate);
+        metrics.gauge("ingress_queue_depth", "Mesaje primite care asteapta procesarea", this::getIngressQueueDepth);
+        metrics.gauge("ingress_dropped_messages", "Mesaje primite pierdute de politica de supraincarcare",
+                this::getIngressDroppedCount);
+        metrics.gauge("replication_lag", "Stiri replicate si neconfirmate, pe toate fluxurile",
+                ringManager::getReplicationLag);
+        metrics.gauge("replication_resends", "Loturi de replicare retrimise", ringManager::getReplicationResends);
+        metrics.gauge("newsapi_duplicates", "Articole preluate recunoscute ca deja vazute (amprente de continut)",
+                fingerprints::duplicates);
+        metrics.gauge("mqtt_connected", "1 daca nodul este conectat la un broker", () -> connected ? 1 : 0);
+    }
 
-            // replicare la succesor
-            ringManager.replicateNews(news);
+    // publicarile de stiri scrise in outbox si neconfirmate inca de broker
+    public long getOutboxDepth() {
+        return outbox.depth();
+    }
 
-            future.complete(null);
-        } catch (MqttException e) {
-            System.out.println("[" + id + "] Stirea nu a putut fi publicata");
-            writeToLogFile("Stirea cu topicul [" + topic + "] nu a putut fi publicata. " + e.getMessage());
-            future.completeExceptionally(e);
-        }
-        return future;
+    // publicari din outbox confirmate de broker in ultima secunda
+    public double getOutboxDrainRate() {
+        return outbox.drainRate();
     }
 
-    // porneste thread-ul de input utilizator
+    // porneste thread-ul de input utilizator; este singurul fir care nu e daemon,
+    // deci tine procesul in viata pana la optiunea 99
     public void startUserInputThread(Client c, Topics topics) {
-        executorService.submit(() -> {
+        Thread inputThread = new Thread(() -> {
             Scanner scanner = new Scanner(System.in);
             while (true) {
 
@@ -523,6 +951,7 @@ public class Client implements MqttCallback {
                 System.out.println("║ 6. Adauga stire                ║");
                 System.out.println("║ 7. Topic-uri abonate           ║");
                 System.out.println("║ 8. Stergere stire              ║");
+                System.out.println("║ 9. Cautare stiri               ║");
                 System.out.println("║ 99. Exit                       ║");
                 System.out.println("╚════════════════════════════════╝");
                 System.out.print("Optiunea mea este: ");
@@ -602,6 +1031,9 @@ public class Client implements MqttCallback {
                             System.out.println("Index invalid!");
                         }
                         break;
+                    case 9:
+                        searchMenu(scanner, c.getSubscribedTopics());
+                        break;
                     case 99:
                         try {
                             c.disconnectFromBroker();
@@ -615,7 +1047,31 @@ public class Client implements MqttCallback {
                         System.out.println("Alegere invalida!");
                 }
             }
-        });
+        }, "user-input");
+        inputThread.start();
+    }
+
+    // cautare full-text in stirile din topicurile abonate
+    private void searchMenu(Scanner scanner, List<String> subscribedTopics) {
+        if (!newsList.isSearchEnabled()) {
+            System.out.println("Cautarea este dezactivata (search.enabled=false)");
+            return;
+        }
+        System.out.print("Cauta (fraze intre ghilimele): ");
+        String query = scanner.nextLine();
+        long start = System.nanoTime();
+        List<News> results = newsList.search(query, AppConfig.getInt("search.maxResults", 10), subscribedTopics);
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        if (results.isEmpty()) {
+            System.out.println("Nicio stire gasita (" + micros / 1000.0 + " ms)");
+            return;
+        }
+        System.out.println(results.size() + " rezultate (" + micros / 1000.0 + " ms):");
+        int i = 1;
+        for (News n : results) {
+            System.out.println(i + ". [" + n.getId() + "]. Titlu: " + n.getTitle() + ", Topic: " + n.getTopic());
+            i++;
+        }
     }
 
     // incarca cheia NewsAPI din fisier
@@ -638,95 +1094,43 @@ public class Client implements MqttCallback {
         }
     }
 
-    // thread ce preia stiri de la newsapi din ora in ora
+    // preia stiri de la newsapi periodic (newsapi.intervalMs); toate topicurile sunt cerute in
+    // paralel si doar articolele mai noi decat cele deja preluate (NewsApiFetcher)
     public void startNewsApiFetchingThread(Topics topics) {
-        final long SLEEP_INTERVAL_MS = 3600000L; // 1 ora
-        Thread newsApiThread = new Thread(() -> {
-            while (true) {
-                try {
-                    List<String> allTopics = topics.getAllTopics();
-                    for (String topic : allTopics) {
-                        if (topic.equals("stergere")) {
-                            continue;
-                        }
-                        List<News> fetchedNews = fetchNewsFromApi(topic);
-                        for (News n : fetchedNews) {
-                            n.setTopic(topic);
-                            publishNews(n);
-                        }
-                    }
-                    Thread.sleep(SLEEP_INTERVAL_MS);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    break;
-                } catch (Exception ex) {
-                    ex.printStackTrace();
-                }
-            }
-        });
-        newsApiThread.setDaemon(true);
-        newsApiThread.start();
-    }
-
-    // obtine stiri de la newsapi
-    private List<News> fetchNewsFromApi(String queryTopic) {
-        List<News> resultList = new ArrayList<>();
         if (this.newsApiKey == null || this.newsApiKey.isEmpty()) {
             System.out.println("[" + id + "] NEWS_API_KEY nu este configurat. nu se pot prelua stiri.");
-            return resultList;
+            return;
         }
-        String endpoint = "https://newsapi.org/v2/everything?q=" + queryTopic
-                + "&apiKey=" + this.newsApiKey
-                + "&pageSize=5"
-                + "&sortBy=publishedAt";
-
-        HttpURLConnection connection = null;
-        BufferedReader reader = null;
-        try {
-            URL url = new URL(endpoint);
-            connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(5000);
-
-            int status = connection.getResponseCode();
-            if (status == HttpURLConnection.HTTP_OK) {
-                reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-                StringBuilder responseBody = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    responseBody.append(line);
+        NewsApiFetcher fetcher = new NewsApiFetcher(newsApiKey,
+                Paths.get(persistDir, "newsapi.state"), this::writeToLogFile);
+        long intervalMs = AppConfig.getLong("newsapi.intervalMs", 3600000L);
+        ClientExecutors.scheduler().scheduleWithFixedDelay(() -> {
+            List<String> fetchTopics = new ArrayList<>(topics.getAllTopics());
+            fetchTopics.remove("stergere");
+            AtomicInteger skipped = new AtomicInteger();
+            fetcher.fetchAll(fetchTopics, (topic, article) -> {
+                News news = toNews(article, topic);
+                // acelasi articol (sau o varianta aproape identica) nu mai ajunge la publicare
+                if (fingerprints.add(topic, article.url, news.getTitle(), news.getContent())) {
+                    publishNews(news);
+                } else {
+                    skipped.incrementAndGet();
                 }
-                Gson gson = new GsonBuilder().create();
-                NewsApiResponse apiResponse = gson.fromJson(responseBody.toString(), NewsApiResponse.class);
-                if (apiResponse != null && apiResponse.articles != null) {
-                    for (NewsApiArticle article : apiResponse.articles) {
-                        String title = (article.title != null) ? article.title : "no title";
-                        String content = (article.description != null && !article.description.isEmpty())
-                                ? article.description
-                                : (article.content != null ? article.content : "no content");
-                        News n = new News(this.id, title, content, queryTopic);
-                        resultList.add(n);
-                    }
+            }).thenRun(() -> {
+                fingerprints.save();
+                if (skipped.get() > 0) {
+                    writeToLogFile("[NewsAPI] " + skipped.get() + " articole deja preluate au fost ignorate");
                 }
-            } else {
-                System.out.println("[" + id + "] NewsAPI raspuns HTTP status: " + status);
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
-            if (connection != null) {
-                connection.disconnect();
-            }
-        }
-        return resultList;
+            });
+        }, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private News toNews(NewsApiArticle article, String topic) {
+        String title = (article.title != null) ? article.title : "no title";
+        String content = (article.description != null && !article.description.isEmpty())
+                ? article.description
+                : (article.content != null ? article.content : "no content");
+        return new News(this.id, title, content, topic);
     }
 
     // gestioneaza fisierul de id (n1, n2, n3)
@@ -767,56 +1171,32 @@ public class Client implements MqttCallback {
         }
     }
 
-    // thread heartbeat - trimite heartbeat si verifica timeout
-    public void startHeartbeatThread() {
-        Thread heartbeatThread = new Thread(() -> {
-            while (true) {
-                try {
-                    // Dacă e singurul nod din inel, nu face heartbeat
-                    if (getActiveNodes().size() == 1) {
-                        Thread.sleep(15000); // Așteaptă 15 secunde înainte de a verifica din nou
-                        continue;
-                    }
-
-                    // Trimite heartbeat request către succesor
-                    if (ringManager.getSuccessor() != null
-                            && !ringManager.getSuccessor().equals(getId())) {
-                        String msg = "heartbeat_request:" + this.id;
-                        publishOnTopic("ring_heartbeat", msg);
-                        writeToLogFile("Heartbeat request trimis catre succesor: " + ringManager.getSuccessor());
-                    }
-
-                    long now = System.currentTimeMillis();
-
-                    // Verifică succesor
-                    long succDiff = now - lastHeartbeatReceived.get();
-                    if (succDiff > HEARTBEAT_TIMEOUT_MS
-                            && ringManager.getSuccessor() != null
-                            && !ringManager.getSuccessor().equals(getId())) {
-                        writeToLogFile("[RingManager] Timeout Heartbeat detectat. Succesorul "
-                                + ringManager.getSuccessor() + " este considerat cazut.");
-
-                        ringManager.handleSuccessorFailure();
-                    }
-
-                    // Verifică predecesor
-                    long predDiff = now - lastPredecessorHeartbeatReceived.get();
-                    if (predDiff > HEARTBEAT_TIMEOUT_MS
-                            && ringManager.getPredecessor() != null
-                            && !ringManager.getPredecessor().equals(getId())) {
-                        writeToLogFile("[RingManager] Timeout Heartbeat detectat. Predecesorul "
-                                + ringManager.getPredecessor() + " este considerat cazut.");
-                        ringManager.handlePredecessorFailure();
+    // trimite periodic heartbeat-uri directe succesorului si predecesorului (qos 0, fara confirmare)
+    // si verifica vecinii cu detectorul phi-accrual; traficul total este O(N), nu O(N^2)
+    public synchronized void startHeartbeatThread() {
+        if (heartbeatTask != null) {
+            return;
+        }
+        byte[] beat = ("hb:" + this.id).getBytes(StandardCharsets.UTF_8);
+        heartbeatTask = ClientExecutors.scheduler().scheduleAtFixedRate(() -> {
+            try {
+                if (!connected) {
+                    return;
+                }
+                boolean probe = heartbeatRounds++ % rttEvery == 0;
+                for (String neighbour : ringManager.getNeighbours()) {
+                    publishAsync("heartbeat/" + neighbour, beat, 0, false);
+                    heartbeatsSent.inc();
+                    if (probe) {
+                        publishAsync("heartbeat/" + neighbour,
+                                ("rtt:" + id + ":" + System.nanoTime()).getBytes(StandardCharsets.UTF_8), 0, false);
                     }
-
-                    Thread.sleep(10000); // Așteaptă 10 secunde înainte de a trimite următorul heartbeat
-                } catch (Exception e) {
-                    e.printStackTrace();
                 }
+                ringManager.checkNeighbours();
+            } catch (RuntimeException e) {
+                writeToLogFile(LogLevel.ERROR, "[Heartbeat] Eroare: " + e.getMessage());
             }
-        });
-        heartbeatThread.setDaemon(true);
-        heartbeatThread.start();
+        }, 0, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
     }
 
     // obtine lista de topicuri la care este abonat
@@ -824,17 +1204,18 @@ public class Client implements MqttCallback {
         return Collections.unmodifiableList(subscribedTopics);
     }
 
+    // Metoda pentru a adauga un nod in activeNodes (inelul se actualizeaza separat, prin updateRing)
+    public void addActiveNode(String nodeId) {
+        activeNodes.add(nodeId);
+    }
+
     // Metoda pentru a elimina un nod din activeNodes
     public void removeActiveNode(String nodeId) {
         activeNodes.remove(nodeId);
     }
 
-    public synchronized AtomicLong getLastHeartbeatReceived() {
-        return lastHeartbeatReceived;
-    }
-
-    public synchronized AtomicLong getLastPredecessorHeartbeatReceived() {
-        return lastPredecessorHeartbeatReceived;
+    public long getHeartbeatIntervalMs() {
+        return heartbeatIntervalMs;
     }
 
 }
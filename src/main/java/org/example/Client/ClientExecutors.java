@@ -0,0 +1,86 @@
+package org.example.Client;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// executoarele comune ale clientului.
+// sarcinile periodice (heartbeat, replicare, anti-entropie, snapshot, reconectare, NewsAPI)
+// ruleaza toate pe un singur planificator; ele trebuie sa fie scurte si sa predea partea
+// blocanta executorului blocking().
+// runtime.threads=VIRTUAL: procesarea mesajelor, persistarea si cererile HTTP ruleaza pe fire
+// virtuale, deci numarul de fire de platforma ramane constant. firele virtuale sunt cautate
+// prin reflexie, ca proiectul sa compileze in continuare pentru java 11; pe un JDK fara ele
+// (< 21) se folosesc fire de platforma
+public final class ClientExecutors {
+
+    private static final ThreadFactory VIRTUAL_FACTORY =
+            "VIRTUAL".equalsIgnoreCase(AppConfig.getString("runtime.threads", "PLATFORM")) ? virtualFactory() : null;
+
+    private static final ScheduledExecutorService SCHEDULER =
+            Executors.newSingleThreadScheduledExecutor(platformFactory("scheduler"));
+
+    private static final ExecutorService BLOCKING = VIRTUAL_FACTORY != null
+            ? threadPerTaskExecutor(VIRTUAL_FACTORY)
+            : Executors.newCachedThreadPool(platformFactory("worker"));
+
+    private ClientExecutors() {
+    }
+
+    // planificatorul comun pentru sarcinile periodice
+    public static ScheduledExecutorService scheduler() {
+        return SCHEDULER;
+    }
+
+    // executorul pentru sarcini care blocheaza (I/O, retea, asteptarea broker-ului)
+    public static ExecutorService blocking() {
+        return BLOCKING;
+    }
+
+    // un fir de lunga durata (ex: consumatorul unei cozi), virtual daca modul e activ; nepornit
+    public static Thread newThread(String name, Runnable task) {
+        Thread t = VIRTUAL_FACTORY != null ? VIRTUAL_FACTORY.newThread(task) : new Thread(task);
+        t.setName(name);
+        if (!t.isDaemon()) {
+            t.setDaemon(true);
+        }
+        return t;
+    }
+
+    public static boolean isVirtual() {
+        return VIRTUAL_FACTORY != null;
+    }
+
+    private static ThreadFactory platformFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    // Thread.ofVirtual().factory(), disponibil de la java 21
+    private static ThreadFactory virtualFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            System.out.println("Firele virtuale nu sunt disponibile pe acest JDK, se folosesc fire de platforma");
+            return null;
+        }
+    }
+
+    private static ExecutorService threadPerTaskExecutor(ThreadFactory factory) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(factory);
+        }
+    }
+}
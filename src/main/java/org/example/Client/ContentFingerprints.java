@@ -0,0 +1,364 @@
+package org.example.Client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// amprente de continut pentru articolele preluate din surse externe.
+// un articol preluat din nou primeste alt id (uuid nou), deci deduplicarea dupa id nu il opreste;
+// aici este recunoscut dupa continut, pe topic: hash-ul url-ului normalizat (fara schema, www,
+// fragment si parametri de urmarire), hash-ul titlului normalizat si un SimHash pe 64 de biti
+// al cuvintelor din titlu si continut, care prinde si variantele aproape identice (la textele
+// scurte de la NewsAPI, ~40 de cuvinte, un cuvant schimbat muta SimHash-ul cu 0-10 biti, in ~90%
+// din cazuri cu cel mult 6; texte diferite raman la peste 20, vezi ContentFingerprintsTest).
+// SimHash-urile sunt cautate pe 8 benzi de 8 biti: doua amprente la distanta
+// Hamming <= 7 au sigur o banda comuna. amprentele sunt intr-un LRU limitat la
+// fingerprint.capacity si sunt salvate in persist.dir/fingerprints.dat, deci raman valabile
+// si dupa repornire
+final class ContentFingerprints {
+
+    private static final int MAGIC = 0x46505231; // "FPR1"
+    private static final int BANDS = 8;
+    private static final int BAND_BITS = 64 / BANDS;
+    // cu 8 benzi, o distanta mai mare nu mai garanteaza o banda comuna
+    private static final int MAX_DISTANCE = BANDS - 1;
+    // textele mai scurte dau SimHash-uri instabile
+    private static final int SIMHASH_MIN_TOKENS = 8;
+    // titlurile scurte ("Live", "Breaking news") se repeta intre articole diferite
+    private static final int TITLE_MIN_CHARS = 20;
+    private static final String[] TRACKING_PARAMS = {"utm_", "fbclid", "gclid", "ref", "cmpid", "ocid"};
+
+    private static final class Entry {
+        final long topic;
+        final long urlKey;
+        final long titleKey;
+        final long simhash;
+
+        Entry(long topic, long urlKey, long titleKey, long simhash) {
+            this.topic = topic;
+            this.urlKey = urlKey;
+            this.titleKey = titleKey;
+            this.simhash = simhash;
+        }
+    }
+
+    private final int capacity;
+    private final int maxDistance;
+    private final Path file;
+    // cheile exacte (url si titlu, combinate cu topicul) -> amprenta
+    private final Map<Long, Entry> exact = new HashMap<>();
+    // (banda, valoare, topic) -> amprentele cu acea banda
+    private final Map<Long, List<Entry>> bands = new HashMap<>();
+    // ordinea de acces; cea mai veche amprenta este uitata prima
+    private final LinkedHashMap<Entry, Entry> lru = new LinkedHashMap<>(16, 0.75f, true);
+    private long duplicates;
+
+    ContentFingerprints(int capacity, int maxDistance, Path file) {
+        this.capacity = Math.max(0, capacity);
+        this.maxDistance = Math.max(0, Math.min(MAX_DISTANCE, maxDistance));
+        this.file = file;
+        load();
+    }
+
+    // din configuratie (fingerprint.*)
+    static ContentFingerprints fromConfig(String persistDir) {
+        return new ContentFingerprints(
+                AppConfig.getInt("fingerprint.capacity", 100000),
+                AppConfig.getInt("fingerprint.maxDistance", 6),
+                Paths.get(persistDir, "fingerprints.dat"));
+    }
+
+    // retine amprenta articolului; intoarce false daca acelasi articol (sau unul aproape identic)
+    // a fost deja vazut pe acest topic. url poate lipsi
+    synchronized boolean add(String topic, String url, String title, String body) {
+        if (capacity == 0) {
+            return true;
+        }
+        long topicKey = hash(topic == null ? "" : topic, 0x9E3779B97F4A7C15L);
+        long urlKey = url == null || url.isEmpty() ? 0 : nonZero(hash(normalizeUrl(url), topicKey));
+        String normalizedTitle = normalizeText(title);
+        long titleKey = normalizedTitle.length() < TITLE_MIN_CHARS ? 0 : nonZero(hash(normalizedTitle, ~topicKey));
+        long simhash = simhash(title, body);
+
+        Entry seen = find(topicKey, urlKey, titleKey, simhash);
+        if (seen != null) {
+            lru.get(seen);
+            duplicates++;
+            return false;
+        }
+        insert(new Entry(topicKey, urlKey, titleKey, simhash));
+        return true;
+    }
+
+    synchronized int size() {
+        return lru.size();
+    }
+
+    // articolele recunoscute ca duplicate de la pornire (metrica newsapi_duplicates)
+    synchronized long duplicates() {
+        return duplicates;
+    }
+
+    // scrisa intr-un fisier temporar si mutata, ca o oprire in timpul scrierii sa nu o strice
+    synchronized void save() {
+        if (file == null || capacity == 0) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(lru.size());
+                // de la cea mai veche la cea mai noua, ca incarcarea sa refaca ordinea LRU
+                for (Entry e : lru.keySet()) {
+                    out.writeLong(e.topic);
+                    out.writeLong(e.urlKey);
+                    out.writeLong(e.titleKey);
+                    out.writeLong(e.simhash);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Amprentele de continut nu au putut fi salvate: " + e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (file == null || capacity == 0 || !Files.exists(file)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("format necunoscut");
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                insert(new Entry(in.readLong(), in.readLong(), in.readLong(), in.readLong()));
+            }
+        } catch (IOException e) {
+            System.out.println("Amprentele de continut nu au putut fi citite, se pornesc goale: " + e.getMessage());
+            exact.clear();
+            bands.clear();
+            lru.clear();
+        }
+    }
+
+    private Entry find(long topicKey, long urlKey, long titleKey, long simhash) {
+        Entry e = urlKey != 0 ? exact.get(urlKey) : null;
+        if (e == null && titleKey != 0) {
+            e = exact.get(titleKey);
+        }
+        if (e != null || simhash == 0) {
+            return e;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            List<Entry> candidates = bands.get(bandKey(topicKey, simhash, band));
+            if (candidates == null) {
+                continue;
+            }
+            for (Entry c : candidates) {
+                if (c.topic == topicKey && Long.bitCount(c.simhash ^ simhash) <= maxDistance) {
+                    return c;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void insert(Entry e) {
+        if (e.urlKey != 0) {
+            exact.put(e.urlKey, e);
+        }
+        if (e.titleKey != 0) {
+            exact.put(e.titleKey, e);
+        }
+        if (e.simhash != 0) {
+            for (int band = 0; band < BANDS; band++) {
+                bands.computeIfAbsent(bandKey(e.topic, e.simhash, band), k -> new ArrayList<>(2)).add(e);
+            }
+        }
+        lru.put(e, e);
+        if (lru.size() > capacity) {
+            Iterator<Entry> eldest = lru.keySet().iterator();
+            Entry evicted = eldest.next();
+            eldest.remove();
+            remove(evicted);
+        }
+    }
+
+    private void remove(Entry e) {
+        if (e.urlKey != 0) {
+            exact.remove(e.urlKey, e);
+        }
+        if (e.titleKey != 0) {
+            exact.remove(e.titleKey, e);
+        }
+        if (e.simhash != 0) {
+            for (int band = 0; band < BANDS; band++) {
+                long key = bandKey(e.topic, e.simhash, band);
+                List<Entry> list = bands.get(key);
+                if (list != null && list.remove(e) && list.isEmpty()) {
+                    bands.remove(key);
+                }
+            }
+        }
+    }
+
+    private static long bandKey(long topicKey, long simhash, int band) {
+        long value = (simhash >>> (band * BAND_BITS)) & ((1L << BAND_BITS) - 1);
+        return mix(topicKey ^ ((long) band << BAND_BITS | value) * 0xC2B2AE3D27D4EB4FL);
+    }
+
+    // gazda fara www si cu litere mici, calea fara "/" final, fara schema, fragment si parametri
+    // de urmarire; parametrii ramasi sunt sortati
+    static String normalizeUrl(String url) {
+        String u = url.trim();
+        int fragment = u.indexOf('#');
+        if (fragment >= 0) {
+            u = u.substring(0, fragment);
+        }
+        int scheme = u.indexOf("://");
+        if (scheme >= 0) {
+            u = u.substring(scheme + 3);
+        }
+        int q = u.indexOf('?');
+        String path = q >= 0 ? u.substring(0, q) : u;
+        String query = q >= 0 ? u.substring(q + 1) : "";
+        int slash = path.indexOf('/');
+        String host = (slash >= 0 ? path.substring(0, slash) : path).toLowerCase(Locale.ROOT);
+        if (host.startsWith("www.")) {
+            host = host.substring(4);
+        }
+        String rest = slash >= 0 ? path.substring(slash) : "";
+        while (rest.endsWith("/")) {
+            rest = rest.substring(0, rest.length() - 1);
+        }
+        List<String> kept = new ArrayList<>();
+        for (String param : query.split("&")) {
+            if (!param.isEmpty() && !isTracking(param)) {
+                kept.add(param);
+            }
+        }
+        if (kept.isEmpty()) {
+            return host + rest;
+        }
+        String[] sorted = kept.toArray(new String[0]);
+        Arrays.sort(sorted);
+        return host + rest + "?" + String.join("&", sorted);
+    }
+
+    private static boolean isTracking(String param) {
+        String name = param.toLowerCase(Locale.ROOT);
+        int eq = name.indexOf('=');
+        if (eq >= 0) {
+            name = name.substring(0, eq);
+        }
+        for (String tracking : TRACKING_PARAMS) {
+            if (tracking.endsWith("_") ? name.startsWith(tracking) : name.equals(tracking)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // cuvintele textului (litere si cifre, litere mici, fara diacritice), separate de un spatiu
+    static String normalizeText(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(text.length());
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (!inWord && out.length() > 0) {
+                    out.append(' ');
+                }
+                out.append(FullTextIndex.fold(Character.toLowerCase(c)));
+                inWord = true;
+            } else {
+                inWord = false;
+            }
+        }
+        return out.toString();
+    }
+
+    // SimHash pe cuvintele din titlu si continut; 0 daca textul e prea scurt
+    static long simhash(String title, String body) {
+        int[] weights = new int[64];
+        int words = accumulate(title, weights) + accumulate(body, weights);
+        if (words < SIMHASH_MIN_TOKENS) {
+            return 0;
+        }
+        long simhash = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                simhash |= 1L << bit;
+            }
+        }
+        return nonZero(simhash);
+    }
+
+    private static int accumulate(String text, int[] weights) {
+        if (text == null) {
+            return 0;
+        }
+        int words = 0;
+        long word = 0xcbf29ce484222325L;
+        boolean inWord = false;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word = (word ^ FullTextIndex.fold(Character.toLowerCase(c))) * 0x100000001b3L;
+                inWord = true;
+            } else if (inWord) {
+                long feature = mix(word);
+                for (int bit = 0; bit < 64; bit++) {
+                    weights[bit] += ((feature >>> bit) & 1) != 0 ? 1 : -1;
+                }
+                words++;
+                word = 0xcbf29ce484222325L;
+                inWord = false;
+            }
+        }
+        return words;
+    }
+
+    private static long hash(String s, long seed) {
+        long h = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    // 0 marcheaza o cheie absenta
+    private static long nonZero(long h) {
+        return h == 0 ? 1 : h;
+    }
+
+    // finalizatorul MurmurHash3
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,323 @@
+package org.example.Client;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+// filtru de deduplicare cu memorie limitata.
+// id-urile "N<k>:<uuid>" sunt pastrate ca chei primitive (autor, msb, lsb) intr-un set cu
+// adresare deschisa (~40 octeti pe id, fata de 150+ pentru un String intr-un set concurent).
+// setul exact acopera fereastra curenta si pe cea anterioara; la rotire, id-urile din fereastra
+// anterioara trec intr-un filtru Bloom al generatiei lor, dimensionat pentru rata de fals pozitive
+// ceruta. dupa `generations` ferestre, generatia cea mai veche este uitata complet, deci memoria
+// ramane limitata oricat ar rula nodul. mightContain poate da fals pozitive doar pentru id-urile
+// din generatiile Bloom, niciodata fals negative in interiorul retentiei.
+// potrivit doar pentru id-uri care pot fi uitate (ex: Client.seenIds); cele care trebuie pastrate
+// exact si pentru totdeauna (stergerile) folosesc direct CompactIdSet
+final class DedupFilter {
+
+    private final long windowMs;
+    private final int generations;
+    private final int bloomBits;
+    private final int bloomHashes;
+
+    private CompactIdSet current = new CompactIdSet(16);
+    private CompactIdSet previous = new CompactIdSet(16);
+    // generatiile Bloom, cea mai noua prima; EMPTY pentru o fereastra fara id-uri
+    private final ArrayDeque<long[]> blooms = new ArrayDeque<>();
+    private static final long[] EMPTY = new long[0];
+    private long windowStart;
+
+    // cheia id-ului curent, refolosita (metodele sunt synchronized)
+    private final long[] key = new long[3];
+
+    DedupFilter(long windowMs, int generations, double falsePositiveRate, int expectedPerWindow) {
+        this(windowMs, generations, falsePositiveRate, expectedPerWindow, System.currentTimeMillis());
+    }
+
+    // cu inceputul primei ferestre dat explicit (teste)
+    DedupFilter(long windowMs, int generations, double falsePositiveRate, int expectedPerWindow, long now) {
+        this.windowMs = Math.max(1, windowMs);
+        this.generations = Math.max(0, generations);
+        double p = Math.min(0.5, Math.max(1e-12, falsePositiveRate));
+        long n = Math.max(1, expectedPerWindow);
+        long bits = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        this.bloomBits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.bloomHashes = Math.max(1, (int) Math.round((double) bloomBits / n * Math.log(2)));
+        this.windowStart = now;
+    }
+
+    // din configuratie (dedup.*)
+    static DedupFilter fromConfig() {
+        return new DedupFilter(
+                AppConfig.getLong("dedup.windowMs", 3600000L),
+                AppConfig.getInt("dedup.generations", 24),
+                AppConfig.getDouble("dedup.falsePositiveRate", 1e-6),
+                AppConfig.getInt("dedup.expectedPerWindow", 100000));
+    }
+
+    // adauga id-ul; intoarce false daca era deja (sau pare sa fi fost) vazut
+    boolean add(String id) {
+        return add(id, System.currentTimeMillis());
+    }
+
+    synchronized boolean add(String id, long now) {
+        rotateIfNeeded(now);
+        toKey(id, key);
+        if (previous.contains(key[0], key[1], key[2]) || inBlooms(key)) {
+            return false;
+        }
+        return current.add(key[0], key[1], key[2]);
+    }
+
+    boolean mightContain(String id) {
+        return mightContain(id, System.currentTimeMillis());
+    }
+
+    synchronized boolean mightContain(String id, long now) {
+        rotateIfNeeded(now);
+        toKey(id, key);
+        return current.contains(key[0], key[1], key[2])
+                || previous.contains(key[0], key[1], key[2])
+                || inBlooms(key);
+    }
+
+    // numarul de id-uri pastrate exact
+    synchronized int exactSize() {
+        return current.size() + previous.size();
+    }
+
+    // memoria aproximativa folosita, in octeti
+    synchronized long memoryBytes() {
+        long bytes = current.memoryBytes() + previous.memoryBytes();
+        for (long[] bloom : blooms) {
+            bytes += bloom.length * 8L;
+        }
+        return bytes;
+    }
+
+    private void rotateIfNeeded(long now) {
+        if (now - windowStart < windowMs) {
+            return;
+        }
+        long windows = (now - windowStart) / windowMs;
+        windowStart += windows * windowMs;
+        for (long w = 0; w < Math.min(windows, 2); w++) {
+            if (previous.size() > 0) {
+                long[] bloom = new long[(bloomBits + 63) / 64];
+                previous.forEach((a, msb, lsb) -> bloomAdd(bloom, a, msb, lsb));
+                blooms.addFirst(bloom);
+            } else {
+                blooms.addFirst(EMPTY);
+            }
+            previous = current;
+            current = new CompactIdSet(16);
+        }
+        // ferestrele goale sarite imbatranesc si generatiile Bloom
+        for (long w = 2; w < Math.min(windows, generations + 2L); w++) {
+            blooms.addFirst(EMPTY);
+        }
+        while (blooms.size() > generations) {
+            blooms.removeLast();
+        }
+    }
+
+    private boolean inBlooms(long[] k) {
+        Iterator<long[]> it = blooms.iterator();
+        while (it.hasNext()) {
+            long[] bloom = it.next();
+            if (bloom != EMPTY && bloomContains(bloom, k[0], k[1], k[2])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // dublu hashing (Kirsch-Mitzenmacher) peste cele doua jumatati ale cheii
+    private void bloomAdd(long[] bloom, long author, long msb, long lsb) {
+        long h1 = mix(msb ^ (author * 0x9E3779B97F4A7C15L));
+        long h2 = mix(lsb) | 1;
+        for (int i = 0; i < bloomHashes; i++) {
+            int bit = (int) (((h1 + i * h2) >>> 1) % bloomBits);
+            bloom[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    private boolean bloomContains(long[] bloom, long author, long msb, long lsb) {
+        long h1 = mix(msb ^ (author * 0x9E3779B97F4A7C15L));
+        long h2 = mix(lsb) | 1;
+        for (int i = 0; i < bloomHashes; i++) {
+            int bit = (int) (((h1 + i * h2) >>> 1) % bloomBits);
+            if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // finalizatorul MurmurHash3
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // "N<k>:<uuid>" -> {k, msb, lsb}; alte forme de id primesc autorul -1 si un hash pe 128 de biti
+    static void toKey(String id, long[] out) {
+        int sep = id.indexOf(':');
+        if (sep > 1 && id.charAt(0) == 'N' && id.length() - sep - 1 == 36) {
+            long author = 0;
+            boolean ok = sep - 1 <= 9;
+            for (int i = 1; i < sep && ok; i++) {
+                char c = id.charAt(i);
+                ok = c >= '0' && c <= '9';
+                author = author * 10 + (c - '0');
+            }
+            if (ok && parseUuid(id, sep + 1, out)) {
+                out[0] = author;
+                return;
+            }
+        }
+        long h1 = 0xcbf29ce484222325L;
+        long h2 = 0x84222325cbf29ce4L;
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            h1 = (h1 ^ c) * 0x100000001b3L;
+            h2 = (h2 ^ c) * 0x9E3779B97F4A7C15L;
+        }
+        out[0] = -1;
+        out[1] = mix(h1);
+        out[2] = mix(h2);
+    }
+
+    // uuid canonic "8-4-4-4-12" in out[1] (msb) si out[2] (lsb), fara alocari
+    private static boolean parseUuid(String s, int from, long[] out) {
+        long msb = 0;
+        long lsb = 0;
+        int digits = 0;
+        for (int i = from; i < from + 36; i++) {
+            char c = s.charAt(i);
+            int rel = i - from;
+            if (rel == 8 || rel == 13 || rel == 18 || rel == 23) {
+                if (c != '-') {
+                    return false;
+                }
+                continue;
+            }
+            int v = Character.digit(c, 16);
+            if (v < 0) {
+                return false;
+            }
+            if (digits < 16) {
+                msb = (msb << 4) | v;
+            } else {
+                lsb = (lsb << 4) | v;
+            }
+            digits++;
+        }
+        out[1] = msb;
+        out[2] = lsb;
+        return true;
+    }
+
+    // set de chei (autor, msb, lsb) cu adresare deschisa si sondare liniara; fara stergeri.
+    // nu este thread-safe
+    static final class CompactIdSet {
+
+        interface KeyConsumer {
+            void accept(long author, long msb, long lsb);
+        }
+
+        // autorul este pastrat + 2, ca 0 sa marcheze un slot liber (autorul -1 devine 1)
+        private int[] authors;
+        private long[] msbs;
+        private long[] lsbs;
+        private int size;
+
+        CompactIdSet(int capacity) {
+            int cap = Integer.highestOneBit(Math.max(4, capacity - 1)) << 1;
+            authors = new int[cap];
+            msbs = new long[cap];
+            lsbs = new long[cap];
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean add(String id) {
+            long[] k = new long[3];
+            toKey(id, k);
+            return add(k[0], k[1], k[2]);
+        }
+
+        boolean contains(String id) {
+            long[] k = new long[3];
+            toKey(id, k);
+            return contains(k[0], k[1], k[2]);
+        }
+
+        long memoryBytes() {
+            return (long) authors.length * (4 + 8 + 8);
+        }
+
+        boolean contains(long author, long msb, long lsb) {
+            int tag = (int) author + 2;
+            int mask = authors.length - 1;
+            for (int i = slot(author, msb, lsb) & mask; authors[i] != 0; i = (i + 1) & mask) {
+                if (authors[i] == tag && msbs[i] == msb && lsbs[i] == lsb) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean add(long author, long msb, long lsb) {
+            if ((size + 1) * 2 > authors.length) {
+                grow();
+            }
+            int tag = (int) author + 2;
+            int mask = authors.length - 1;
+            int i = slot(author, msb, lsb) & mask;
+            for (; authors[i] != 0; i = (i + 1) & mask) {
+                if (authors[i] == tag && msbs[i] == msb && lsbs[i] == lsb) {
+                    return false;
+                }
+            }
+            authors[i] = tag;
+            msbs[i] = msb;
+            lsbs[i] = lsb;
+            size++;
+            return true;
+        }
+
+        void forEach(KeyConsumer consumer) {
+            for (int i = 0; i < authors.length; i++) {
+                if (authors[i] != 0) {
+                    consumer.accept(authors[i] - 2, msbs[i], lsbs[i]);
+                }
+            }
+        }
+
+        private void grow() {
+            int[] oldAuthors = authors;
+            long[] oldMsbs = msbs;
+            long[] oldLsbs = lsbs;
+            authors = new int[oldAuthors.length * 2];
+            msbs = new long[oldAuthors.length * 2];
+            lsbs = new long[oldAuthors.length * 2];
+            size = 0;
+            for (int i = 0; i < oldAuthors.length; i++) {
+                if (oldAuthors[i] != 0) {
+                    add(oldAuthors[i] - 2, oldMsbs[i], oldLsbs[i]);
+                }
+            }
+        }
+
+        private static int slot(long author, long msb, long lsb) {
+            return (int) mix(msb ^ Long.rotateLeft(lsb, 29) ^ author);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.Client;
+
+// cand forteaza SegmentStore datele pe disc (fsync)
+public enum FsyncPolicy {
+    // dupa fiecare lot scris, inainte de a confirma publicatorii
+    PER_BATCH,
+    // cel mult o data la un interval configurat
+    INTERVAL,
+    // lasa sistemul de operare sa decida (doar la rotatie si la inchidere)
+    OS
+}
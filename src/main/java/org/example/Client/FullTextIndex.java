@@ -0,0 +1,705 @@
+package org.example.Client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// index inversat peste titlul si continutul stirilor, actualizat la fiecare adaugare/stergere.
+// fiecare termen are o lista de aparitii comprimata intr-un byte[]; pentru fiecare document:
+// [varint diferenta de doc][varint tf][varint tf in titlu][varint octeti pozitii][pozitii (diferente)].
+// documentele primesc id-uri crescatoare, deci listele se extind doar la final.
+// pozitiile titlului sunt 0..T-1, iar ale continutului incep de la T+1, ca o fraza sa nu treaca
+// din titlu in continut. scorul este BM25, cu aparitiile din titlu inmultite cu titleBoost.
+//
+// listele lungi sunt impartite in blocuri de BLOCK documente, cu ultimul document si scorul maxim
+// posibil al fiecarui bloc. cautarea sare peste blocuri intregi (avansare la un document) si
+// foloseste MaxScore: termenii a caror contributie maxima nu mai poate intra in top-k doar
+// completeaza scorul documentelor gasite de ceilalti, fara sa fie parcursi.
+//
+// stergerea doar marcheaza documentul; cand documentele sterse depasesc pe cele vii, listele
+// sunt rescrise si documentele renumerotate.
+// nu este thread-safe: NewsList il foloseste sub propriul lock
+final class FullTextIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_TOKEN = 64;
+    private static final int MIN_COMPACT = 10000;
+    private static final int BLOCK = 128;
+
+    // rezultatul unei cautari
+    static final class Hit {
+        final News news;
+        final double score;
+
+        Hit(News news, double score) {
+            this.news = news;
+            this.score = score;
+        }
+    }
+
+    // lista de aparitii a unui termen
+    private static final class Postings {
+        // metadatele unui bloc in tabloul blocks: offset, documentul dinaintea blocului,
+        // ultimul document, tf ponderat maxim (biti float), lungimea minima a documentelor
+        private static final int META = 5;
+
+        byte[] data = new byte[8];
+        int length;
+        int lastDoc = -1;
+        int df;
+        float maxWtf;
+        int minLength = Integer.MAX_VALUE;
+        // creat doar cand lista depaseste un bloc
+        int[] blocks;
+
+        // positions = [numar, p1, p2, ...], crescatoare
+        void append(int doc, int[] positions, int titleTf, float wtf, int docLength) {
+            int count = positions[0];
+            int positionBytes = 0;
+            for (int i = 1, last = 0; i <= count; i++) {
+                positionBytes += BinaryNewsCodec.varintSize(positions[i] - last);
+                last = positions[i];
+            }
+            if (df % BLOCK == 0 && df > 0) {
+                startBlock();
+            }
+            ensure(20 + positionBytes);
+            length = BinaryNewsCodec.writeVarint(data, length, doc - lastDoc);
+            length = BinaryNewsCodec.writeVarint(data, length, count);
+            length = BinaryNewsCodec.writeVarint(data, length, titleTf);
+            length = BinaryNewsCodec.writeVarint(data, length, positionBytes);
+            for (int i = 1, last = 0; i <= count; i++) {
+                length = BinaryNewsCodec.writeVarint(data, length, positions[i] - last);
+                last = positions[i];
+            }
+            lastDoc = doc;
+            df++;
+            maxWtf = Math.max(maxWtf, wtf);
+            minLength = Math.min(minLength, docLength);
+            if (blocks != null) {
+                int b = (df - 1) / BLOCK * META;
+                blocks[b + 2] = doc;
+                blocks[b + 3] = Float.floatToIntBits(Math.max(Float.intBitsToFloat(blocks[b + 3]), wtf));
+                blocks[b + 4] = Math.min(blocks[b + 4], docLength);
+            }
+        }
+
+        // primul bloc, incepand cu from, care se termina la doc sau dupa; -1 daca lista se termina inainte
+        int blockFor(int doc, int from) {
+            int count = blockCount();
+            for (int b = from; b < count; b++) {
+                if (blockLastDoc(b) >= doc) {
+                    return b;
+                }
+            }
+            return -1;
+        }
+
+        int blockCount() {
+            return blocks == null ? 1 : (df + BLOCK - 1) / BLOCK;
+        }
+
+        int blockOffset(int b) {
+            return blocks == null ? 0 : blocks[b * META];
+        }
+
+        int blockBaseDoc(int b) {
+            return blocks == null ? -1 : blocks[b * META + 1];
+        }
+
+        int blockLastDoc(int b) {
+            return blocks == null ? lastDoc : blocks[b * META + 2];
+        }
+
+        float blockMaxWtf(int b) {
+            return blocks == null ? maxWtf : Float.intBitsToFloat(blocks[b * META + 3]);
+        }
+
+        int blockMinLength(int b) {
+            return blocks == null ? minLength : blocks[b * META + 4];
+        }
+
+        private void startBlock() {
+            int b = df / BLOCK;
+            if (blocks == null) {
+                // primul bloc acopera tot ce s-a scris pana acum
+                blocks = new int[META * 4];
+                blocks[0] = 0;
+                blocks[1] = -1;
+                blocks[2] = lastDoc;
+                blocks[3] = Float.floatToIntBits(maxWtf);
+                blocks[4] = minLength;
+            } else if ((b + 1) * META > blocks.length) {
+                blocks = Arrays.copyOf(blocks, blocks.length * 2);
+            }
+            int m = b * META;
+            blocks[m] = length;
+            blocks[m + 1] = lastDoc;
+            blocks[m + 2] = lastDoc;
+            blocks[m + 3] = Float.floatToIntBits(0f);
+            blocks[m + 4] = Integer.MAX_VALUE;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + extra));
+            }
+        }
+    }
+
+    // parcurge o lista de aparitii; pozitiile se decodifica doar la cerere
+    private static final class Cursor {
+        final Postings postings;
+        final double idf;
+        final int[] pos = {0};
+        int doc = -1;
+        int tf;
+        int titleTf;
+        int block;
+        private int positionStart;
+        private boolean positionsRead;
+        private int[] positions = new int[8];
+        // contributia maxima a termenului la scor (MaxScore)
+        double maxScore;
+        // blocul ultimei limite calculate fara avansarea cursorului (documentele cresc)
+        int boundBlock;
+
+        Cursor(Postings postings, double idf) {
+            this.postings = postings;
+            this.idf = idf;
+        }
+
+        // trece la documentul urmator; false la final
+        boolean next() {
+            if (pos[0] >= postings.length) {
+                doc = Integer.MAX_VALUE;
+                return false;
+            }
+            byte[] data = postings.data;
+            doc += BinaryNewsCodec.readVarint(data, pos);
+            tf = BinaryNewsCodec.readVarint(data, pos);
+            titleTf = BinaryNewsCodec.readVarint(data, pos);
+            int positionBytes = BinaryNewsCodec.readVarint(data, pos);
+            positionStart = pos[0];
+            pos[0] += positionBytes;
+            positionsRead = false;
+            while (doc > postings.blockLastDoc(block)) {
+                block++;
+            }
+            return true;
+        }
+
+        // avanseaza pana la primul document >= target, sarind peste blocurile care se termina inainte
+        boolean advance(int target) {
+            if (doc >= target) {
+                return doc != Integer.MAX_VALUE;
+            }
+            if (target > postings.blockLastDoc(block)) {
+                int b = block + 1;
+                int count = postings.blockCount();
+                while (b < count && postings.blockLastDoc(b) < target) {
+                    b++;
+                }
+                if (b == count) {
+                    doc = Integer.MAX_VALUE;
+                    return false;
+                }
+                block = b;
+                pos[0] = postings.blockOffset(b);
+                doc = postings.blockBaseDoc(b);
+            }
+            while (doc < target) {
+                if (!next()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int[] positions() {
+            if (!positionsRead) {
+                if (positions.length < tf) {
+                    positions = new int[Math.max(tf, positions.length * 2)];
+                }
+                int[] p = {positionStart};
+                int last = 0;
+                for (int i = 0; i < tf; i++) {
+                    last += BinaryNewsCodec.readVarint(postings.data, p);
+                    positions[i] = last;
+                }
+                positionsRead = true;
+            }
+            return positions;
+        }
+    }
+
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final double titleBoost;
+
+    // datele documentelor, indexate dupa docId; intrarea este null pentru un document sters
+    private TopicIndex.Entry[] docs = new TopicIndex.Entry[1024];
+    private int[] lengths = new int[1024];
+    private int maxDoc;
+    private int liveDocs;
+    private long liveLength;
+
+    // spatiu refolosit la indexarea unui document (un singur scriitor)
+    private final Map<String, int[]> scratch = new HashMap<>();
+
+    FullTextIndex(double titleBoost) {
+        this.titleBoost = titleBoost;
+    }
+
+    int size() {
+        return liveDocs;
+    }
+
+    int termCount() {
+        return terms.size();
+    }
+
+    // octetii ocupati de listele de aparitii
+    long postingsBytes() {
+        long bytes = 0;
+        for (Postings p : terms.values()) {
+            bytes += p.data.length + (p.blocks != null ? p.blocks.length * 4L : 0);
+        }
+        return bytes;
+    }
+
+    void add(TopicIndex.Entry e) {
+        if (maxDoc == docs.length) {
+            int capacity = docs.length * 2;
+            docs = Arrays.copyOf(docs, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        int doc = maxDoc++;
+        scratch.clear();
+        int titleLength = tokenize(e.news.getTitle(), 0, scratch, null);
+        int length = titleLength + tokenize(e.news.getContent(), titleLength + 1, scratch, null);
+        for (Map.Entry<String, int[]> t : scratch.entrySet()) {
+            int[] positions = t.getValue();
+            int titleTf = 0;
+            while (titleTf < positions[0] && positions[titleTf + 1] < titleLength) {
+                titleTf++;
+            }
+            terms.computeIfAbsent(t.getKey(), k -> new Postings())
+                    .append(doc, positions, titleTf, weightedTf(positions[0], titleTf), length);
+        }
+        e.docId = doc;
+        docs[doc] = e;
+        lengths[doc] = length;
+        liveDocs++;
+        liveLength += length;
+    }
+
+    void remove(TopicIndex.Entry e) {
+        int doc = e.docId;
+        if (doc < 0 || doc >= maxDoc || docs[doc] != e) {
+            return;
+        }
+        docs[doc] = null;
+        e.docId = -1;
+        liveDocs--;
+        liveLength -= lengths[doc];
+        int dead = maxDoc - liveDocs;
+        if (dead > MIN_COMPACT && dead > liveDocs) {
+            compact();
+        }
+    }
+
+    // cuvintele din cerere sunt optionale si contribuie la scor; o fraza intre ghilimele este
+    // obligatorie (toti termenii ei, pe pozitii consecutive). topics filtreaza rezultatele (null = toate)
+    List<Hit> search(String query, int limit, Set<String> topics) {
+        List<String> words = new ArrayList<>();
+        List<List<String>> phrases = new ArrayList<>();
+        parseQuery(query, words, phrases);
+        if (limit <= 0 || (words.isEmpty() && phrases.isEmpty())) {
+            return Collections.emptyList();
+        }
+        double avgLength = liveDocs > 0 ? (double) liveLength / liveDocs : 1;
+
+        // un cursor per termen distinct
+        Map<String, Cursor> byTerm = new HashMap<>();
+        List<Cursor[]> phraseCursors = new ArrayList<>();
+        for (List<String> phrase : phrases) {
+            Cursor[] cursors = new Cursor[phrase.size()];
+            for (int i = 0; i < phrase.size(); i++) {
+                cursors[i] = cursorFor(phrase.get(i), byTerm, avgLength);
+                if (cursors[i] == null) {
+                    return Collections.emptyList(); // un termen obligatoriu lipseste
+                }
+            }
+            phraseCursors.add(cursors);
+        }
+        for (String word : words) {
+            cursorFor(word, byTerm, avgLength);
+        }
+        if (byTerm.isEmpty()) {
+            return Collections.emptyList();
+        }
+        for (Cursor c : byTerm.values()) {
+            c.next();
+        }
+
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, (a, b) -> Double.compare(a.score, b.score));
+        if (phraseCursors.isEmpty()) {
+            searchAny(new ArrayList<>(byTerm.values()), limit, topics, avgLength, top);
+        } else {
+            searchPhrases(byTerm, phraseCursors, limit, topics, avgLength, top);
+        }
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort((a, b) -> Double.compare(b.score, a.score));
+        return hits;
+    }
+
+    // reuniunea termenilor, cu MaxScore: termenii ordonati dupa contributia maxima; prefixul a carui
+    // suma nu poate depasi pragul top-k nu mai genereaza candidati, doar completeaza scorul lor
+    private void searchAny(List<Cursor> cursors, int limit, Set<String> topics, double avgLength,
+                           PriorityQueue<Hit> top) {
+        cursors.sort((a, b) -> Double.compare(a.maxScore, b.maxScore));
+        int n = cursors.size();
+        double[] prefix = new double[n];
+        for (int i = 0; i < n; i++) {
+            prefix[i] = cursors.get(i).maxScore + (i > 0 ? prefix[i - 1] : 0);
+        }
+        int firstEssential = 0;
+        double threshold = 0;
+
+        while (firstEssential < n) {
+            int doc = Integer.MAX_VALUE;
+            for (int i = firstEssential; i < n; i++) {
+                doc = Math.min(doc, cursors.get(i).doc);
+            }
+            if (doc == Integer.MAX_VALUE) {
+                return;
+            }
+            boolean full = top.size() == limit;
+            double nonEssential = firstEssential > 0 ? prefix[firstEssential - 1] : 0;
+
+            // un singur termen esential: blocul lui intreg poate fi sarit daca nu poate intra in top
+            if (full && firstEssential == n - 1) {
+                Cursor c = cursors.get(n - 1);
+                if (nonEssential + blockMaxScore(c, c.block, avgLength) <= threshold) {
+                    if (!c.advance(c.postings.blockLastDoc(c.block) + 1)) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+
+            TopicIndex.Entry entry = docs[doc];
+            if (entry != null && (topics == null || topics.contains(entry.topic))) {
+                double score = 0;
+                for (int i = firstEssential; i < n; i++) {
+                    Cursor c = cursors.get(i);
+                    if (c.doc == doc) {
+                        score += termScore(c, lengths[doc], avgLength);
+                    }
+                }
+                for (int i = firstEssential - 1; i >= 0; i--) {
+                    if (full && score + prefix[i] <= threshold) {
+                        break;
+                    }
+                    Cursor c = cursors.get(i);
+                    if (c.advance(doc) && c.doc == doc) {
+                        score += termScore(c, lengths[doc], avgLength);
+                    }
+                }
+                if (offer(top, limit, entry.news, score)) {
+                    threshold = top.peek().score;
+                    while (firstEssential < n && prefix[firstEssential] <= threshold) {
+                        firstEssential++;
+                    }
+                }
+            }
+            for (int i = firstEssential; i < n; i++) {
+                Cursor c = cursors.get(i);
+                if (c.doc == doc) {
+                    c.next();
+                }
+            }
+        }
+    }
+
+    // intersectia termenilor din fraze, condusa de termenul cel mai rar; cuvintele libere doar
+    // adauga la scor
+    private void searchPhrases(Map<String, Cursor> byTerm, List<Cursor[]> phraseCursors, int limit,
+                               Set<String> topics, double avgLength, PriorityQueue<Hit> top) {
+        List<Cursor> required = new ArrayList<>();
+        for (Cursor[] cursors : phraseCursors) {
+            for (Cursor c : cursors) {
+                if (!required.contains(c)) {
+                    required.add(c);
+                }
+            }
+        }
+        required.sort((a, b) -> Integer.compare(a.postings.df, b.postings.df));
+        List<Cursor> optional = new ArrayList<>(byTerm.values());
+        optional.removeAll(required);
+        Cursor lead = required.get(0);
+        double threshold = 0;
+
+        while (lead.doc != Integer.MAX_VALUE) {
+            int doc = lead.doc;
+            int target = doc;
+            for (Cursor c : required) {
+                if (!c.advance(doc)) {
+                    return;
+                }
+                target = Math.max(target, c.doc);
+            }
+            if (target != doc) {
+                lead.advance(target);
+                continue;
+            }
+            // limita superioara din blocurile curente ale tuturor termenilor; este valabila pana la
+            // sfarsitul celui mai scurt dintre ele, deci pana acolo se poate sari
+            double optionalBound = 0;
+            int boundEnd = Integer.MAX_VALUE;
+            for (Cursor c : optional) {
+                int b = c.postings.blockFor(doc, Math.max(c.block, c.boundBlock));
+                if (b >= 0) {
+                    c.boundBlock = b;
+                    optionalBound += blockMaxScore(c, b, avgLength);
+                    boundEnd = Math.min(boundEnd, c.postings.blockLastDoc(b));
+                }
+            }
+            if (top.size() == limit) {
+                double bound = optionalBound;
+                for (Cursor c : required) {
+                    bound += blockMaxScore(c, c.block, avgLength);
+                    boundEnd = Math.min(boundEnd, c.postings.blockLastDoc(c.block));
+                }
+                if (bound <= threshold) {
+                    lead.advance(boundEnd + 1);
+                    continue;
+                }
+            }
+            TopicIndex.Entry entry = docs[doc];
+            if (entry != null && (topics == null || topics.contains(entry.topic))) {
+                double score = 0;
+                for (Cursor c : required) {
+                    score += termScore(c, lengths[doc], avgLength);
+                }
+                // pozitiile se verifica doar daca documentul ar putea intra in top
+                if ((top.size() < limit || score + optionalBound > threshold) && phrasesMatch(phraseCursors)) {
+                    for (Cursor c : optional) {
+                        if (c.advance(doc) && c.doc == doc) {
+                            score += termScore(c, lengths[doc], avgLength);
+                        }
+                    }
+                    if (offer(top, limit, entry.news, score)) {
+                        threshold = top.peek().score;
+                    }
+                }
+            }
+            lead.next();
+        }
+    }
+
+    // intoarce true daca top-ul este plin dupa adaugare (pragul s-a putut schimba)
+    private static boolean offer(PriorityQueue<Hit> top, int limit, News news, double score) {
+        if (top.size() < limit) {
+            top.add(new Hit(news, score));
+        } else if (score > top.peek().score) {
+            top.poll();
+            top.add(new Hit(news, score));
+        } else {
+            return false;
+        }
+        return top.size() == limit;
+    }
+
+    private Cursor cursorFor(String term, Map<String, Cursor> byTerm, double avgLength) {
+        Cursor c = byTerm.get(term);
+        if (c == null) {
+            Postings p = terms.get(term);
+            if (p == null) {
+                return null;
+            }
+            // df numara si documentele sterse inca necompactate, deci N este maxDoc (idf ramane pozitiv)
+            double idf = Math.log(1 + (maxDoc - p.df + 0.5) / (p.df + 0.5));
+            c = new Cursor(p, idf);
+            c.maxScore = bm25(idf, p.maxWtf, p.minLength, avgLength);
+            byTerm.put(term, c);
+        }
+        return c;
+    }
+
+    private double termScore(Cursor c, int docLength, double avgLength) {
+        return bm25(c.idf, weightedTf(c.tf, c.titleTf), docLength, avgLength);
+    }
+
+    private static double blockMaxScore(Cursor c, int block, double avgLength) {
+        return bm25(c.idf, c.postings.blockMaxWtf(block), c.postings.blockMinLength(block), avgLength);
+    }
+
+    // creste cu tf si scade cu lungimea, deci (tf maxim, lungime minima) da o limita superioara
+    private static double bm25(double idf, double tf, int docLength, double avgLength) {
+        return idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * docLength / avgLength));
+    }
+
+    // aparitiile din titlu cantaresc titleBoost
+    private float weightedTf(int tf, int titleTf) {
+        return (float) (titleTf * titleBoost + (tf - titleTf));
+    }
+
+    // fiecare fraza apare pe pozitii consecutive (toti cursorii ei sunt deja pe acelasi document)
+    private static boolean phrasesMatch(List<Cursor[]> phraseCursors) {
+        for (Cursor[] cursors : phraseCursors) {
+            if (cursors.length < 2) {
+                continue;
+            }
+            Cursor first = cursors[0];
+            int[] starts = first.positions();
+            boolean found = false;
+            for (int s = 0; s < first.tf && !found; s++) {
+                found = true;
+                for (int i = 1; i < cursors.length && found; i++) {
+                    Cursor c = cursors[i];
+                    found = Arrays.binarySearch(c.positions(), 0, c.tf, starts[s] + i) >= 0;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // rescrie listele fara documentele sterse si renumeroteaza documentele vii
+    private void compact() {
+        int[] remap = new int[maxDoc];
+        int w = 0;
+        for (int doc = 0; doc < maxDoc; doc++) {
+            TopicIndex.Entry e = docs[doc];
+            if (e == null) {
+                remap[doc] = -1;
+                continue;
+            }
+            remap[doc] = w;
+            e.docId = w;
+            docs[w] = e;
+            lengths[w] = lengths[doc];
+            w++;
+        }
+        Arrays.fill(docs, w, maxDoc, null);
+        maxDoc = w;
+
+        int[] positions = new int[8];
+        Iterator<Map.Entry<String, Postings>> it = terms.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Postings> term = it.next();
+            Postings fresh = new Postings();
+            Cursor c = new Cursor(term.getValue(), 0);
+            while (c.next()) {
+                int doc = remap[c.doc];
+                if (doc < 0) {
+                    continue;
+                }
+                if (positions.length < c.tf + 1) {
+                    positions = new int[c.tf + 1];
+                }
+                positions[0] = c.tf;
+                System.arraycopy(c.positions(), 0, positions, 1, c.tf);
+                fresh.append(doc, positions, c.titleTf, weightedTf(c.tf, c.titleTf), lengths[doc]);
+            }
+            if (fresh.df == 0) {
+                it.remove();
+            } else {
+                fresh.data = Arrays.copyOf(fresh.data, fresh.length);
+                term.setValue(fresh);
+            }
+        }
+    }
+
+    // cererea: cuvinte libere si fraze intre ghilimele; o fraza de un singur cuvant este
+    // doar un termen obligatoriu
+    static void parseQuery(String query, List<String> words, List<List<String>> phrases) {
+        if (query == null) {
+            return;
+        }
+        boolean inPhrase = false;
+        int start = 0;
+        for (int i = 0; i <= query.length(); i++) {
+            if (i == query.length() || query.charAt(i) == '"') {
+                List<String> tokens = new ArrayList<>();
+                tokenize(query.substring(start, i), 0, new HashMap<>(), tokens);
+                if (inPhrase && !tokens.isEmpty()) {
+                    phrases.add(tokens);
+                } else {
+                    words.addAll(tokens);
+                }
+                inPhrase = !inPhrase;
+                start = i + 1;
+            }
+        }
+    }
+
+    // imparte textul in termeni (litere si cifre, litere mici, fara diacritice); pozitiile fiecarui
+    // termen se aduna in out ca [numar, p1, p2, ...]. intoarce numarul de termeni
+    private static int tokenize(String text, int offset, Map<String, int[]> out, List<String> ordered) {
+        if (text == null) {
+            return 0;
+        }
+        StringBuilder token = new StringBuilder(16);
+        int position = offset;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (token.length() < MAX_TOKEN) {
+                    token.append(fold(Character.toLowerCase(c)));
+                }
+            } else if (token.length() > 0) {
+                String term = token.toString();
+                token.setLength(0);
+                if (ordered != null) {
+                    ordered.add(term);
+                }
+                int[] positions = out.get(term);
+                if (positions == null) {
+                    positions = new int[4];
+                    out.put(term, positions);
+                } else if (positions[0] + 1 == positions.length) {
+                    positions = Arrays.copyOf(positions, positions.length * 2);
+                    out.put(term, positions);
+                }
+                positions[++positions[0]] = position++;
+            }
+        }
+        return position - offset;
+    }
+
+    static char fold(char c) {
+        switch (c) {
+            case 'ă': case 'â': case 'á': case 'à': case 'ä':
+                return 'a';
+            case 'î': case 'í': case 'ï':
+                return 'i';
+            case 'ș': case 'ş':
+                return 's';
+            case 'ț': case 'ţ':
+                return 't';
+            case 'é': case 'è': case 'ê': case 'ë':
+                return 'e';
+            case 'ó': case 'ö': case 'ô':
+                return 'o';
+            case 'ú': case 'ü':
+                return 'u';
+            case 'ç':
+                return 'c';
+            case 'ñ':
+                return 'n';
+            default:
+                return c;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.Client;
+
+import java.util.*;
+
+// inelul de hash consistent pentru modul partitionat.
+// fiecare nod are vnodes pozitii (token-uri) pe inelul de 64 de biti; o stire apartine
+// primelor noduri distincte intalnite in sensul acelor de ceas de la hash-ul id-ului ei.
+// la intrarea sau iesirea unui nod se muta doar ~1/N din chei. imutabil
+final class HashRing {
+
+    private final TreeMap<Long, String> tokens = new TreeMap<>();
+    private final Set<String> nodes;
+
+    HashRing(Collection<String> nodes, int vnodes) {
+        this.nodes = Collections.unmodifiableSet(new HashSet<>(nodes));
+        for (String node : this.nodes) {
+            for (int i = 0; i < vnodes; i++) {
+                // la coliziune castiga nodul cu id-ul mai mic, deterministic pe toate nodurile
+                tokens.merge(BucketDigest.hash(node + "#" + i), node,
+                        (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+    }
+
+    Set<String> nodes() {
+        return nodes;
+    }
+
+    // primele count noduri distincte care detin cheia, in ordinea inelului
+    List<String> owners(String key, int count) {
+        int wanted = Math.min(count, nodes.size());
+        List<String> owners = new ArrayList<>(wanted);
+        if (wanted == 0) {
+            return owners;
+        }
+        long h = BucketDigest.hash(key);
+        for (String node : tokens.tailMap(h, true).values()) {
+            if (!owners.contains(node) && owners.add(node) && owners.size() == wanted) {
+                return owners;
+            }
+        }
+        for (String node : tokens.values()) {
+            if (!owners.contains(node) && owners.add(node) && owners.size() == wanted) {
+                return owners;
+            }
+        }
+        return owners;
+    }
+}
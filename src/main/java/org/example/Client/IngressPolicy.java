@@ -0,0 +1,14 @@
+package org.example.Client;
+
+// ce se intampla cand coada unui shard de mesaje primite este plina
+public enum IngressPolicy {
+    // thread-ul Paho asteapta loc in coada, cel mult ingress.maxBlockMs, apoi mesajul nou se pierde.
+    // cat timp asteapta, Paho nu livreaza nimic altceva (nici heartbeat-uri, nici control), deci
+    // asteptarea trebuie sa ramana sub heartbeat.acceptablePauseMs
+    BLOCK,
+    // se pierde cel mai vechi mesaj din coada
+    DROP_OLDEST,
+    // se pierde cel mai vechi mesaj cu prioritatea cea mai mica (ingress.priority.<topic>);
+    // daca mesajul nou are prioritate mai mica decat tot ce e in coada, se pierde el
+    DROP_BY_PRIORITY
+}
@@ -0,0 +1,186 @@
+package org.example.Client;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// coada unui shard: o banda de control nelimitata (niciodata pierduta sau blocata) si o coada
+// de date limitata la capacity, cu politica de supraincarcare aleasa.
+// datele ies in ordinea sosirii indiferent de prioritate; prioritatea conteaza doar la pierdere.
+// pentru DROP_BY_PRIORITY, fiecare prioritate are propria coada de referinte in ordinea sosirii,
+// iar nodurile pierdute sunt doar marcate si sarite de consumator.
+// momentul intrarii sta in nodul cozii, deci masurarea asteptarii nu aloca nimic in plus
+final class IngressQueue {
+
+    private static final class Node {
+        final Runnable task;
+        final int priority;
+        final long enqueuedNanos = System.nanoTime();
+        boolean removed;
+
+        Node(Runnable task, int priority) {
+            this.task = task;
+            this.priority = priority;
+        }
+    }
+
+    private final int capacity;
+    private final IngressPolicy policy;
+    // cat asteapta cel mult un offer sub BLOCK
+    private final long maxBlockNanos;
+    private final AtomicLong dropped;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final ArrayDeque<Node> control = new ArrayDeque<>();
+    private final ArrayDeque<Node> data = new ArrayDeque<>();
+    private final TreeMap<Integer, ArrayDeque<Node>> byPriority = new TreeMap<>();
+    private int size; // noduri de date vii
+    // timpul petrecut in coada de fiecare sarcina; null daca nu este masurat
+    private volatile Metrics.Histogram queueWait;
+
+    IngressQueue(int capacity, IngressPolicy policy, long maxBlockMs, AtomicLong dropped) {
+        this.capacity = Math.max(1, capacity);
+        this.policy = policy;
+        this.maxBlockNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxBlockMs));
+        this.dropped = dropped;
+    }
+
+    void setQueueWait(Metrics.Histogram histogram) {
+        this.queueWait = histogram;
+    }
+
+    void offerControl(Runnable task) {
+        Node node = new Node(task, 0);
+        lock.lock();
+        try {
+            control.add(node);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // intoarce false daca mesajul nou a fost cel pierdut
+    boolean offer(Runnable task, int priority) throws InterruptedException {
+        lock.lock();
+        try {
+            long waitNanos = maxBlockNanos;
+            while (size >= capacity) {
+                if (policy == IngressPolicy.BLOCK) {
+                    if (waitNanos <= 0) {
+                        dropped.incrementAndGet();
+                        return false;
+                    }
+                    waitNanos = notFull.awaitNanos(waitNanos);
+                } else if (policy == IngressPolicy.DROP_OLDEST) {
+                    removeNode(pollLive());
+                    dropped.incrementAndGet();
+                } else {
+                    Map.Entry<Integer, ArrayDeque<Node>> lowest = lowestLive();
+                    if (lowest.getKey() > priority) {
+                        dropped.incrementAndGet();
+                        return false;
+                    }
+                    Node victim = lowest.getValue().pollFirst();
+                    victim.removed = true;
+                    size--;
+                    dropped.incrementAndGet();
+                    compactIfNeeded();
+                }
+            }
+            Node node = new Node(task, priority);
+            data.add(node);
+            if (policy == IngressPolicy.DROP_BY_PRIORITY) {
+                byPriority.computeIfAbsent(priority, p -> new ArrayDeque<>()).add(node);
+            }
+            size++;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // urmatoarea sarcina: intai banda de control, apoi datele in ordinea sosirii
+    Runnable take() throws InterruptedException {
+        Node node;
+        lock.lock();
+        try {
+            while (control.isEmpty() && size == 0) {
+                notEmpty.await();
+            }
+            node = control.poll();
+            if (node == null) {
+                node = pollLive();
+                removeNode(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+        Metrics.Histogram histogram = queueWait;
+        if (histogram != null) {
+            histogram.recordSince(node.enqueuedNanos);
+        }
+        return node.task;
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return size + control.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // cel mai vechi nod viu din coada de date (scoate si nodurile marcate de dinaintea lui)
+    private Node pollLive() {
+        Node node;
+        do {
+            node = data.poll();
+        } while (node.removed);
+        return node;
+    }
+
+    // scoate nodul (deja luat din coada de date) din evidenta
+    private void removeNode(Node node) {
+        node.removed = true;
+        size--;
+        if (policy == IngressPolicy.DROP_BY_PRIORITY) {
+            // nodul cel mai vechi in general este si cel mai vechi din prioritatea lui
+            ArrayDeque<Node> queue = byPriority.get(node.priority);
+            while (queue != null && !queue.isEmpty() && queue.peekFirst().removed) {
+                queue.pollFirst();
+            }
+        }
+        notFull.signal();
+    }
+
+    private Map.Entry<Integer, ArrayDeque<Node>> lowestLive() {
+        while (true) {
+            Map.Entry<Integer, ArrayDeque<Node>> lowest = byPriority.firstEntry();
+            ArrayDeque<Node> queue = lowest.getValue();
+            while (!queue.isEmpty() && queue.peekFirst().removed) {
+                queue.pollFirst();
+            }
+            if (!queue.isEmpty()) {
+                return lowest;
+            }
+            byPriority.pollFirstEntry();
+        }
+    }
+
+    // nodurile pierdute raman marcate in coada de date; o curatam cand sunt prea multe
+    private void compactIfNeeded() {
+        if (data.size() <= 2 * capacity) {
+            return;
+        }
+        data.removeIf(n -> n.removed);
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.Client;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+// formatul json folosit de la inceput; payload-ul nu are prefix (incepe cu '{'),
+// deci nodurile vechi il pot citi in continuare
+public class JsonNewsCodec implements NewsCodec {
+
+    public static final byte FORMAT_ID = '{';
+
+    // Gson este thread-safe, o singura instanta pentru tot procesul
+    static final Gson GSON = new GsonBuilder().registerTypeAdapter(News.class, new NewsAdapter()).create();
+
+    public static final JsonNewsCodec INSTANCE = new JsonNewsCodec();
+
+    @Override
+    public byte formatId() {
+        return FORMAT_ID;
+    }
+
+    @Override
+    public byte[] encode(News news) {
+        return GSON.toJson(news).getBytes(StandardCharsets.UTF_8);
+    }
+
+    // parseaza direct din octetii UTF-8, fara un String intermediar
+    @Override
+    public News decode(byte[] payload) {
+        try {
+            return GSON.fromJson(new Utf8Reader(payload), News.class);
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("Payload json invalid", e);
+        }
+    }
+
+    // News pastreaza campurile in forma compacta (octeti, topic intern), deci formatul json
+    // {"id","title","content","topic"} este scris explicit, la fel ca inainte; campurile null lipsesc
+    static final class NewsAdapter extends TypeAdapter<News> {
+
+        @Override
+        public void write(JsonWriter out, News news) throws IOException {
+            if (news == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("id").value(news.getId());
+            out.name("title").value(news.getTitle());
+            out.name("content").value(news.getContent());
+            out.name("topic").value(news.getTopic());
+            out.endObject();
+        }
+
+        @Override
+        public News read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            String id = null;
+            String title = null;
+            String content = null;
+            String topic = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id":
+                        id = in.nextString();
+                        break;
+                    case "title":
+                        title = in.nextString();
+                        break;
+                    case "content":
+                        content = in.nextString();
+                        break;
+                    case "topic":
+                        topic = in.nextString();
+                        break;
+                    default:
+                        in.skipValue(); // campuri necunoscute de la versiuni mai noi
+                }
+            }
+            in.endObject();
+            return News.restore(id, title, content, topic);
+        }
+    }
+
+    // Reader care decodifica UTF-8 direct din tablou, fara buffer-ul de 8 KB al InputStreamReader
+    static final class Utf8Reader extends Reader {
+        private final byte[] in;
+        private int pos;
+        private int pendingLowSurrogate = -1;
+
+        Utf8Reader(byte[] in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            int n = 0;
+            if (pendingLowSurrogate >= 0) {
+                cbuf[off + n++] = (char) pendingLowSurrogate;
+                pendingLowSurrogate = -1;
+            }
+            while (n < len && pos < in.length) {
+                int b = in[pos] & 0xFF;
+                int cp;
+                if (b < 0x80) {
+                    cp = b;
+                    pos++;
+                } else if ((b & 0xE0) == 0xC0 && pos + 1 < in.length) {
+                    cp = ((b & 0x1F) << 6) | (in[pos + 1] & 0x3F);
+                    pos += 2;
+                } else if ((b & 0xF0) == 0xE0 && pos + 2 < in.length) {
+                    cp = ((b & 0x0F) << 12) | ((in[pos + 1] & 0x3F) << 6) | (in[pos + 2] & 0x3F);
+                    pos += 3;
+                } else if ((b & 0xF8) == 0xF0 && pos + 3 < in.length) {
+                    cp = ((b & 0x07) << 18) | ((in[pos + 1] & 0x3F) << 12)
+                            | ((in[pos + 2] & 0x3F) << 6) | (in[pos + 3] & 0x3F);
+                    pos += 4;
+                } else {
+                    cp = 0xFFFD; // secventa invalida sau trunchiata
+                    pos++;
+                }
+                if (cp >= 0x10000) {
+                    cbuf[off + n++] = Character.highSurrogate(cp);
+                    if (n < len) {
+                        cbuf[off + n++] = Character.lowSurrogate(cp);
+                    } else {
+                        pendingLowSurrogate = Character.lowSurrogate(cp);
+                    }
+                } else {
+                    cbuf[off + n++] = (char) cp;
+                }
+            }
+            return n == 0 ? -1 : n;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.Client;
+
+// nivelurile de log suportate de AsyncLogger, in ordinea severitatii
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR;
+
+    public boolean isAtLeast(LogLevel other) {
+        return this.ordinal() >= other.ordinal();
+    }
+}
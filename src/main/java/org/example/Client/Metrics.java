@@ -0,0 +1,184 @@
+package org.example.Client;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+// registrul de metrici al unui nod: contoare, valori instantanee (gauge) si histograme de latenta.
+// fiecare Client are registrul lui, deci mai multe noduri in acelasi proces (generatorul de incarcare)
+// nu isi amesteca sau inlocuiesc metricile.
+// inregistrarea pe calea critica nu ia lacate si nu aloca: contoarele sunt LongAdder, iar histogramele
+// au bucket-uri log-liniare in stil HDR (32 de sub-bucket-uri pe fiecare putere a lui 2, eroare
+// relativa sub ~3%) peste un AtomicLongArray. valorile sunt citite doar la export (MetricsServer)
+final class Metrics {
+
+    private final Map<String, Metric> registry = new ConcurrentSkipListMap<>();
+
+    abstract static class Metric {
+        final String name;
+        final String help;
+
+        Metric(String name, String help) {
+            this.name = name;
+            this.help = help;
+        }
+    }
+
+    static final class Counter extends Metric {
+        private final LongAdder value = new LongAdder();
+
+        Counter(String name, String help) {
+            super(name, help);
+        }
+
+        void inc() {
+            value.increment();
+        }
+
+        void add(long n) {
+            value.add(n);
+        }
+
+        long get() {
+            return value.sum();
+        }
+    }
+
+    static final class Gauge extends Metric {
+        private final DoubleSupplier value;
+
+        Gauge(String name, String help, DoubleSupplier value) {
+            super(name, help);
+            this.value = value;
+        }
+
+        double get() {
+            return value.getAsDouble();
+        }
+    }
+
+    // latente in nanosecunde, exportate in secunde
+    static final class Histogram extends Metric {
+        private static final int SUB_BITS = 6;
+        private static final int SUB = 1 << SUB_BITS;
+        private static final int HALF = SUB >> 1;
+        // pana la 2^42 ns (~73 de minute); valorile mai mari intra in ultimul bucket
+        private static final int MAX_BIT = 42;
+        private static final int BUCKETS = SUB + (MAX_BIT - SUB_BITS + 1) * HALF;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        Histogram(String name, String help) {
+            super(name, help);
+        }
+
+        void record(long nanos) {
+            long v = Math.max(0, nanos);
+            counts.incrementAndGet(index(v));
+            count.increment();
+            sum.add(v);
+            max.accumulate(v);
+        }
+
+        // timpul scurs de la start (System.nanoTime())
+        void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        Snapshot snapshot() {
+            long[] copy = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                copy[i] = counts.get(i);
+                total += copy[i];
+            }
+            return new Snapshot(copy, total, sum.sum(), max.get());
+        }
+
+        // primele SUB valori au bucket propriu; peste ele, primii 6 biti semnificativi aleg bucket-ul
+        static int index(long v) {
+            if (v < SUB) {
+                return (int) v;
+            }
+            int msb = 63 - Long.numberOfLeadingZeros(v);
+            int shift = msb - (SUB_BITS - 1);
+            int index = SUB + (shift - 1) * HALF + (int) ((v >>> shift) - HALF);
+            return Math.min(index, BUCKETS - 1);
+        }
+
+        // cea mai mica valoare din bucket
+        static long lowest(int index) {
+            if (index < SUB) {
+                return index;
+            }
+            int k = index - SUB;
+            int shift = k / HALF + 1;
+            return (long) (k % HALF + HALF) << shift;
+        }
+
+        static long width(int index) {
+            return index < SUB ? 1 : 1L << ((index - SUB) / HALF + 1);
+        }
+    }
+
+    // o copie consistenta a unei histograme; count poate diferi usor de suma bucket-urilor citite
+    static final class Snapshot {
+        private final long[] counts;
+        final long count;
+        final long sumNanos;
+        final long maxNanos;
+
+        Snapshot(long[] counts, long count, long sumNanos, long maxNanos) {
+            this.counts = counts;
+            this.count = count;
+            this.sumNanos = sumNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        // valoarea cuantilei q (0..1), la mijlocul bucket-ului ei
+        long quantileNanos(double q) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(q * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(maxNanos, Histogram.lowest(i) + Histogram.width(i) / 2);
+                }
+            }
+            return maxNanos;
+        }
+
+        double meanNanos() {
+            return count == 0 ? 0 : (double) sumNanos / count;
+        }
+    }
+
+    Counter counter(String name, String help) {
+        return (Counter) registry.computeIfAbsent(name, n -> new Counter(n, help));
+    }
+
+    Histogram histogram(String name, String help) {
+        return (Histogram) registry.computeIfAbsent(name, n -> new Histogram(n, help));
+    }
+
+    // o valoare citita la export; o inregistrare noua cu acelasi nume o inlocuieste
+    void gauge(String name, String help, DoubleSupplier value) {
+        registry.put(name, new Gauge(name, help, value));
+    }
+
+    // toate metricile, ordonate dupa nume
+    Collection<Metric> all() {
+        return new ArrayList<>(registry.values());
+    }
+}
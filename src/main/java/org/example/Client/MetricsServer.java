@@ -0,0 +1,216 @@
+package org.example.Client;
+
+import com.sun.net.httpserver.HttpServer;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// exporta metricile unui nod (registrul lui Metrics) prin JMX, ca MBean-ul
+// org.example.Client:type=Metrics,node=<id>, si pe http://127.0.0.1:<port>/metrics in formatul text
+// Prometheus. portul este metrics.httpPort plus indexul nodului (N1 -> 9401), ca mai multe noduri sa
+// poata rula pe aceeasi masina sau in acelasi proces; fiecare nod are serverul lui.
+// valorile sunt calculate doar la citire, deci exportul nu costa nimic pe calea critica
+final class MetricsServer {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Metrics metrics;
+    private final ObjectName mbeanName;
+    private HttpServer http;
+
+    private MetricsServer(Metrics metrics, ObjectName mbeanName) {
+        this.metrics = metrics;
+        this.mbeanName = mbeanName;
+    }
+
+    // un MBean ramas de la un nod anterior cu acelasi id (repornit in acelasi proces) este inlocuit
+    static MetricsServer start(Client client, String nodeId, Metrics metrics) {
+        ObjectName name = null;
+        if (AppConfig.getBoolean("metrics.jmx", true)) {
+            try {
+                name = new ObjectName("org.example.Client:type=Metrics,node=" + nodeId);
+            } catch (Exception e) {
+                client.writeToLogFile(LogLevel.WARN, "[Metrici] Numele MBean-ului este invalid: " + e.getMessage());
+            }
+        }
+        MetricsServer server = new MetricsServer(metrics, name);
+        if (name != null) {
+            try {
+                synchronized (MetricsServer.class) {
+                    if (ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                        ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+                    }
+                    ManagementFactory.getPlatformMBeanServer().registerMBean(server.new MetricsMBean(), name);
+                }
+            } catch (Exception e) {
+                client.writeToLogFile(LogLevel.WARN, "[Metrici] MBean-ul nu a putut fi inregistrat: " + e.getMessage());
+            }
+        }
+        int basePort = AppConfig.getInt("metrics.httpPort", 9400);
+        if (basePort > 0) {
+            server.startHttp(client, nodeId, basePort + Math.max(0, Math.min(client.getNodeIndex(nodeId), 1000)));
+        }
+        return server;
+    }
+
+    private void startHttp(Client client, String nodeId, int port) {
+        try {
+            http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            http.createContext("/metrics", exchange -> {
+                byte[] body = render().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            http.setExecutor(ClientExecutors.blocking());
+            http.start();
+            System.out.println("[" + nodeId + "] Metrici disponibile pe http://127.0.0.1:" + port + "/metrics");
+        } catch (IOException e) {
+            http = null;
+            client.writeToLogFile(LogLevel.WARN, "[Metrici] Serverul HTTP nu a putut porni pe portul " + port + ": " + e.getMessage());
+        }
+    }
+
+    // opreste serverul HTTP si scoate MBean-ul, ca portul si numele sa poata fi refolosite
+    void stop() {
+        if (http != null) {
+            http.stop(0);
+            http = null;
+        }
+        if (mbeanName != null) {
+            try {
+                synchronized (MetricsServer.class) {
+                    if (ManagementFactory.getPlatformMBeanServer().isRegistered(mbeanName)) {
+                        ManagementFactory.getPlatformMBeanServer().unregisterMBean(mbeanName);
+                    }
+                }
+            } catch (Exception ignored) {
+                // MBean-ul a fost deja inlocuit sau scos
+            }
+        }
+    }
+
+    // formatul text Prometheus; histogramele sunt exportate ca summary (cuantile, _sum, _count) plus _max
+    String render() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Metrics.Metric metric : metrics.all()) {
+            out.append("# HELP ").append(metric.name).append(' ').append(metric.help).append('\n');
+            if (metric instanceof Metrics.Counter) {
+                out.append("# TYPE ").append(metric.name).append(" counter\n");
+                out.append(metric.name).append(' ').append(((Metrics.Counter) metric).get()).append('\n');
+            } else if (metric instanceof Metrics.Gauge) {
+                out.append("# TYPE ").append(metric.name).append(" gauge\n");
+                out.append(metric.name).append(' ').append(format(((Metrics.Gauge) metric).get())).append('\n');
+            } else if (metric instanceof Metrics.Histogram) {
+                Metrics.Snapshot s = ((Metrics.Histogram) metric).snapshot();
+                out.append("# TYPE ").append(metric.name).append(" summary\n");
+                for (double q : QUANTILES) {
+                    out.append(metric.name).append("{quantile=\"").append(q).append("\"} ")
+                            .append(format(s.quantileNanos(q) / 1e9)).append('\n');
+                }
+                out.append(metric.name).append("_sum ").append(format(s.sumNanos / 1e9)).append('\n');
+                out.append(metric.name).append("_count ").append(s.count).append('\n');
+                out.append(metric.name).append("_max ").append(format(s.maxNanos / 1e9)).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    private static String format(double v) {
+        if (v == Math.rint(v) && Math.abs(v) < 1e15) {
+            return Long.toString((long) v);
+        }
+        return String.format(Locale.ROOT, "%.9g", v);
+    }
+
+    // atributele JMX: contoarele si gauge-urile cu numele lor, iar pentru fiecare histograma
+    // <nume>_count, <nume>_mean_ms, <nume>_p50_ms, <nume>_p99_ms si <nume>_max_ms
+    private final class MetricsMBean implements DynamicMBean {
+
+        private Map<String, Object> values() {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (Metrics.Metric metric : metrics.all()) {
+                if (metric instanceof Metrics.Counter) {
+                    values.put(metric.name, ((Metrics.Counter) metric).get());
+                } else if (metric instanceof Metrics.Gauge) {
+                    values.put(metric.name, ((Metrics.Gauge) metric).get());
+                } else if (metric instanceof Metrics.Histogram) {
+                    Metrics.Snapshot s = ((Metrics.Histogram) metric).snapshot();
+                    values.put(metric.name + "_count", s.count);
+                    values.put(metric.name + "_mean_ms", s.meanNanos() / 1e6);
+                    values.put(metric.name + "_p50_ms", s.quantileNanos(0.5) / 1e6);
+                    values.put(metric.name + "_p99_ms", s.quantileNanos(0.99) / 1e6);
+                    values.put(metric.name + "_max_ms", s.maxNanos / 1e6);
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Object value = values().get(attribute);
+            if (value == null) {
+                throw new AttributeNotFoundException(attribute);
+            }
+            return value;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) {
+            throw new UnsupportedOperationException("Metricile sunt doar pentru citire");
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            Map<String, Object> values = values();
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                if (values.containsKey(attribute)) {
+                    list.add(new Attribute(attribute, values.get(attribute)));
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) {
+            throw new UnsupportedOperationException(actionName);
+        }
+
+        // construit la fiecare cerere, ca metricile inregistrate mai tarziu sa apara si ele
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            for (Map.Entry<String, Object> e : values().entrySet()) {
+                attributes.add(new MBeanAttributeInfo(e.getKey(), e.getValue().getClass().getName(),
+                        e.getKey(), true, false, false));
+            }
+            return new MBeanInfo(MetricsServer.class.getName(), "Metricile nodului",
+                    attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[0], null);
+        }
+    }
+}
@@ -1,48 +1,179 @@
 package org.example.Client;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
+// forma compacta in memorie: topicul este un id intern (TopicInterner), titlul si continutul sunt
+// pastrate ca octeti UTF-8, iar peste news.compressThreshold octeti sunt comprimate cu deflate.
+// getTitle()/getContent() decodifica la fiecare apel, fara cache, ca memoria sa ramana mica.
+// dupa ce stirea intra in NewsList, continutul poate fi mutat intr-un BodyStore (in afara heap-ului);
+// in heap raman doar id-ul, titlul, topicul si referinta
 public class News implements Comparable<News> {
+
+    // 0 dezactiveaza compresia
+    private static final int COMPRESS_THRESHOLD = AppConfig.getInt("news.compressThreshold", 512);
+
+    private static final byte TITLE_COMPRESSED = 1;
+    private static final byte CONTENT_COMPRESSED = 2;
+
+    // Deflater/Inflater tin memorie nativa; refolosite per fir in loc de unul nou la fiecare stire
+    private static final ThreadLocal<Deflater> DEFLATER =
+            ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
     private String id;
-    private String title;
-    private String content;
-    private String topic;
+    private byte[] title;
+    // null dupa mutarea in bodyStore; volatile ca un cititor care vede null sa vada si referinta
+    private volatile byte[] content;
+    private volatile BodyStore bodyStore;
+    private volatile long bodyRef;
+    private int topic = TopicInterner.NONE;
+    // doar pentru topicurile care nu mai incap in TopicInterner
+    private String topicName;
+    private byte flags;
 
     // Constructor
     public News(String authorID, String title, String content, String topic) {
         this.id = authorID + ":" + UUID.randomUUID().toString();
-        this.title = title;
-        this.content = content;
-        this.topic = topic;
+        setTitle(title);
+        setContent(content);
+        setTopic(topic);
     }
 
     // constructor gol necesar pentru deserializare din json
     public News() {}
 
+    // reconstruieste o stire cu un id existent (folosit de codec-uri)
+    static News restore(String id, String title, String content, String topic) {
+        News n = new News();
+        n.id = id;
+        n.setTitle(title);
+        n.setContent(content);
+        n.setTopic(topic);
+        return n;
+    }
+
+    // ca restore, dar direct din octetii UTF-8 (fara String intermediar); tablourile sunt preluate
+    static News restoreUtf8(String id, byte[] title, byte[] content, String topic) {
+        News n = new News();
+        n.id = id;
+        n.title = n.pack(title, TITLE_COMPRESSED);
+        n.content = n.pack(content, CONTENT_COMPRESSED);
+        n.setTopic(topic);
+        return n;
+    }
+
     public String getId() { return id; }
 
-    public String getTitle() { return title; }
-    public void setTitle(String t) { this.title = t; }
+    public String getTitle() { return decode(title, (flags & TITLE_COMPRESSED) != 0); }
+    public void setTitle(String t) {
+        flags &= ~TITLE_COMPRESSED;
+        this.title = pack(utf8(t), TITLE_COMPRESSED);
+    }
 
-    public String getContent() { return content; }
-    public void setContent(String c) { this.content = c; }
+    // un continut necomprimat din afara heap-ului este decodificat direct din mapare
+    public String getContent() {
+        if ((flags & CONTENT_COMPRESSED) == 0) {
+            for (;;) {
+                byte[] c = content;
+                BodyStore store = bodyStore;
+                if (c != null || store == null) {
+                    break;
+                }
+                long ref = bodyRef;
+                try {
+                    String s = StandardCharsets.UTF_8.decode(store.slice(ref)).toString();
+                    if (bodyStore == store && bodyRef == ref) {
+                        return s;
+                    }
+                } catch (RuntimeException e) {
+                    if (bodyStore == store && bodyRef == ref) {
+                        throw e;
+                    }
+                }
+            }
+        }
+        return decode(storedContent(), (flags & CONTENT_COMPRESSED) != 0);
+    }
+    public synchronized void setContent(String c) {
+        releaseRef();
+        flags &= ~CONTENT_COMPRESSED;
+        this.content = pack(utf8(c), CONTENT_COMPRESSED);
+    }
 
-    public String getTopic() { return topic; }
-    public void setTopic(String t) { this.topic = t; }
+    public String getTopic() { return topicName != null ? topicName : TopicInterner.name(topic); }
+    public void setTopic(String t) {
+        this.topic = TopicInterner.intern(t);
+        this.topicName = topic == TopicInterner.NONE ? t : null;
+    }
+
+    // octetii UTF-8 necomprimati; pot fi chiar tablourile interne, deci nu se modifica
+    byte[] titleUtf8() { return inflate(title, (flags & TITLE_COMPRESSED) != 0); }
+    byte[] contentUtf8() {
+        return inflate(storedContent(), (flags & CONTENT_COMPRESSED) != 0);
+    }
+
+    // muta continutul (in forma pastrata, eventual comprimata) in regiunea off-heap;
+    // continutul mai scurt de minBytes ramane in heap, unde referinta ar costa mai mult
+    synchronized void moveContentTo(BodyStore store, int minBytes) throws IOException {
+        byte[] c = content;
+        if (c == null || c.length < minBytes) {
+            return;
+        }
+        bodyRef = store.append(c);
+        bodyStore = store;
+        content = null;
+    }
+
+    // aduce continutul inapoi in heap si elibereaza locul din regiune (stirea a iesit din lista)
+    synchronized void releaseContent() {
+        if (content == null && bodyStore != null) {
+            content = bodyStore.read(bodyRef);
+            releaseRef();
+        }
+    }
+
+    // compactare: rescrie continutul aflat intr-unul din fisierele marcate, la pozitia curenta
+    // de scriere, ca fisierul vechi sa se poata goli
+    synchronized boolean relocateContent(BodyStore store, boolean[] chunks) throws IOException {
+        long ref = bodyRef;
+        int chunk = BodyStore.chunkOf(ref);
+        if (bodyStore != store || content != null || chunk >= chunks.length || !chunks[chunk]) {
+            return false;
+        }
+        bodyRef = store.append(store.read(ref));
+        store.free(ref);
+        return true;
+    }
+
+    // referinta este scoasa inaintea eliberarii, ca un cititor concurent sa observe schimbarea
+    private void releaseRef() {
+        BodyStore store = bodyStore;
+        if (store != null) {
+            bodyStore = null;
+            store.free(bodyRef);
+        }
+    }
+
+    // memoria din heap ocupata de titlu si continut, in octeti
+    int storedBytes() {
+        byte[] c = content;
+        return (title == null ? 0 : title.length) + (c == null ? 0 : c.length);
+    }
 
     // transforma obiectul news in format json
     public String toJson() {
-        Gson gson = new GsonBuilder().create();
-        return gson.toJson(this);
+        return JsonNewsCodec.GSON.toJson(this);
     }
 
     // creeaza un obiect news dintr-un string json
     public static News fromJson(String json) {
-        Gson gson = new GsonBuilder().create();
-        return gson.fromJson(json, News.class);
+        return JsonNewsCodec.GSON.fromJson(json, News.class);
     }
 
     // compara doua obiecte news in functie de id-ul string
@@ -50,4 +181,92 @@ public class News implements Comparable<News> {
     public int compareTo(News other) {
         return this.id.compareTo(other.id);
     }
+
+    private static byte[] utf8(String s) {
+        return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // content este citit inaintea lui store: daca a fost deja mutat, referinta este vizibila.
+    // daca intre timp corpul a fost mutat (compactare) sau adus inapoi in heap, citirea se repeta,
+    // ca sa nu intoarca octetii unui loc deja eliberat
+    private byte[] storedContent() {
+        for (;;) {
+            byte[] c = content;
+            BodyStore store = bodyStore;
+            if (c != null) {
+                return c;
+            }
+            if (store == null) {
+                // releaseContent scrie content inainte sa scoata store
+                return content;
+            }
+            long ref = bodyRef;
+            try {
+                byte[] out = store.read(ref);
+                if (bodyStore == store && bodyRef == ref) {
+                    return out;
+                }
+            } catch (RuntimeException e) {
+                if (bodyStore == store && bodyRef == ref) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static String decode(byte[] stored, boolean compressed) {
+        byte[] raw = inflate(stored, compressed);
+        return raw == null ? null : new String(raw, StandardCharsets.UTF_8);
+    }
+
+    // comprima textul daca depaseste pragul si castiga spatiu; altfel il pastreaza asa cum este
+    private byte[] pack(byte[] raw, byte flag) {
+        if (raw == null || COMPRESS_THRESHOLD <= 0 || raw.length < COMPRESS_THRESHOLD) {
+            return raw;
+        }
+        // [varint lungime originala][flux zlib]
+        Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        int prefix = BinaryNewsCodec.varintSize(raw.length);
+        byte[] out = new byte[prefix + raw.length];
+        int pos = BinaryNewsCodec.writeVarint(out, 0, raw.length);
+        while (!deflater.finished() && pos < out.length) {
+            pos += deflater.deflate(out, pos, out.length - pos);
+        }
+        if (!deflater.finished()) {
+            return raw; // textul nu se comprima
+        }
+        flags |= flag;
+        return Arrays.copyOf(out, pos);
+    }
+
+    private static byte[] inflate(byte[] stored, boolean compressed) {
+        if (stored == null || !compressed) {
+            return stored;
+        }
+        int[] pos = {0};
+        int length = BinaryNewsCodec.readVarint(stored, pos);
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(stored, pos[0], stored.length - pos[0]);
+        byte[] out = new byte[length];
+        try {
+            int n = 0;
+            while (n < length && !inflater.finished()) {
+                int read = inflater.inflate(out, n, length - n);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += read;
+            }
+            if (n != length) {
+                throw new IllegalStateException("Continut comprimat trunchiat");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Continut comprimat invalid", e);
+        }
+        return out;
+    }
 }
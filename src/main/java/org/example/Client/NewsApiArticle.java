@@ -6,4 +6,7 @@ public class NewsApiArticle {
     public String title;
     public String description;
     public String content;
+    public String url;
+    // ISO 8601, ex: 2025-01-08T10:33:42Z; folosit pentru preluarea incrementala
+    public String publishedAt;
 }
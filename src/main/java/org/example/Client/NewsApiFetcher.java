@@ -0,0 +1,291 @@
+package org.example.Client;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+// preia stirile de la NewsAPI pentru toate topicurile in paralel, pe un singur HttpClient
+// (conexiuni refolosite, HTTP/2 cand serverul il accepta) si sub un limitator global de cereri.
+// pentru fiecare topic se retine cel mai nou publishedAt vazut; runda urmatoare cere doar
+// articolele de dupa el (parametrul from), iar pozitiile sunt pastrate in persist.dir/newsapi.state,
+// deci o repornire nu aduce din nou aceleasi articole.
+// raspunsurile vin de la cel mai nou la cel mai vechi, cate pageSize; paginile se cer pe rand pana
+// se ajunge la articolele deja preluate sau la sfarsitul rezultatelor, ca articolele mai vechi din
+// runda sa nu se piarda. prima runda (fara pozitie) aduce doar prima pagina.
+// raspunsul este parsat in flux (JsonReader peste InputStream), articol cu articol.
+// newsapi.baseUrl poate indica un server local pentru teste
+final class NewsApiFetcher {
+
+    private static final DateTimeFormatter FROM_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    // raspunsul unei cereri (sau al tuturor paginilor unui topic): articolele noi, de la cel mai nou
+    // la cel mai vechi, si cel mai nou publishedAt dintre ele
+    private static final class Page {
+        final List<NewsApiArticle> articles = new ArrayList<>();
+        Instant newest;
+        String error;
+        // articolele din raspuns, inclusiv cele sarite
+        int received;
+        // raspunsul a ajuns la articole deja preluate (publicate cel tarziu la since)
+        boolean reachedSince;
+        long totalResults = -1;
+    }
+
+    private final BiConsumer<LogLevel, String> log;
+    private final String apiKey;
+    private final String baseUrl;
+    private final int pageSize;
+    private final int maxPages;
+    private final Duration timeout;
+    private final RateLimiter limiter;
+    private final HttpClient http;
+    private final Path stateFile;
+    // topic -> cel mai nou publishedAt deja preluat
+    private final Map<String, Instant> lastSeen = new ConcurrentHashMap<>();
+    private final AtomicBoolean roundInProgress = new AtomicBoolean();
+
+    // log primeste avertismentele (Client::writeToLogFile)
+    NewsApiFetcher(String apiKey, Path stateFile, BiConsumer<LogLevel, String> log) {
+        this.log = log;
+        this.apiKey = apiKey;
+        this.baseUrl = AppConfig.getString("newsapi.baseUrl", "https://newsapi.org/v2/everything");
+        this.pageSize = AppConfig.getInt("newsapi.pageSize", 20);
+        this.maxPages = Math.max(1, AppConfig.getInt("newsapi.maxPages", 5));
+        this.timeout = Duration.ofMillis(AppConfig.getLong("newsapi.timeoutMs", 10000));
+        double rps = AppConfig.getDouble("newsapi.requestsPerSecond", 2.0);
+        this.limiter = new RateLimiter(rps, AppConfig.getDouble("newsapi.burst", rps));
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(AppConfig.getLong("newsapi.connectTimeoutMs", 5000)))
+                .executor(ClientExecutors.blocking())
+                .build();
+        this.stateFile = stateFile;
+        loadState();
+    }
+
+    // o runda: toate topicurile in paralel; sink primeste articolele noi ale fiecarui topic,
+    // de la cel mai vechi la cel mai nou. o runda inca in desfasurare nu este dublata
+    CompletableFuture<Void> fetchAll(List<String> topics, BiConsumer<String, NewsApiArticle> sink) {
+        if (!roundInProgress.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<CompletableFuture<Void>> rounds = new ArrayList<>(topics.size());
+        for (String topic : topics) {
+            rounds.add(fetchTopic(topic).thenAccept(page -> {
+                for (int i = page.articles.size() - 1; i >= 0; i--) {
+                    sink.accept(topic, page.articles.get(i));
+                }
+                if (page.newest != null) {
+                    lastSeen.merge(topic, page.newest, (a, b) -> a.isAfter(b) ? a : b);
+                }
+            }).exceptionally(err -> {
+                log.accept(LogLevel.WARN, "[NewsAPI] Topicul " + topic + " nu a putut fi preluat: "
+                        + rootMessage(err));
+                return null;
+            }));
+        }
+        return CompletableFuture.allOf(rounds.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((ok, err) -> {
+                    saveState();
+                    roundInProgress.set(false);
+                });
+    }
+
+    // paginile unui topic, pe rand, adunate intr-una singura; daca o pagina esueaza, topicul
+    // esueaza si pozitia lui ramane aceeasi, deci runda urmatoare reia de la ea
+    private CompletableFuture<Page> fetchTopic(String topic) {
+        Instant since = lastSeen.get(topic);
+        return fetchPages(topic, since, 1, new Page());
+    }
+
+    private CompletableFuture<Page> fetchPages(String topic, Instant since, int pageNumber, Page all) {
+        return fetchPage(topic, since, pageNumber).thenCompose(page -> {
+            all.articles.addAll(page.articles);
+            if (page.newest != null && (all.newest == null || page.newest.isAfter(all.newest))) {
+                all.newest = page.newest;
+            }
+            boolean more = since != null && !page.reachedSince && page.received == pageSize
+                    && (page.totalResults < 0 || (long) pageNumber * pageSize < page.totalResults);
+            if (!more) {
+                return CompletableFuture.completedFuture(all);
+            }
+            if (pageNumber == maxPages) {
+                log.accept(LogLevel.WARN, "[NewsAPI] Topicul " + topic + ": limita de " + maxPages
+                        + " pagini atinsa, articolele publicate intre " + since + " si cel mai vechi preluat lipsesc");
+                return CompletableFuture.completedFuture(all);
+            }
+            return fetchPages(topic, since, pageNumber + 1, all);
+        });
+    }
+
+    private CompletableFuture<Page> fetchPage(String topic, Instant since, int pageNumber) {
+        HttpRequest request = HttpRequest.newBuilder(uriFor(topic, since, pageNumber))
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        return limiter.acquire()
+                .thenCompose(ready -> http.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream()))
+                // parsarea citeste din retea, deci ruleaza pe executorul pentru sarcini blocante
+                .thenApplyAsync(response -> read(topic, since, response), ClientExecutors.blocking());
+    }
+
+    private URI uriFor(String topic, Instant since, int pageNumber) {
+        StringBuilder uri = new StringBuilder(baseUrl)
+                .append(baseUrl.indexOf('?') >= 0 ? '&' : '?')
+                .append("q=").append(URLEncoder.encode(topic, StandardCharsets.UTF_8))
+                .append("&sortBy=publishedAt")
+                .append("&pageSize=").append(pageSize)
+                .append("&page=").append(pageNumber)
+                .append("&apiKey=").append(URLEncoder.encode(apiKey, StandardCharsets.UTF_8));
+        if (since != null) {
+            // from este inclusiv si are rezolutie de o secunda; duplicatele sunt filtrate la parsare
+            String from = LocalDateTime.ofInstant(since.truncatedTo(ChronoUnit.SECONDS), ZoneOffset.UTC).format(FROM_FORMAT);
+            uri.append("&from=").append(URLEncoder.encode(from, StandardCharsets.UTF_8));
+        }
+        return URI.create(uri.toString());
+    }
+
+    private Page read(String topic, Instant since, HttpResponse<InputStream> response) {
+        int status = response.statusCode();
+        if (status == 429) {
+            // serverul cere o pauza: toate topicurile asteapta, nu doar acesta
+            long retryMs = response.headers().firstValueAsLong("Retry-After").orElse(60) * 1000;
+            limiter.pause(retryMs);
+        }
+        Page page;
+        try (Reader reader = new InputStreamReader(response.body(), StandardCharsets.UTF_8)) {
+            page = parse(reader, since);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Raspuns NewsAPI invalid pentru " + topic + " (HTTP " + status + "): "
+                    + e.getMessage(), e);
+        }
+        if (status != 200) {
+            throw new IllegalStateException("HTTP " + status + (page.error != null ? ": " + page.error : ""));
+        }
+        return page;
+    }
+
+    // {"status": ..., "totalResults": ..., "articles": [...]} sau {"status": "error", "message": ...};
+    // articolele care nu sunt mai noi decat since sunt sarite
+    private static Page parse(Reader in, Instant since) throws IOException {
+        Page page = new Page();
+        JsonReader reader = new JsonReader(in);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("articles".equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    NewsApiArticle article = JsonNewsCodec.GSON.fromJson(reader, NewsApiArticle.class);
+                    page.received++;
+                    Instant published = parseInstant(article != null ? article.publishedAt : null);
+                    if (since != null && published != null && !published.isAfter(since)) {
+                        page.reachedSince = true;
+                    }
+                    if (article == null || (since != null && (published == null || !published.isAfter(since)))) {
+                        continue;
+                    }
+                    page.articles.add(article);
+                    if (published != null && (page.newest == null || published.isAfter(page.newest))) {
+                        page.newest = published;
+                    }
+                }
+                reader.endArray();
+            } else if ("totalResults".equals(name) && reader.peek() == JsonToken.NUMBER) {
+                page.totalResults = reader.nextLong();
+            } else if ("message".equals(name) && reader.peek() == JsonToken.STRING) {
+                page.error = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return page;
+    }
+
+    private static Instant parseInstant(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String rootMessage(Throwable err) {
+        while (err.getCause() != null) {
+            err = err.getCause();
+        }
+        return err.getClass().getSimpleName() + ": " + err.getMessage();
+    }
+
+    private void loadState() {
+        if (stateFile == null || !Files.exists(stateFile)) {
+            return;
+        }
+        Properties state = new Properties();
+        try (InputStream in = Files.newInputStream(stateFile)) {
+            state.load(in);
+        } catch (IOException e) {
+            System.out.println("Starea NewsAPI nu a putut fi citita, se preiau din nou ultimele articole: " + e.getMessage());
+            return;
+        }
+        for (String topic : state.stringPropertyNames()) {
+            Instant instant = parseInstant(state.getProperty(topic));
+            if (instant != null) {
+                lastSeen.put(topic, instant);
+            }
+        }
+    }
+
+    // scrisa intr-un fisier temporar si mutata, ca o oprire in timpul scrierii sa nu o strice
+    private void saveState() {
+        if (stateFile == null || lastSeen.isEmpty()) {
+            return;
+        }
+        Properties state = new Properties();
+        lastSeen.forEach((topic, instant) -> state.setProperty(topic, instant.toString()));
+        try {
+            Files.createDirectories(stateFile.toAbsolutePath().getParent());
+            Path tmp = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                state.store(out, "ultimul publishedAt preluat pentru fiecare topic");
+            }
+            Files.move(tmp, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.accept(LogLevel.WARN, "[NewsAPI] Starea nu a putut fi salvata: " + e.getMessage());
+        }
+    }
+}
@@ -1,8 +0,0 @@
-package org.example.Client;
-
-import java.util.List;
-
-//folosit pentru a parsa JSON-ul intors de NewsAPI.
-public class NewsApiResponse {
-    public List<NewsApiArticle> articles;
-}
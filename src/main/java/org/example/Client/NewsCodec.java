@@ -0,0 +1,13 @@
+package org.example.Client;
+
+// transforma o stire in octeti pentru retea/persistenta si invers.
+// implementarile trebuie sa fie thread-safe, o instanta este partajata de toate thread-urile
+public interface NewsCodec {
+
+    // primul octet al payload-ului identifica formatul (vezi NewsCodecs.decode)
+    byte formatId();
+
+    byte[] encode(News news);
+
+    News decode(byte[] payload);
+}
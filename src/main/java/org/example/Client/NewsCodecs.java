@@ -0,0 +1,34 @@
+package org.example.Client;
+
+// alege codec-ul dupa primul octet al payload-ului, astfel incat un nod poate
+// citi atat json-ul nodurilor vechi cat si formatul binar al celor noi.
+// formatul trimis pe retea se configureaza cu wire.format=JSON|BINARY
+public final class NewsCodecs {
+
+    private static final NewsCodec WIRE =
+            AppConfig.getString("wire.format", "JSON").equalsIgnoreCase("BINARY")
+                    ? BinaryNewsCodec.INSTANCE
+                    : JsonNewsCodec.INSTANCE;
+
+    private NewsCodecs() {}
+
+    // codec-ul folosit la publicare si replicare
+    public static NewsCodec wire() {
+        return WIRE;
+    }
+
+    public static News decode(byte[] payload) {
+        if (payload == null || payload.length == 0) {
+            throw new IllegalArgumentException("Payload gol");
+        }
+        byte first = payload[0];
+        if (first == BinaryNewsCodec.FORMAT_ID) {
+            return BinaryNewsCodec.INSTANCE.decode(payload);
+        }
+        if (first == JsonNewsCodec.FORMAT_ID || Character.isWhitespace(first)) {
+            // json (eventual cu spatii la inceput)
+            return JsonNewsCodec.INSTANCE.decode(payload);
+        }
+        throw new IllegalArgumentException("Format de payload necunoscut: 0x" + Integer.toHexString(first & 0xFF));
+    }
+}
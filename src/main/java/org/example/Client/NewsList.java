@@ -1,58 +1,359 @@
 package org.example.Client;
 
 import java.io.*;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 // Clasa NewsList gestioneaza lista locala de stiri
-// Ofera deduplicare si persista stirile intr-un fisier
+// Ofera deduplicare si persista stirile intr-un fisier.
+// stirile sunt indexate dupa id (hash) si pe topic (index ordonat dupa insertie),
+// astfel incat cautarea, stergerea si accesul pozitional filtrat nu mai parcurg toata lista
 public class NewsList {
-    private final List<News> newsList;
-    private final ConcurrentHashMap<String, Boolean> existingIds;  // pentru deduplicare
+    // id -> intrare (stire + pozitia in indexul topicului), folosit si pentru deduplicare
+    private final ConcurrentHashMap<String, TopicIndex.Entry> byId;
+    // topic -> stirile topicului, in ordinea insertiei
+    private final Map<String, TopicIndex> byTopic;
+    // protejeaza indexurile pe topic; existsId citeste doar byId, fara lock
+    private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private long nextSeq = 0;
+    // indexul full-text peste titlu si continut; null daca search.enabled=false
+    private final FullTextIndex fullText = AppConfig.getBoolean("search.enabled", true)
+            ? new FullTextIndex(AppConfig.getDouble("search.titleBoost", 2.0)) : null;
+    // digest-urile pe galeti pentru anti-entropie (actualizate sub lock-ul de scriere)
+    private final BucketDigest digest = new BucketDigest();
+    // cate stiri are fiecare autor (prefixul id-ului); re-replicarea parcurge lista doar pentru autorii
+    // al caror grup de replici s-a schimbat
+    private final Map<String, int[]> authorCounts = new HashMap<>();
+    // id-urile sterse; o stire stearsa nu mai este acceptata din nou (ex: de la un vecin), oricat
+    // de tarziu ar reveni. pastrate exact, ca chei primitive (~40 octeti pe id), si niciodata uitate;
+    // durabile prin stirile "stergere" din jurnal si snapshot, reaplicate la pornire.
+    // accesate sub indexLock
+    private final DedupFilter.CompactIdSet deletedIds = new DedupFilter.CompactIdSet(16);
+    // fisierul vechi (o linie json per stire), citit doar la pornire pentru compatibilitate
     public static final String PERSIST_FILE = "./src/main/resources/persisted_news.txt";
+    public static final String SEGMENT_DIR = "./src/main/resources/news_segments";
+    // jurnalul pe segmente in care se scriu stirile noi
+    private final SegmentStore store;
+    // continutul stirilor, mapat in afara heap-ului; null daca este dezactivat
+    private final BodyStore bodies;
+    private final int offHeapMinBytes = AppConfig.getInt("bodies.minBytes", 64);
+    private final double compactBelow = AppConfig.getDouble("bodies.compactBelow", 0.5);
+    // snapshot-urile se fac doar dupa ce coada jurnalului a fost incarcata complet
+    private volatile boolean loaded = false;
+    private final AtomicLong changesSinceSnapshot = new AtomicLong();
+    private ScheduledFuture<?> snapshotTask;
 
-    // Constructor
+    // Constructor; metricile jurnalului intr-un registru propriu (benchmark-uri, teste)
     public NewsList() {
-        this.newsList = new ArrayList<>();
-        this.existingIds = new ConcurrentHashMap<>();
+        this(new Metrics());
+    }
+
+    // metricile jurnalului sunt inregistrate in registrul nodului
+    NewsList(Metrics metrics) {
+        this.byId = new ConcurrentHashMap<>();
+        this.byTopic = new HashMap<>();
+        String persistDir = AppConfig.getString("persist.dir", SEGMENT_DIR);
+        this.store = new SegmentStore(
+                persistDir,
+                AppConfig.getLong("persist.segmentBytes", 64L * 1024 * 1024),
+                AppConfig.getEnum("persist.fsync", FsyncPolicy.class, FsyncPolicy.INTERVAL),
+                AppConfig.getLong("persist.fsyncIntervalMs", 1000));
+        store.setAppendLatency(metrics.histogram("persist_append_seconds",
+                "Latenta scrierii unei stiri in jurnal (inclusiv fsync, dupa politica)"));
+        try {
+            store.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(store::close, "segment-store-shutdown"));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        this.bodies = BodyStore.fromConfig(persistDir);
+        if (bodies != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(bodies::close, "body-store-shutdown"));
+        }
     }
 
     // verifica daca un ID exista deja in lista
     public boolean existsId(String id) {
-        return existingIds.containsKey(id);
+        return byId.containsKey(id);
     }
 
-    // adauga o stire in lista si in setul de ID-uri
-    public void addNews(News myNews) {
-        newsList.add(myNews);
-        existingIds.put(myNews.getId(), true);
+    // intoarce stirea cu id-ul dat sau null, in O(1)
+    public News getNewsById(String id) {
+        TopicIndex.Entry e = byId.get(id);
+        return e != null ? e.news : null;
     }
 
-    // sterge o stire din lista pe baza ID-ului si returneaza succesul operatiei
-    public int deleteNewsById(String id) {
-        for (int i = 0; i < newsList.size(); i++) {
-            if (newsList.get(i).getId().equals(id)) {
-                existingIds.remove(id);
-                newsList.remove(i);
-                return 1;
+    public int size() {
+        return byId.size();
+    }
+
+    // octetii stirilor inca din lista, in regiunea off-heap a continutului (0 daca este dezactivata)
+    public long offHeapBytes() {
+        return bodies != null ? bodies.usedBytes() : 0;
+    }
+
+    // true dupa ce snapshot-ul si coada jurnalului au fost incarcate
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // verifica daca stirea a fost stearsa (prin "stergere")
+    public boolean isDeleted(String id) {
+        indexLock.readLock().lock();
+        try {
+            return deletedIds.contains(id);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // hash-urile nodurilor arborelui Merkle de pe nivelul dat
+    long[] digestHashes(int level, int[] nodes) {
+        indexLock.readLock().lock();
+        try {
+            return digest.hashes(level, nodes);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // autorii care au cel putin o stire in lista
+    Set<String> authors() {
+        indexLock.readLock().lock();
+        try {
+            return new HashSet<>(authorCounts.keySet());
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // id-urile stirilor dintr-o galeata de anti-entropie
+    List<String> idsInBucket(int bucket) {
+        indexLock.readLock().lock();
+        try {
+            return digest.idsIn(bucket);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // adauga o stire in lista si in indexuri; un id deja existent este ignorat (intoarce false)
+    public boolean addNews(News myNews) {
+        boolean added;
+        indexLock.writeLock().lock();
+        try {
+            added = addLocked(myNews, true);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+        if (added) {
+            moveBody(myNews);
+        }
+        return added;
+    }
+
+    // adauga mai multe stiri sub un singur lock (incarcarea snapshot-ului); indexul full-text
+    // pentru ele se construieste ulterior, in fundal (indexBacklog), ca pornirea sa ramana rapida
+    public void addAll(List<News> news) {
+        List<News> added = new ArrayList<>(news.size());
+        indexLock.writeLock().lock();
+        try {
+            for (News n : news) {
+                if (n != null && addLocked(n, false)) {
+                    added.add(n);
+                }
             }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+        for (News n : added) {
+            moveBody(n);
+        }
+    }
+
+    private boolean addLocked(News myNews, boolean index) {
+        if (deletedIds.contains(myNews.getId())) {
+            return false;
+        }
+        String topic = topicKey(myNews);
+        TopicIndex.Entry e = new TopicIndex.Entry(myNews, topic, nextSeq);
+        if (byId.putIfAbsent(myNews.getId(), e) != null) {
+            return false;
+        }
+        nextSeq++;
+        if (fullText != null && index) {
+            // indexat inainte de mutarea continutului off-heap, cat timp este inca in heap
+            fullText.add(e);
+        }
+        byTopic.computeIfAbsent(topic, t -> new TopicIndex()).add(e);
+        digest.add(myNews.getId());
+        authorCounts.computeIfAbsent(authorOf(myNews.getId()), a -> new int[1])[0]++;
+        changesSinceSnapshot.incrementAndGet();
+        return true;
+    }
+
+    // muta continutul off-heap dupa eliberarea lock-ului, ca scrierea in fisier sa nu blocheze
+    // cititorii; o stire scoasa intre timp din lista isi aduce continutul inapoi in heap
+    private void moveBody(News myNews) {
+        if (bodies == null) {
+            return;
+        }
+        try {
+            myNews.moveContentTo(bodies, offHeapMinBytes);
+        } catch (IOException ex) {
+            // continutul ramane in heap
+            System.out.println("Continutul stirii " + myNews.getId() + " nu a putut fi mutat off-heap: " + ex.getMessage());
+        }
+        TopicIndex.Entry e = byId.get(myNews.getId());
+        if (e == null || e.news != myNews) {
+            myNews.releaseContent();
+        }
+    }
+
+    // stirea a iesit din lista: locul continutului ei din regiune poate fi refolosit
+    private void releaseBody(TopicIndex.Entry e) {
+        if (e != null && bodies != null) {
+            e.news.releaseContent();
+        }
+    }
+
+    // sterge o stire din lista pe baza ID-ului si returneaza succesul operatiei.
+    // id-ul este retinut ca sters chiar daca stirea nu a ajuns inca local
+    public int deleteNewsById(String id) {
+        TopicIndex.Entry removed;
+        indexLock.writeLock().lock();
+        try {
+            deletedIds.add(id);
+            removed = removeLocked(id);
+        } finally {
+            indexLock.writeLock().unlock();
         }
-        return 0;
+        releaseBody(removed);
+        return removed != null ? 1 : 0;
+    }
+
+    // scoate o stire predata altui nod in modul partitionat; spre deosebire de stergere
+    // nu retine id-ul, deci stirea poate reveni daca nodul redevine proprietarul ei
+    public boolean evict(String id) {
+        TopicIndex.Entry removed;
+        indexLock.writeLock().lock();
+        try {
+            removed = removeLocked(id);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+        releaseBody(removed);
+        return removed != null;
+    }
+
+    // intoarce intrarea scoasa sau null
+    private TopicIndex.Entry removeLocked(String id) {
+        TopicIndex.Entry e = byId.remove(id);
+        if (e == null) {
+            return null;
+        }
+        digest.remove(id);
+        String author = authorOf(id);
+        int[] count = authorCounts.get(author);
+        if (count != null && --count[0] == 0) {
+            authorCounts.remove(author);
+        }
+        if (fullText != null) {
+            fullText.remove(e);
+        }
+        TopicIndex index = byTopic.get(e.topic);
+        if (index != null) {
+            index.remove(e);
+        }
+        changesSinceSnapshot.incrementAndGet();
+        return e;
+    }
+
+    // nodul care a creat stirea (id-urile au forma "<autor>:<uuid>"); id-ul intreg daca nu are autor
+    static String authorOf(String id) {
+        int sep = id.indexOf(':');
+        return sep < 0 ? id : id.substring(0, sep);
+    }
+
+    // cautare full-text in titlu si continut: cuvintele sunt optionale si ordoneaza rezultatele (BM25),
+    // frazele intre ghilimele sunt obligatorii. intoarce cel mult limit stiri din topicurile date,
+    // cele mai relevante primele
+    public List<News> search(String query, int limit, List<String> filterTopics) {
+        if (fullText == null) {
+            return Collections.emptyList();
+        }
+        List<FullTextIndex.Hit> hits;
+        indexLock.readLock().lock();
+        try {
+            hits = fullText.search(query, limit, new HashSet<>(filterTopics));
+        } finally {
+            indexLock.readLock().unlock();
+        }
+        List<News> result = new ArrayList<>(hits.size());
+        for (FullTextIndex.Hit hit : hits) {
+            result.add(hit.news);
+        }
+        return result;
+    }
+
+    public boolean isSearchEnabled() {
+        return fullText != null;
     }
 
     // returneaza o stire de la un index specific, filtrata dupa topicuri
     public News getNewsWithIndex(int index, List<String> filterTopics) {
-        List<News> filtered = new ArrayList<>();
-        synchronized (newsList) {
-            for (News n : newsList) {
-                if (filterTopics.contains(n.getTopic())) {
-                    filtered.add(n);
-                }
+        indexLock.readLock().lock();
+        try {
+            List<TopicIndex> indexes = indexesFor(filterTopics);
+            if (indexes.isEmpty() || index < 1) {
+                return null;
+            }
+            if (indexes.size() == 1) {
+                TopicIndex.Entry e = indexes.get(0).kth(index);
+                return e != null ? e.news : null;
+            }
+            TopicIndex.Entry e = kthAcross(indexes, index);
+            return e != null ? e.news : null;
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // a k-a stire din reuniunea mai multor topicuri: cautare binara pe secventa globala,
+    // numarand in fiecare topic stirile vii cu secventa <= mijloc (O(log N * T * log n))
+    private TopicIndex.Entry kthAcross(List<TopicIndex> indexes, int k) {
+        int total = 0;
+        for (TopicIndex ti : indexes) {
+            total += ti.alive();
+        }
+        if (k > total) {
+            return null;
+        }
+        long lo = 0;
+        long hi = nextSeq - 1;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            int count = 0;
+            for (TopicIndex ti : indexes) {
+                count += ti.countUpTo(mid);
+            }
+            if (count >= k) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
             }
         }
-        if (index - 1 >= 0 && index - 1 < filtered.size()) {
-            return filtered.get(index - 1);
+        // stirea cu secventa lo este in exact unul din topicuri
+        for (TopicIndex ti : indexes) {
+            int upTo = ti.countUpTo(lo);
+            if (upTo > 0) {
+                TopicIndex.Entry e = ti.kth(upTo);
+                if (e.seq == lo) {
+                    return e;
+                }
+            }
         }
         return null;
     }
@@ -60,12 +361,11 @@ public class NewsList {
     // afiseaza toate stirile filtrate dupa topicuri
     public void printAllNews(List<String> filterTopics) {
         List<News> filtered = new ArrayList<>();
-        synchronized (newsList) {
-            for (News n : newsList) {
-                if (filterTopics.contains(n.getTopic())) {
-                    filtered.add(n);
-                }
-            }
+        indexLock.readLock().lock();
+        try {
+            collectOrdered(indexesFor(filterTopics), filtered);
+        } finally {
+            indexLock.readLock().unlock();
         }
         int i = 1;
         for (News n : filtered) {
@@ -74,7 +374,63 @@ public class NewsList {
         }
     }
 
-    // afiseaza detaliile unei stiri de la un index specific, filtrata dupa topicuri
+    // toate stirile, in ordinea insertiei
+    public List<News> getAllNews() {
+        List<News> all = new ArrayList<>(byId.size());
+        indexLock.readLock().lock();
+        try {
+            collectOrdered(new ArrayList<>(byTopic.values()), all);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+        return all;
+    }
+
+    // interclasare dupa secventa intre indexurile topicurilor (apelat sub read lock)
+    private static void collectOrdered(List<TopicIndex> indexes, List<News> out) {
+        int[] cursors = new int[indexes.size()];
+        while (true) {
+            int best = -1;
+            TopicIndex.Entry bestEntry = null;
+            for (int t = 0; t < indexes.size(); t++) {
+                TopicIndex ti = indexes.get(t);
+                while (cursors[t] < ti.slots() && ti.slot(cursors[t]) == null) {
+                    cursors[t]++;
+                }
+                if (cursors[t] < ti.slots()) {
+                    TopicIndex.Entry e = ti.slot(cursors[t]);
+                    if (bestEntry == null || e.seq < bestEntry.seq) {
+                        bestEntry = e;
+                        best = t;
+                    }
+                }
+            }
+            if (bestEntry == null) {
+                return;
+            }
+            out.add(bestEntry.news);
+            cursors[best]++;
+        }
+    }
+
+    // indexurile existente pentru topicurile cerute, fara duplicate
+    private List<TopicIndex> indexesFor(List<String> filterTopics) {
+        List<TopicIndex> result = new ArrayList<>();
+        for (String topic : new LinkedHashSet<>(filterTopics)) {
+            TopicIndex ti = byTopic.get(topic);
+            if (ti != null && ti.alive() > 0) {
+                result.add(ti);
+            }
+        }
+        return result;
+    }
+
+    private static String topicKey(News news) {
+        return news.getTopic() != null ? news.getTopic() : "";
+    }
+
+    // afiseaza detaliile unei stiri de la un index specific, filtrata dupa topicuri;
+    // continutul este citit abia acum, direct din regiunea mapata
     public void printNewsWithIndex(int index, List<String> filterTopics) {
         News n = getNewsWithIndex(index, filterTopics);
         if (n != null) {
@@ -90,38 +446,167 @@ public class NewsList {
         }
     }
 
-    // persista o stire in fisierul de persistenta
-    public void persistNews(News news) {
-        synchronized (this) {
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(PERSIST_FILE, true))) {
-                writer.write(news.toJson());
-                writer.newLine();
+    // persista o stire in jurnal; nu blocheaza, viitorul se completeaza dupa group commit
+    public CompletableFuture<Void> persistNews(News news) {
+        return store.append(JsonNewsCodec.INSTANCE.encode(news));
+    }
+
+    // incarca stirile la pornire: snapshot-ul (mapat in memorie, parsat in paralel) sincron,
+    // apoi coada jurnalului de dupa snapshot pe un thread separat. in timpul incarcarii cozii
+    // lista poate fi deja citita; viitorul se completeaza cand toata istoria este incarcata
+    public CompletableFuture<Void> loadPersistedNews() {
+        NewsSnapshot.Loaded snapshot = null;
+        try {
+            snapshot = NewsSnapshot.load(store.getDirectory());
+        } catch (IOException e) {
+            System.out.println("Snapshot-ul nu a putut fi incarcat, se reia tot jurnalul: " + e.getMessage());
+        }
+        if (snapshot != null) {
+            addAll(snapshot.news);
+            // stergerile confirmate dupa scrierea snapshot-ului se aplica din nou
+            for (News n : snapshot.news) {
+                if ("stergere".equals(n.getTopic())) {
+                    deleteNewsById(n.getContent());
+                }
+            }
+        }
+        final SegmentStore.Position from = snapshot != null ? snapshot.position : null;
+
+        return CompletableFuture.runAsync(() -> {
+            if (from == null) {
+                loadLegacyFile();
+            }
+            try {
+                if (from == null) {
+                    store.replay(record -> applyReplayed(NewsCodecs.decode(record)));
+                } else {
+                    store.replayFrom(from, record -> applyReplayed(NewsCodecs.decode(record)));
+                }
             } catch (IOException e) {
-                e.printStackTrace();
+                throw new CompletionException(e);
+            }
+            loaded = true;
+            startSnapshots();
+            indexBacklog();
+        }, ClientExecutors.blocking());
+    }
+
+    // indexeaza stirile incarcate din snapshot, in loturi scurte sub lock-ul de scriere, ca
+    // adaugarile si cautarile sa nu astepte tot indexul; pana atunci cautarea da rezultate partiale
+    private void indexBacklog() {
+        if (fullText == null) {
+            return;
+        }
+        List<TopicIndex.Entry> pending = new ArrayList<>();
+        for (TopicIndex.Entry e : byId.values()) {
+            if (e.docId < 0) {
+                pending.add(e);
+            }
+        }
+        pending.sort((a, b) -> Long.compare(a.seq, b.seq));
+        int chunk = 1000;
+        for (int from = 0; from < pending.size(); from += chunk) {
+            indexLock.writeLock().lock();
+            try {
+                for (TopicIndex.Entry e : pending.subList(from, Math.min(pending.size(), from + chunk))) {
+                    // poate fi stearsa intre timp
+                    if (e.docId < 0 && byId.get(e.news.getId()) == e) {
+                        fullText.add(e);
+                    }
+                }
+            } finally {
+                indexLock.writeLock().unlock();
             }
         }
     }
 
-    // incarca stirile existente din fisier la pornirea aplicației
-    public void loadPersistedNews() {
+    // fisierul vechi, folosit doar pana la primul snapshot
+    private void loadLegacyFile() {
         File f = new File(PERSIST_FILE);
         if (!f.exists()) {
-            // daca fisierul nu exista, nu incarca nimic
             return;
         }
-        synchronized (this) {
-            try (BufferedReader br = new BufferedReader(new FileReader(f))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    News n = News.fromJson(line);
-                    // adauga stirea doar daca nu exista deja
-                    if (!existsId(n.getId())) {
-                        addNews(n);
-                    }
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
+        try (BufferedReader br = new BufferedReader(new FileReader(f))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                applyReplayed(News.fromJson(line));
             }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // aplica o inregistrare din jurnal; stirile "stergere" sterg si stirea vizata
+    private void applyReplayed(News n) {
+        addIfAbsent(n);
+        if (n != null && "stergere".equals(n.getTopic())) {
+            deleteNewsById(n.getContent());
+        }
+    }
+
+    // adauga stirea doar daca nu exista deja
+    private void addIfAbsent(News n) {
+        if (n != null && !existsId(n.getId())) {
+            addNews(n);
         }
     }
+
+    // scrie un snapshot compact si sterge segmentele pe care le acopera
+    public synchronized void snapshot() throws IOException {
+        if (!loaded) {
+            return;
+        }
+        // toate inregistrarile pana la aceasta pozitie sunt deja in memorie (addNews precede persistNews)
+        SegmentStore.Position position = store.getWrittenPosition();
+        long changes = changesSinceSnapshot.get();
+        NewsSnapshot.write(store.getDirectory(), position, getAllNews());
+        changesSinceSnapshot.addAndGet(-changes);
+        store.deleteSegmentsBefore(position.segment);
+    }
+
+    // muta continutul stirilor ramase in fisierele regiunii off-heap folosite sub bodies.compactBelow,
+    // ca fisierele sa se goleasca si sa fie refolosite; fara lock-ul indexului, fiecare stire se
+    // sincronizeaza singura. intoarce numarul de stiri mutate
+    public int compactBodies() throws IOException {
+        if (bodies == null) {
+            return 0;
+        }
+        boolean[] sparse = bodies.sparseChunks(compactBelow);
+        boolean any = false;
+        for (boolean s : sparse) {
+            any |= s;
+        }
+        if (!any) {
+            return 0;
+        }
+        int moved = 0;
+        for (TopicIndex.Entry e : byId.values()) {
+            if (e.news.relocateContent(bodies, sparse)) {
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    // snapshot periodic, doar daca s-a schimbat ceva de la ultimul; scrierea ruleaza pe
+    // executorul pentru sarcini blocante, nu pe planificatorul comun
+    private synchronized void startSnapshots() {
+        if (snapshotTask != null) {
+            return;
+        }
+        long intervalMs = AppConfig.getLong("snapshot.intervalMs", TimeUnit.MINUTES.toMillis(10));
+        snapshotTask = ClientExecutors.scheduler().scheduleWithFixedDelay(() -> {
+            if (changesSinceSnapshot.get() == 0) {
+                return;
+            }
+            ClientExecutors.blocking().execute(() -> {
+                try {
+                    snapshot();
+                    compactBodies();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            });
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
 }
@@ -0,0 +1,154 @@
+package org.example.Client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+// snapshot compact al stirilor dintr-un NewsList, impreuna cu pozitia din jurnal
+// pana la care este valabil. la pornire se incarca snapshot-ul si se reia doar
+// coada jurnalului scrisa dupa acea pozitie.
+//
+// format: [int magic][int versiune][long segment][long offset][int numar]
+//         apoi inregistrari [int lungime][int crc32][stire in format binar]
+final class NewsSnapshot {
+
+    static final String FILE_NAME = "snapshot.bin";
+    private static final int MAGIC = 0x4E53534E; // "NSSN"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4;
+    private static final int RECORD_HEADER_BYTES = 8;
+    // sub acest numar de stiri parsarea paralela nu merita
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    // continutul unui snapshot incarcat
+    static final class Loaded {
+        final SegmentStore.Position position;
+        final List<News> news;
+
+        Loaded(SegmentStore.Position position, List<News> news) {
+            this.position = position;
+            this.news = news;
+        }
+    }
+
+    private NewsSnapshot() {}
+
+    // scrie snapshot-ul intr-un fisier temporar si il muta atomic peste cel vechi
+    static void write(Path directory, SegmentStore.Position position, List<News> news) throws IOException {
+        Path target = directory.resolve(FILE_NAME);
+        Path tmp = directory.resolve(FILE_NAME + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(256 * 1024);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(position.segment).putLong(position.offset).putInt(news.size());
+            for (News n : news) {
+                byte[] payload = BinaryNewsCodec.INSTANCE.encode(n);
+                if (RECORD_HEADER_BYTES + payload.length > buffer.remaining()) {
+                    drain(out, buffer);
+                    if (RECORD_HEADER_BYTES + payload.length > buffer.capacity()) {
+                        buffer = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.length);
+                    }
+                }
+                crc.reset();
+                crc.update(payload, 0, payload.length);
+                buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+            }
+            drain(out, buffer);
+            out.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void drain(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // incarca snapshot-ul prin memory-mapped I/O; null daca nu exista.
+    // granitele inregistrarilor se afla intr-o trecere secventiala (doar lungimile),
+    // apoi bucatile sunt verificate (crc) si decodificate in paralel pe toate nucleele.
+    // numarul si lungimile sunt verificate fata de dimensiunea fisierului inainte de orice alocare;
+    // orice neconcordanta este IOException, iar apelantul reia tot jurnalul
+    static Loaded load(Path directory) throws IOException {
+        Path file = directory.resolve(FILE_NAME);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot prea mare pentru o singura mapare: " + size);
+            }
+            MappedByteBuffer map = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (size < HEADER_BYTES || map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                throw new IOException("Snapshot invalid: " + file);
+            }
+            SegmentStore.Position position = new SegmentStore.Position(map.getLong(8), map.getLong(16));
+            if (position.segment < 0 || position.offset < 0) {
+                throw new IOException("Pozitie invalida in snapshot: " + position.segment + "/" + position.offset);
+            }
+            int count = map.getInt(24);
+            if (count < 0 || count > (size - HEADER_BYTES) / RECORD_HEADER_BYTES) {
+                throw new IOException("Numar de inregistrari invalid in snapshot: " + count);
+            }
+
+            int[] offsets = new int[count];
+            int pos = HEADER_BYTES;
+            for (int i = 0; i < count; i++) {
+                if (pos + RECORD_HEADER_BYTES > size) {
+                    throw new IOException("Snapshot trunchiat la inregistrarea " + i);
+                }
+                int length = map.getInt(pos);
+                if (length < 0 || length > size - pos - RECORD_HEADER_BYTES) {
+                    throw new IOException("Lungime invalida in snapshot la inregistrarea " + i + ": " + length);
+                }
+                offsets[i] = pos;
+                pos += RECORD_HEADER_BYTES + length;
+            }
+
+            News[] decoded = new News[count];
+            int chunks = count < PARALLEL_THRESHOLD ? 1 : Runtime.getRuntime().availableProcessors() * 4;
+            int chunkSize = (count + chunks - 1) / Math.max(1, chunks);
+            IntStream range = IntStream.range(0, chunks);
+            (chunks > 1 ? range.parallel() : range).forEach(c -> {
+                // fiecare bucata are propriul view asupra maparii (pozitia nu e partajata)
+                ByteBuffer view = map.duplicate();
+                CRC32 crc = new CRC32();
+                int end = Math.min(count, (c + 1) * chunkSize);
+                for (int i = c * chunkSize; i < end; i++) {
+                    int off = offsets[i];
+                    int length = view.getInt(off);
+                    int expected = view.getInt(off + 4);
+                    byte[] payload = new byte[length];
+                    view.position(off + RECORD_HEADER_BYTES);
+                    view.get(payload);
+                    crc.reset();
+                    crc.update(payload, 0, length);
+                    if ((int) crc.getValue() != expected) {
+                        throw new IllegalStateException("CRC gresit in snapshot la inregistrarea " + i);
+                    }
+                    decoded[i] = NewsCodecs.decode(payload);
+                }
+            });
+
+            List<News> news = new ArrayList<>(count);
+            for (News n : decoded) {
+                news.add(n);
+            }
+            return new Loaded(position, news);
+        } catch (RuntimeException e) {
+            // crc gresit, stire nedecodificabila sau alta inconsecventa: snapshot corupt
+            throw new IOException("Snapshot corupt: " + e.getMessage(), e);
+        }
+    }
+}
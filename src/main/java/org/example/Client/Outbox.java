@@ -0,0 +1,478 @@
+package org.example.Client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+// coada durabila pentru publicarile de stiri.
+// fiecare publicare primeste un numar de secventa si este scrisa intai intr-un SegmentStore propriu
+// (persist.dir/outbox); abia apoi este trimisa. un singur "drainer" trimite intrarile in ordine,
+// cu cel mult outbox.maxInflight neconfirmate (pipelining) si, optional, sub un ritm maxim
+// (outbox.drainPerSecond), ca dupa o cadere a brokerului restanta sa nu plece toata deodata.
+// cat timp conexiunea lipseste coada doar creste; reconectarea reia trimiterea.
+// o intrare este considerata livrata doar dupa confirmarea brokerului: prefixul contiguu confirmat
+// (watermark) este salvat in outbox/acked impreuna cu primul segment pastrat, iar segmentele care
+// contin doar secvente confirmate sunt sterse pe masura ce watermark-ul avanseaza, chiar daca coada
+// nu se goleste niciodata; la pornire citirea incepe de la segmentul salvat.
+// in memorie stau cel mult outbox.maxInMemory intrari; restul raman doar pe disc si sunt recitite
+// cand coada din memorie scade (o pana lunga nu umple heap-ul), de la pozitia din jurnal unde s-a
+// oprit citirea anterioara, nu de la inceputul lui
+final class Outbox {
+
+    // o publicare din coada
+    private static final class Entry {
+        final long seq;
+        final String topic;
+        final byte[] payload;
+
+        Entry(long seq, String topic, byte[] payload) {
+            this.seq = seq;
+            this.topic = topic;
+            this.payload = payload;
+        }
+    }
+
+    // rezultatul unei publicari: scrisa pe disc, respectiv confirmata de broker
+    static final class Ticket {
+        final CompletableFuture<Void> durable;
+        final CompletableFuture<Void> acked;
+
+        Ticket(CompletableFuture<Void> durable, CompletableFuture<Void> acked) {
+            this.durable = durable;
+            this.acked = acked;
+        }
+    }
+
+    // trimiterea catre broker (Client.publishAsync) si jurnalul nodului
+    private final BiFunction<String, byte[], CompletableFuture<Void>> publisher;
+    private final BiConsumer<LogLevel, String> log;
+    private final Path ackedFile;
+    private final int maxInflight;
+    private final int maxInMemory;
+    private final long retryDelayMs;
+    private final RateLimiter limiter;
+    // null daca jurnalul nu a putut fi deschis; atunci coada ramane doar in memorie
+    private SegmentStore store;
+
+    // intrarile incarcate in memorie si netrimise, in ordinea secventei
+    private final TreeMap<Long, Entry> queued = new TreeMap<>();
+    // cine asteapta confirmarea unei secvente (doar publicarile din acest proces)
+    private final Map<Long, CompletableFuture<Void>> waiters = new HashMap<>();
+    // secventele confirmate peste watermark (confirmarile pot sosi in alta ordine)
+    private final TreeSet<Long> ackedAhead = new TreeSet<>();
+    private long highestSeq;
+    // toate secventele <= loadedUpTo sunt in memorie, trimise sau confirmate; restul sunt doar pe disc
+    private long loadedUpTo;
+    // pozitie din jurnal la sau inaintea intrarii loadedUpTo + 1; de aici porneste refill
+    private SegmentStore.Position refillFrom = new SegmentStore.Position(0, 0);
+    // segment -> cea mai mare secventa scrisa in el; ordinea pe disc este ordinea secventelor
+    private final TreeMap<Long, Long> segmentSeqs = new TreeMap<>();
+    // scrierile se termina in ordinea secventelor: toate secventele <= locatedSeq au segmentul cunoscut
+    // (sau scrierea lor a esuat), iar cele de dupa ajung in locatedSegment sau dupa el
+    private long locatedSeq;
+    private long locatedSegment;
+    // primul segment care nu a fost sters
+    private long retainedFrom;
+    // toate secventele <= watermark sunt confirmate
+    private long watermark;
+    private long savedWatermark;
+    private long lastSaveAt;
+    private int inflight;
+    private boolean paused = true;
+    private boolean refilling;
+    private long backoffUntil;
+
+    private long ackedCount;
+    private long lastSampleCount;
+    private volatile double drainRate;
+
+    Outbox(String directory, Metrics metrics, BiFunction<String, byte[], CompletableFuture<Void>> publisher,
+           BiConsumer<LogLevel, String> log) {
+        this.publisher = publisher;
+        this.log = log;
+        this.ackedFile = Paths.get(directory, "acked");
+        this.maxInflight = Math.max(1, AppConfig.getInt("outbox.maxInflight", 32));
+        this.maxInMemory = Math.max(maxInflight, AppConfig.getInt("outbox.maxInMemory", 10000));
+        this.retryDelayMs = AppConfig.getLong("outbox.retryDelayMs", 1000);
+        double perSecond = AppConfig.getDouble("outbox.drainPerSecond", 0);
+        this.limiter = perSecond > 0 ? new RateLimiter(perSecond, Math.max(1, maxInflight)) : null;
+        this.store = new SegmentStore(directory,
+                AppConfig.getLong("outbox.segmentBytes", 16L * 1024 * 1024),
+                AppConfig.getEnum("persist.fsync", FsyncPolicy.class, FsyncPolicy.INTERVAL),
+                AppConfig.getLong("persist.fsyncIntervalMs", 1000));
+        store.setAppendLatency(metrics.histogram("outbox_append_seconds",
+                "Latenta scrierii unei publicari in outbox"));
+    }
+
+    // deschide jurnalul si reincarca intrarile neconfirmate la oprire; trimiterea porneste la resume()
+    synchronized void start() {
+        try {
+            store.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "outbox-shutdown"));
+            long[] acked = loadAcked();
+            watermark = acked[0];
+            savedWatermark = watermark;
+            highestSeq = watermark;
+            loadedUpTo = watermark;
+            retainedFrom = acked[1];
+            refillFrom = new SegmentStore.Position(retainedFrom, 0);
+            List<Long> lost = new ArrayList<>();
+            store.scanFrom(refillFrom, (record, next) -> {
+                Entry e = decode(record);
+                segmentSeqs.merge(next.segment, e.seq, Math::max);
+                if (e.seq <= watermark) {
+                    refillFrom = next;
+                    return true;
+                }
+                boolean contiguous = loadedUpTo == highestSeq;
+                for (long seq = highestSeq + 1; seq < e.seq; seq++) {
+                    lost.add(seq);
+                }
+                highestSeq = e.seq;
+                if (contiguous && queued.size() < maxInMemory) {
+                    queued.put(e.seq, e);
+                    loadedUpTo = e.seq;
+                    refillFrom = next;
+                }
+                return true;
+            });
+            markLost(lost);
+            locatedSeq = highestSeq;
+            locatedSegment = store.getWrittenPosition().segment;
+            if (highestSeq > watermark) {
+                log.accept(LogLevel.INFO, "[Outbox] " + (highestSeq - watermark) + " publicari neconfirmate reluate de pe disc");
+            }
+            deleteAckedSegments();
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Outbox-ul nu a putut fi deschis, publicarile raman doar in memorie: " + e.getMessage());
+            store = null;
+        }
+        ClientExecutors.scheduler().scheduleAtFixedRate(this::sampleRate, 1, 1, TimeUnit.SECONDS);
+    }
+
+    // scrie publicarea in coada; durable se completeaza dupa scrierea pe disc, acked la confirmarea brokerului
+    Ticket submit(String topic, byte[] payload) {
+        CompletableFuture<Void> acked = new CompletableFuture<>();
+        CompletableFuture<Void> durable;
+        synchronized (this) {
+            long seq = ++highestSeq;
+            Entry e = new Entry(seq, topic, payload);
+            waiters.put(seq, acked);
+            boolean inMemory = loadedUpTo == seq - 1 && (queued.size() < maxInMemory || store == null);
+            if (!inMemory && loadedUpTo == seq - 1) {
+                // prima intrare ramasa doar pe disc: inca nu este scrisa, deci va fi dupa pozitia curenta
+                refillFrom = store.getWrittenPosition();
+            }
+            // secventele sunt adaugate in jurnal sub acelasi lacat, deci ordinea pe disc este ordinea secventelor
+            durable = store != null
+                    ? store.appendLocated(encode(e)).handle((segment, err) -> located(seq, segment, err))
+                    : CompletableFuture.completedFuture(null);
+            if (inMemory) {
+                queued.put(seq, e);
+                loadedUpTo = seq;
+            }
+        }
+        pump();
+        return new Ticket(durable, acked);
+    }
+
+    // ruleaza pe thread-ul jurnalului, dupa scrierea intrarii seq
+    private synchronized Void located(long seq, Long segment, Throwable err) {
+        locatedSeq = Math.max(locatedSeq, seq);
+        if (err != null) {
+            throw err instanceof CompletionException ? (CompletionException) err : new CompletionException(err);
+        }
+        locatedSegment = segment;
+        segmentSeqs.merge(segment, seq, Math::max);
+        return null;
+    }
+
+    // conexiunea cu brokerul este disponibila: trimiterea se reia imediat
+    void resume() {
+        synchronized (this) {
+            paused = false;
+            backoffUntil = 0;
+            long depth = depth();
+            if (depth > 0) {
+                log.accept(LogLevel.INFO, "[Outbox] Reconectat, se trimit " + depth + " publicari restante");
+            }
+        }
+        pump();
+    }
+
+    // conexiunea s-a pierdut; publicarile noi doar se aduna
+    synchronized void pause() {
+        paused = true;
+    }
+
+    // publicarile inca neconfirmate de broker
+    synchronized long depth() {
+        return highestSeq - watermark - ackedAhead.size();
+    }
+
+    // publicari confirmate pe secunda, masurate in ultima secunda
+    double drainRate() {
+        return drainRate;
+    }
+
+    synchronized long ackedCount() {
+        return ackedCount;
+    }
+
+    // trimite intrari pana se umple fereastra; apelata dupa fiecare schimbare de stare
+    private void pump() {
+        List<Entry> toSend = new ArrayList<>();
+        synchronized (this) {
+            if (paused) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (now < backoffUntil) {
+                return;
+            }
+            while (inflight < maxInflight && !queued.isEmpty()) {
+                toSend.add(queued.pollFirstEntry().getValue());
+                inflight++;
+            }
+            if (store != null && !refilling && loadedUpTo < highestSeq && queued.size() < maxInMemory / 2) {
+                refilling = true;
+                ClientExecutors.blocking().execute(this::refill);
+            }
+        }
+        for (Entry e : toSend) {
+            send(e);
+        }
+    }
+
+    private void send(Entry e) {
+        CompletableFuture<Void> ready = limiter != null ? limiter.acquire() : CompletableFuture.completedFuture(null);
+        // publishAsync poate astepta un loc in fereastra clientului, deci nu ruleaza pe planificator sau pe Paho
+        ready.thenComposeAsync(r -> publisher.apply(e.topic, e.payload), ClientExecutors.blocking())
+                .whenComplete((ok, err) -> {
+                    if (err == null) {
+                        onAcked(e);
+                    } else {
+                        onFailed(e);
+                    }
+                    ClientExecutors.blocking().execute(this::pump);
+                });
+    }
+
+    private void onAcked(Entry e) {
+        CompletableFuture<Void> waiter;
+        synchronized (this) {
+            inflight--;
+            ackedCount++;
+            waiter = waiters.remove(e.seq);
+            ackedAhead.add(e.seq);
+            advanceWatermark();
+            checkpoint();
+        }
+        if (waiter != null) {
+            waiter.complete(null);
+        }
+    }
+
+    // intrarea revine in coada si va fi retrimisa; la o eroare fara pierderea conexiunii
+    // trimiterea se opreste retryDelayMs, ca sa nu retrimita in bucla
+    private void onFailed(Entry e) {
+        synchronized (this) {
+            inflight--;
+            queued.put(e.seq, e);
+            if (!paused && backoffUntil <= System.currentTimeMillis()) {
+                backoffUntil = System.currentTimeMillis() + retryDelayMs;
+                ClientExecutors.scheduler().schedule(() -> ClientExecutors.blocking().execute(this::pump),
+                        retryDelayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    // recitirea de pe disc a intrarilor care nu au incaput in memorie, de la pozitia unde s-a oprit
+    // citirea anterioara; se opresc dupa maxInMemory / 2 intrari
+    private void refill() {
+        long from;
+        SegmentStore.Position start;
+        synchronized (this) {
+            from = loadedUpTo;
+            start = refillFrom;
+        }
+        List<Entry> loaded = new ArrayList<>();
+        List<Long> lost = new ArrayList<>();
+        long[] next = {from + 1};
+        SegmentStore.Position[] end = {start};
+        try {
+            store.scanFrom(start, (record, after) -> {
+                Entry e = decode(record);
+                if (e.seq < next[0]) {
+                    return true;
+                }
+                // ordinea pe disc este ordinea secventelor: o secventa sarita nu a fost scrisa niciodata
+                for (long seq = next[0]; seq < e.seq; seq++) {
+                    lost.add(seq);
+                }
+                loaded.add(e);
+                next[0] = e.seq + 1;
+                end[0] = after;
+                return loaded.size() < maxInMemory / 2;
+            });
+        } catch (IOException | RuntimeException ex) {
+            log.accept(LogLevel.ERROR, "[Outbox] Recitirea intrarilor de pe disc a esuat: " + ex.getMessage());
+        }
+        synchronized (this) {
+            refilling = false;
+            if (loadedUpTo == from && !loaded.isEmpty()) {
+                for (Entry e : loaded) {
+                    queued.put(e.seq, e);
+                }
+                markLost(lost);
+                loadedUpTo = next[0] - 1;
+                refillFrom = end[0];
+            }
+        }
+        pump();
+    }
+
+    // secventele care nu au ajuns pe disc (scriere esuata) nu mai pot fi trimise; sunt sarite
+    private void markLost(List<Long> lost) {
+        if (lost.isEmpty()) {
+            return;
+        }
+        for (long seq : lost) {
+            ackedAhead.add(seq);
+            CompletableFuture<Void> waiter = waiters.remove(seq);
+            if (waiter != null) {
+                waiter.completeExceptionally(new IOException("Publicarea nu a putut fi scrisa in outbox"));
+            }
+        }
+        advanceWatermark();
+        log.accept(LogLevel.WARN, "[Outbox] " + lost.size() + " publicari nu au fost scrise pe disc si se pierd");
+    }
+
+    private void advanceWatermark() {
+        while (!ackedAhead.isEmpty() && ackedAhead.first() == watermark + 1) {
+            watermark = ackedAhead.pollFirst();
+        }
+    }
+
+    // salveaza watermark-ul cel mult o data pe secunda (imediat cand coada se goleste) si sterge
+    // segmentele confirmate integral
+    private void checkpoint() {
+        long now = System.currentTimeMillis();
+        boolean drained = queued.isEmpty() && inflight == 0 && watermark == highestSeq;
+        if (watermark == savedWatermark || (!drained && now - lastSaveAt < 1000)) {
+            return;
+        }
+        saveAcked();
+        savedWatermark = watermark;
+        lastSaveAt = now;
+        deleteAckedSegments();
+    }
+
+    // sterge segmentele dinaintea primului segment care poate contine o secventa neconfirmata;
+    // segmentul in care se scrie ramane. pozitia salvata este actualizata inainte de stergere
+    private void deleteAckedSegments() {
+        if (store == null || refilling) {
+            return;
+        }
+        long keepFrom = store.getWrittenPosition().segment;
+        if (locatedSeq < highestSeq) {
+            keepFrom = Math.min(keepFrom, locatedSegment);
+        }
+        for (Map.Entry<Long, Long> e : segmentSeqs.entrySet()) {
+            if (e.getValue() > watermark) {
+                keepFrom = Math.min(keepFrom, e.getKey());
+                break;
+            }
+        }
+        if (keepFrom <= retainedFrom) {
+            return;
+        }
+        retainedFrom = keepFrom;
+        saveAcked();
+        segmentSeqs.headMap(keepFrom, false).clear();
+        try {
+            store.deleteSegmentsBefore(keepFrom);
+        } catch (IOException e) {
+            log.accept(LogLevel.WARN, "[Outbox] Segmentele confirmate nu au putut fi sterse: " + e.getMessage());
+        }
+    }
+
+    private synchronized void sampleRate() {
+        drainRate = ackedCount - lastSampleCount;
+        lastSampleCount = ackedCount;
+    }
+
+    // salveaza watermark-ul si inchide jurnalul (la oprirea procesului)
+    synchronized void shutdown() {
+        saveAcked();
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    // "<watermark> <primul segment pastrat>"; fisierele vechi au doar watermark-ul
+    private long[] loadAcked() {
+        if (!Files.exists(ackedFile)) {
+            return new long[]{0, 0};
+        }
+        try (InputStream in = Files.newInputStream(ackedFile)) {
+            String[] parts = new String(in.readAllBytes(), StandardCharsets.US_ASCII).trim().split(" ");
+            return new long[]{Long.parseLong(parts[0]), parts.length > 1 ? Long.parseLong(parts[1]) : 0};
+        } catch (IOException | NumberFormatException e) {
+            // fara watermark intrarile sunt retrimise; receptorii deduplica dupa id
+            System.out.println("Watermark-ul outbox-ului nu a putut fi citit: " + e.getMessage());
+            return new long[]{0, 0};
+        }
+    }
+
+    // scris intr-un fisier temporar si mutat, ca o oprire in timpul scrierii sa nu il strice
+    private void saveAcked() {
+        if (store == null) {
+            return;
+        }
+        try {
+            Path tmp = ackedFile.resolveSibling("acked.tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                out.write((watermark + " " + retainedFrom).getBytes(StandardCharsets.US_ASCII));
+            }
+            Files.move(tmp, ackedFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.accept(LogLevel.WARN, "[Outbox] Watermark-ul nu a putut fi salvat: " + e.getMessage());
+        }
+    }
+
+    // [long secventa][short lungime topic][topic UTF-8][payload]
+    private static byte[] encode(Entry e) {
+        byte[] topic = e.topic.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.allocate(8 + 2 + topic.length + e.payload.length);
+        buf.putLong(e.seq).putShort((short) topic.length).put(topic).put(e.payload);
+        return buf.array();
+    }
+
+    private static Entry decode(byte[] record) {
+        ByteBuffer buf = ByteBuffer.wrap(record);
+        long seq = buf.getLong();
+        byte[] topic = new byte[buf.getShort() & 0xFFFF];
+        buf.get(topic);
+        byte[] payload = new byte[buf.remaining()];
+        buf.get(payload);
+        return new Entry(seq, new String(topic, StandardCharsets.UTF_8), payload);
+    }
+}
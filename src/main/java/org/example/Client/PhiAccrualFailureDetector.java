@@ -0,0 +1,131 @@
+package org.example.Client;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// detector de caderi phi-accrual (Hayashibara et al.), pentru vecinii din inel.
+// pentru fiecare nod monitorizat se pastreaza ultimele windowSize intervale dintre heartbeat-uri;
+// phi = -log10(P(heartbeat-ul intarzie inca atat)), estimata cu o distributie normala peste
+// media si deviatia intervalelor. phi creste continuu cu tacerea nodului, iar pragul alege
+// compromisul: phi 8 inseamna o sansa de ~1e-8 ca nodul sa fie declarat cazut degeaba.
+// acceptablePauseMs se adauga la medie ca sa absoarba jitter-ul broker-ului si pauzele GC
+final class PhiAccrualFailureDetector {
+
+    // istoria unui singur nod; accesata sub propriul monitor
+    private static final class History {
+        private final long[] intervals;
+        private int count;
+        private int next;
+        private double sum;
+        private double sumSquares;
+        private long lastArrival;
+
+        History(int windowSize, long firstIntervalMs, long now) {
+            intervals = new long[windowSize];
+            // pana la primele heartbeat-uri reale, presupunem intervalul asteptat cu o deviatie de 25%
+            long std = firstIntervalMs / 4;
+            add(firstIntervalMs - std);
+            add(firstIntervalMs + std);
+            lastArrival = now;
+        }
+
+        void add(long interval) {
+            if (count == intervals.length) {
+                long old = intervals[next];
+                sum -= old;
+                sumSquares -= (double) old * old;
+            } else {
+                count++;
+            }
+            intervals[next] = interval;
+            next = (next + 1) % intervals.length;
+            sum += interval;
+            sumSquares += (double) interval * interval;
+        }
+
+        double mean() {
+            return sum / count;
+        }
+
+        double stdDev() {
+            double mean = mean();
+            return Math.sqrt(Math.max(0, sumSquares / count - mean * mean));
+        }
+    }
+
+    private final Map<String, History> histories = new ConcurrentHashMap<>();
+    private final double threshold;
+    private final int windowSize;
+    private final long minStdDevMs;
+    private final long acceptablePauseMs;
+    private final long firstIntervalMs;
+
+    PhiAccrualFailureDetector(double threshold, int windowSize, long minStdDevMs,
+                              long acceptablePauseMs, long firstIntervalMs) {
+        this.threshold = threshold;
+        this.windowSize = Math.max(2, windowSize);
+        this.minStdDevMs = Math.max(1, minStdDevMs);
+        this.acceptablePauseMs = acceptablePauseMs;
+        this.firstIntervalMs = Math.max(1, firstIntervalMs);
+    }
+
+    // inregistreaza un heartbeat de la nod
+    void heartbeat(String nodeId, long now) {
+        History h = histories.get(nodeId);
+        if (h == null) {
+            histories.putIfAbsent(nodeId, new History(windowSize, firstIntervalMs, now));
+            return;
+        }
+        synchronized (h) {
+            long interval = now - h.lastArrival;
+            if (interval > 0) {
+                h.add(interval);
+                h.lastArrival = now;
+            }
+        }
+    }
+
+    // incepe monitorizarea de la zero (nod nou sau vecin nou); ceasul porneste acum
+    void reset(String nodeId, long now) {
+        histories.put(nodeId, new History(windowSize, firstIntervalMs, now));
+    }
+
+    void remove(String nodeId) {
+        histories.remove(nodeId);
+    }
+
+    // nivelul de suspiciune pentru nod; 0 pentru un nod nemonitorizat
+    double phi(String nodeId, long now) {
+        History h = histories.get(nodeId);
+        if (h == null) {
+            return 0;
+        }
+        double elapsed;
+        double mean;
+        double std;
+        synchronized (h) {
+            elapsed = now - h.lastArrival;
+            mean = h.mean() + acceptablePauseMs;
+            std = Math.max(h.stdDev(), minStdDevMs);
+        }
+        return phi(elapsed, mean, std);
+    }
+
+    boolean isAvailable(String nodeId, long now) {
+        return phi(nodeId, now) < threshold;
+    }
+
+    double getThreshold() {
+        return threshold;
+    }
+
+    // aproximarea logistica a functiei de repartitie normale (eroare < 1e-4)
+    static double phi(double elapsed, double mean, double std) {
+        double y = (elapsed - mean) / std;
+        double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+        if (elapsed > mean) {
+            return -Math.log10(e / (1.0 + e));
+        }
+        return -Math.log10(1.0 - 1.0 / (1.0 + e));
+    }
+}
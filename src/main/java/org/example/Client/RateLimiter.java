@@ -0,0 +1,48 @@
+package org.example.Client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// limitator token-bucket neblocant: acquire() intoarce un viitor care se completeaza cand cererea
+// are voie sa plece. asteptarea este programata pe planificatorul comun, fara fire blocate.
+// rezervarile se fac in ordine, deci cererile trec in ordinea in care au fost cerute
+final class RateLimiter {
+
+    private final double permitsPerSecond;
+    private final double burst;
+    private double available;
+    private long lastRefillNanos = System.nanoTime();
+    // momentul pana la care nu mai pleaca nicio cerere (ex: dupa un 429)
+    private long pausedUntilNanos;
+
+    RateLimiter(double permitsPerSecond, double burst) {
+        this.permitsPerSecond = Math.max(1e-3, permitsPerSecond);
+        this.burst = Math.max(1, burst);
+        this.available = this.burst;
+    }
+
+    CompletableFuture<Void> acquire() {
+        long waitNanos = reserve();
+        if (waitNanos <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> ready = new CompletableFuture<>();
+        ClientExecutors.scheduler().schedule(() -> ready.complete(null), waitNanos, TimeUnit.NANOSECONDS);
+        return ready;
+    }
+
+    // opreste toate cererile pentru o perioada (serverul a cerut sa incetinim)
+    synchronized void pause(long millis) {
+        pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    // consuma un jeton (eventual din viitor) si intoarce cat trebuie asteptat pana la el
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        available = Math.min(burst, available + (now - lastRefillNanos) / 1e9 * permitsPerSecond);
+        lastRefillNanos = now;
+        available -= 1;
+        long wait = available >= 0 ? 0 : (long) (-available / permitsPerSecond * 1e9);
+        return Math.max(wait, pausedUntilNanos - now);
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.Client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// un lot de stiri replicate catre un succesor, cu numere de secventa.
+// format: [0x02][varint len][id expeditor][8 octeti epoca][8 octeti prag][8 octeti prima secventa]
+//         [varint numar][pentru fiecare stire: varint hop-uri, varint len + stirea codificata cu NewsCodec]
+// stirile pastreaza propriul octet de format, deci pot fi json sau binare.
+// pragul este cea mai mare secventa pe care expeditorul nu o mai pastreaza (confirmata sau
+// pierduta la depasirea memoriei), astfel incat receptorul nu asteapta la nesfarsit un gol.
+// hop-urile spun cate noduri mai trebuie sa primeasca stirea in modul lant (CHAIN)
+final class ReplicationEnvelope {
+
+    static final byte FORMAT_ID = 0x02;
+
+    final String senderId;
+    final long epoch;
+    final long floorSeq;
+    final long firstSeq;
+    final List<News> news;
+    final int[] hops;
+
+    ReplicationEnvelope(String senderId, long epoch, long floorSeq, long firstSeq, List<News> news, int[] hops) {
+        this.senderId = senderId;
+        this.epoch = epoch;
+        this.floorSeq = floorSeq;
+        this.firstSeq = firstSeq;
+        this.news = news;
+        this.hops = hops;
+    }
+
+    long lastSeq() {
+        return firstSeq + news.size() - 1;
+    }
+
+    static boolean isEnvelope(byte[] payload) {
+        return payload.length > 0 && payload[0] == FORMAT_ID;
+    }
+
+    byte[] encode(NewsCodec codec) {
+        byte[] sender = senderId.getBytes(StandardCharsets.UTF_8);
+        List<byte[]> items = new ArrayList<>(news.size());
+        int size = 1 + BinaryNewsCodec.varintSize(sender.length) + sender.length + 24
+                + BinaryNewsCodec.varintSize(news.size());
+        for (int i = 0; i < news.size(); i++) {
+            byte[] item = codec.encode(news.get(i));
+            items.add(item);
+            size += BinaryNewsCodec.varintSize(hops[i]) + BinaryNewsCodec.varintSize(item.length) + item.length;
+        }
+
+        byte[] out = new byte[size];
+        out[0] = FORMAT_ID;
+        int pos = BinaryNewsCodec.writeVarint(out, 1, sender.length);
+        System.arraycopy(sender, 0, out, pos, sender.length);
+        pos += sender.length;
+        pos = writeLong(out, pos, epoch);
+        pos = writeLong(out, pos, floorSeq);
+        pos = writeLong(out, pos, firstSeq);
+        pos = BinaryNewsCodec.writeVarint(out, pos, items.size());
+        for (int i = 0; i < items.size(); i++) {
+            byte[] item = items.get(i);
+            pos = BinaryNewsCodec.writeVarint(out, pos, hops[i]);
+            pos = BinaryNewsCodec.writeVarint(out, pos, item.length);
+            System.arraycopy(item, 0, out, pos, item.length);
+            pos += item.length;
+        }
+        return out;
+    }
+
+    static ReplicationEnvelope decode(byte[] in) {
+        if (!isEnvelope(in)) {
+            throw new IllegalArgumentException("Payload-ul nu este un lot de replicare");
+        }
+        int[] pos = {1};
+        String sender = new String(readBytes(in, pos), StandardCharsets.UTF_8);
+        long epoch = readLong(in, pos);
+        long floorSeq = readLong(in, pos);
+        long firstSeq = readLong(in, pos);
+        int count = BinaryNewsCodec.readVarint(in, pos);
+        List<News> news = new ArrayList<>(count);
+        int[] hops = new int[count];
+        for (int i = 0; i < count; i++) {
+            hops[i] = BinaryNewsCodec.readVarint(in, pos);
+            news.add(NewsCodecs.decode(readBytes(in, pos)));
+        }
+        return new ReplicationEnvelope(sender, epoch, floorSeq, firstSeq, news, hops);
+    }
+
+    private static byte[] readBytes(byte[] in, int[] pos) {
+        int len = BinaryNewsCodec.readVarint(in, pos);
+        if (len < 0 || pos[0] + len > in.length) {
+            throw new IllegalArgumentException("Lot de replicare trunchiat");
+        }
+        byte[] out = new byte[len];
+        System.arraycopy(in, pos[0], out, 0, len);
+        pos[0] += len;
+        return out;
+    }
+
+    private static int writeLong(byte[] out, int pos, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out[pos++] = (byte) (value >>> shift);
+        }
+        return pos;
+    }
+
+    private static long readLong(byte[] in, int[] pos) {
+        if (pos[0] + 8 > in.length) {
+            throw new IllegalArgumentException("Lot de replicare trunchiat");
+        }
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (in[pos[0]++] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.Client;
+
+// cum ajunge o stire la cei k-1 succesori
+public enum ReplicationMode {
+    // nodul sursa trimite stirea direct fiecarui succesor
+    PARALLEL,
+    // nodul sursa trimite doar primului succesor, care o trimite mai departe
+    CHAIN
+}
@@ -0,0 +1,210 @@
+package org.example.Client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// fluxul de replicare catre un singur nod tinta.
+// fiecare stire primeste un numar de secventa; stirile sunt trimise in loturi pe
+// "replicate/<tinta>" si pastrate pana cand tinta confirma cumulativ secventa lor
+// pe "replicate_ack/<noi>". daca nu vine nicio confirmare in resendTimeoutMs,
+// intervalul neconfirmat este retrimis (receptorul deduplica dupa id).
+// loturile sunt pregatite sub lock-ul fluxului, dar publicate dupa eliberarea lui: publicarea
+// poate astepta dupa fereastra de publicari, iar enqueue nu trebuie sa astepte dupa ea
+class ReplicationStream {
+
+    // o stire din flux, cu numarul de noduri care mai trebuie sa o primeasca (inclusiv tinta)
+    static final class Item {
+        final News news;
+        final int hops;
+
+        Item(News news, int hops) {
+            this.news = news;
+            this.hops = hops;
+        }
+    }
+
+    // un lot codificat, gata de publicat
+    private static final class Outgoing {
+        final long firstSeq;
+        final long lastSeq;
+        final byte[] payload;
+
+        Outgoing(long firstSeq, long lastSeq, byte[] payload) {
+            this.firstSeq = firstSeq;
+            this.lastSeq = lastSeq;
+            this.payload = payload;
+        }
+    }
+
+    private final Client client;
+    private final String targetId;
+    // identifica fluxul; la o epoca noua receptorul reia secventele de la 1
+    private final long epoch;
+    private final int batchSize;
+    private final long resendTimeoutMs;
+    private final int maxUnacked;
+
+    private final ConcurrentSkipListMap<Long, Item> unacked = new ConcurrentSkipListMap<>();
+    private long nextSeq = 1;
+    private long sentUpTo = 0;
+    private volatile long ackedSeq = 0;
+    private volatile long lastProgressAt = System.currentTimeMillis();
+
+    private final AtomicLong batchesSent = new AtomicLong();
+    private final AtomicLong resends = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    ReplicationStream(Client client, String targetId, int batchSize, long resendTimeoutMs, int maxUnacked) {
+        this.client = client;
+        this.targetId = targetId;
+        this.epoch = System.currentTimeMillis() ^ ((long) System.identityHashCode(this) << 32);
+        this.batchSize = batchSize;
+        this.resendTimeoutMs = resendTimeoutMs;
+        this.maxUnacked = maxUnacked;
+    }
+
+    String getTargetId() {
+        return targetId;
+    }
+
+    // adauga o stire in flux si intoarce true daca exista un lot complet de trimis
+    synchronized boolean enqueue(News news, int hops) {
+        unacked.put(nextSeq++, new Item(news, hops));
+        // memoria ramane limitata: cele mai vechi stiri neconfirmate se pierd
+        while (unacked.size() > maxUnacked) {
+            unacked.pollFirstEntry();
+            dropped.incrementAndGet();
+        }
+        return nextSeq - 1 - sentUpTo >= batchSize;
+    }
+
+    // secventa ultimei stiri adaugate in flux
+    synchronized long lastSeq() {
+        return nextSeq - 1;
+    }
+
+    // true daca tinta a confirmat stirile pana la seq inclusiv
+    boolean isAcked(long seq) {
+        return ackedSeq >= seq;
+    }
+
+    // trimite, in loturi, toate stirile inca netrimise. poate bloca dupa fereastra de publicari,
+    // deci nu se apeleaza de pe planificatorul comun
+    void flush() {
+        publish(prepareFlush());
+    }
+
+    private synchronized List<Outgoing> prepareFlush() {
+        if (sentUpTo == nextSeq - 1) {
+            return Collections.emptyList();
+        }
+        if (ackedSeq == sentUpTo) {
+            // primul lot dupa o perioada fara nimic neconfirmat porneste ceasul de retrimitere
+            lastProgressAt = System.currentTimeMillis();
+        }
+        return batchesFrom(sentUpTo);
+    }
+
+    // retrimite intervalul neconfirmat daca tinta nu a mai confirmat nimic de prea mult timp
+    void resendIfStale(long now) {
+        publish(prepareResend(now));
+    }
+
+    private synchronized List<Outgoing> prepareResend(long now) {
+        if (ackedSeq >= sentUpTo || now - lastProgressAt < resendTimeoutMs) {
+            return Collections.emptyList();
+        }
+        resends.incrementAndGet();
+        client.writeToLogFile(LogLevel.WARN, "[Replicare] Retrimitere catre " + targetId
+                + " de la secventa " + (ackedSeq + 1) + " (neconfirmate: " + unacked.size() + ")");
+        lastProgressAt = now;
+        return batchesFrom(ackedSeq);
+    }
+
+    private List<Outgoing> batchesFrom(long afterSeq) {
+        List<Outgoing> out = new ArrayList<>();
+        List<Item> batch = new ArrayList<>(batchSize);
+        long first = -1;
+        long expected = -1;
+        for (Map.Entry<Long, Item> e : unacked.tailMap(afterSeq, false).entrySet()) {
+            long seq = e.getKey();
+            if (batch.size() == batchSize || (expected != -1 && seq != expected)) {
+                out.add(encode(first, batch));
+                batch = new ArrayList<>(batchSize);
+            }
+            if (batch.isEmpty()) {
+                first = seq;
+            }
+            batch.add(e.getValue());
+            expected = seq + 1;
+            sentUpTo = Math.max(sentUpTo, seq);
+        }
+        if (!batch.isEmpty()) {
+            out.add(encode(first, batch));
+        }
+        return out;
+    }
+
+    private Outgoing encode(long firstSeq, List<Item> batch) {
+        List<News> news = new ArrayList<>(batch.size());
+        int[] hops = new int[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            news.add(batch.get(i).news);
+            hops[i] = batch.get(i).hops;
+        }
+        // tot ce e sub prima secventa pastrata a fost confirmat sau pierdut
+        Long retained = unacked.isEmpty() ? null : unacked.firstKey();
+        long floor = retained != null ? retained - 1 : firstSeq - 1;
+        ReplicationEnvelope envelope = new ReplicationEnvelope(client.getId(), epoch, floor, firstSeq, news, hops);
+        return new Outgoing(firstSeq, envelope.lastSeq(), envelope.encode(NewsCodecs.wire()));
+    }
+
+    private void publish(List<Outgoing> batches) {
+        for (Outgoing batch : batches) {
+            batchesSent.incrementAndGet();
+            client.publishAsync("replicate/" + targetId, batch.payload, false).whenComplete((ok, err) -> {
+                if (err != null) {
+                    // lotul ramane neconfirmat si va fi retrimis dupa timeout
+                    client.writeToLogFile(LogLevel.WARN, "[Replicare] Lotul " + batch.firstSeq + ".." + batch.lastSeq
+                            + " catre " + targetId + " nu a fost trimis: " + err.getMessage());
+                }
+            });
+        }
+    }
+
+    // confirmare cumulativa: tinta are toate stirile pana la seq inclusiv
+    void onAck(long ackEpoch, long seq) {
+        if (ackEpoch != epoch || seq <= ackedSeq) {
+            return;
+        }
+        synchronized (this) {
+            if (seq <= ackedSeq) {
+                return;
+            }
+            ackedSeq = seq;
+            unacked.headMap(seq, true).clear();
+            lastProgressAt = System.currentTimeMillis();
+        }
+    }
+
+    // numarul de stiri trimise sau in asteptare care nu au fost inca confirmate de tinta
+    long getLag() {
+        return unacked.size();
+    }
+
+    long getBatchesSent() {
+        return batchesSent.get();
+    }
+
+    long getResends() {
+        return resends.get();
+    }
+
+    long getDropped() {
+        return dropped.get();
+    }
+}
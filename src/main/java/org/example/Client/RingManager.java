@@ -1,31 +1,92 @@
 package org.example.Client;
 
-import org.eclipse.paho.client.mqttv3.MqttException;
-
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 // clasa ringmanager gestioneaza topologia inelara, replicarea stirilor
 // si monitorizarea starii nodurilor prin mesaje heartbeat
 public class RingManager {
 
     private final Client client;
+    private final Metrics.Counter nodeFailures;
     private String predecessorId;
     private String successorId;
-
-    // flag-uri separate pentru a evita spam-ul de gestionare a esecurilor
-    private boolean handlingSuccessorFailure = false;
-    private boolean handlingPredecessorFailure = false;
-
-    // contoare de esecuri pentru succesor si predecesor
-    private final Map<String, Integer> heartbeatFailures = new ConcurrentHashMap<>();
-    private final Map<String, Integer> predecessorFailures = new ConcurrentHashMap<>();
+    // urmatorii k-1 noduri distincte din inel; primul este successorId
+    private List<String> successors = Collections.emptyList();
+    // membrii inelului, sortati; null pana la prima formare a inelului
+    private List<String> members;
+
+    // detectorul de caderi pentru vecini, alimentat de heartbeat-urile directe.
+    // pragul phi regleaza compromisul intre timpul de detectie si alarmele false
+    private final PhiAccrualFailureDetector failureDetector;
+
+    // fluxurile de replicare, cate unul pentru fiecare nod tinta
+    private final Map<String, ReplicationStream> replicationStreams = new ConcurrentHashMap<>();
+    // pentru fiecare expeditor: {epoca, ultima secventa primita fara goluri}
+    private final Map<String, long[]> replicationReceived = new ConcurrentHashMap<>();
+    private final int replicationBatchSize = AppConfig.getInt("replication.batchSize", 100);
+    private final long replicationLingerMs = AppConfig.getLong("replication.lingerMs", 50);
+    private final long replicationResendTimeoutMs = AppConfig.getLong("replication.resendTimeoutMs", 3000);
+    private final int replicationMaxUnacked = AppConfig.getInt("replication.maxUnacked", 100000);
+    // numarul total de copii ale unei stiri (nodul sursa + k-1 succesori)
+    private final int replicationFactor = Math.max(1, AppConfig.getInt("replication.factor", 2));
+    private final ReplicationMode replicationMode =
+            AppConfig.getEnum("replication.mode", ReplicationMode.class, ReplicationMode.PARALLEL);
+    // modul partitionat: fiecare nod pastreaza doar cheile proprii (+ replicile), dupa un inel de hash consistent
+    private final boolean partitioned = AppConfig.getBoolean("partition.enabled", false);
+    private final int virtualNodes = Math.max(1, AppConfig.getInt("partition.vnodes", 64));
+    private final int handoffChunk = Math.max(1, AppConfig.getInt("partition.handoffChunk", 1000));
+    private volatile HashRing hashRing;
+    // stirile predate altor noduri, scoase local dupa ce noii proprietari le confirma
+    private final Queue<PendingEviction> pendingEvictions = new ConcurrentLinkedQueue<>();
+    private boolean evictedSinceSnapshot = false;
+    // ritmul loturilor si predarea; planificatorul comun are un singur fir, deci sarcinile de predare
+    // nu ruleaza niciodata concurent. nimic de aici nu publica direct: publicarea poate astepta dupa
+    // fereastra de publicari, iar pe acelasi fir ruleaza heartbeat-urile si detectorul de caderi
+    private final ScheduledExecutorService replicationScheduler = ClientExecutors.scheduler();
+    // loturile sunt publicate de cel mult un fir din executorul blocking(); o cerere venita in timpul
+    // trimiterii este preluata de acelasi fir
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private final AtomicBoolean sendRequested = new AtomicBoolean();
+
+    // stiri predate care asteapta confirmarea fluxurilor pana la secventele date
+    private static final class PendingEviction {
+        final List<String> ids;
+        final Map<ReplicationStream, Long> waitFor;
+
+        PendingEviction(List<String> ids, Map<ReplicationStream, Long> waitFor) {
+            this.ids = ids;
+            this.waitFor = waitFor;
+        }
+    }
 
     // constructor
     public RingManager(Client client) {
         this.client = client;
+        this.nodeFailures = client.getMetrics().counter("heartbeat_node_failures_total",
+                "Vecini declarati cazuti de detectorul phi");
         this.predecessorId = null;
         this.successorId = null;
+        // id-ul nodului este setat dupa constructie (manageIdFile); inelul real este construit
+        // la primul updateRing, dupa anuntarea prezentei
+        String selfId = client.getId();
+        this.hashRing = new HashRing(selfId == null ? Collections.<String>emptySet() : Collections.singleton(selfId),
+                virtualNodes);
+        this.failureDetector = new PhiAccrualFailureDetector(
+                AppConfig.getDouble("heartbeat.phiThreshold", 8.0),
+                AppConfig.getInt("heartbeat.windowSize", 100),
+                AppConfig.getLong("heartbeat.minStdDevMs", 200),
+                AppConfig.getLong("heartbeat.acceptablePauseMs", 1000),
+                client.getHeartbeatIntervalMs());
+        replicationScheduler.scheduleWithFixedDelay(this::flushReplication,
+                replicationLingerMs, replicationLingerMs, TimeUnit.MILLISECONDS);
     }
 
     // seteaza id-ul predecesorului
@@ -48,158 +109,493 @@ public class RingManager {
         return successorId;
     }
 
-    // replica o stire catre succesorul nodului
+    // obtine succesorii care tin copiile stirilor acestui nod
+    public synchronized List<String> getSuccessors() {
+        return successors;
+    }
+
+    public int getReplicationFactor() {
+        return replicationFactor;
+    }
+
+    public ReplicationMode getReplicationMode() {
+        return replicationMode;
+    }
+
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+    // nodurile care trebuie sa pastreze stirea; in modul nepartitionat, toate
+    public List<String> ownersOf(String newsId) {
+        return hashRing.owners(newsId, replicationFactor);
+    }
+
+    // true daca stirea trebuie pastrata local. stirile "stergere" sunt pastrate peste tot,
+    // fiindca la repornire ele reaplica stergerile
+    public boolean isOwnedLocally(News news) {
+        return !partitioned || "stergere".equals(news.getTopic())
+                || ownersOf(news.getId()).contains(client.getId());
+    }
+
+    // replica o stire catre succesorii nodului; stirea intra in fluxul fiecarei tinte si este
+    // trimisa intr-un lot, fara a bloca apelantul.
+    // PARALLEL: cate un flux pentru fiecare succesor; CHAIN: doar primul succesor, care o trimite mai departe.
+    // in modul partitionat tintele sunt proprietarii stirii de pe inelul de hash
     public void replicateNews(News news) {
-        if (successorId == null || successorId.equals(client.getId())) {
-            // daca nu avem succesor sau succesorul este propriul nod, nu se face replicare
+        if (partitioned) {
+            for (String owner : ownersOf(news.getId())) {
+                if (!owner.equals(client.getId())) {
+                    enqueue(owner, news, 1);
+                }
+            }
             return;
         }
-        String replicateTopic = "replicate/" + successorId;
-        String payload = news.toJson();
-        int maxRetries = 3;
-        int attempt = 0;
-        boolean success = false;
-
-        while (attempt < maxRetries && !success) {
-            try {
-                client.publishOnTopic(replicateTopic, payload);
-                client.writeToLogFile("Replicare stire " + news.getId() + " catre succesorul " + successorId);
-                success = true;
-            } catch (MqttException e) {
-                attempt++;
-                client.writeToLogFile("Eroare la replicarea stirii " + news.getId() + " catre succesorul " + successorId + " (incercare " + attempt + "): " + e.getMessage());
-                try {
-                    Thread.sleep(1000); // pauza inainte de reincercarea replicarii
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                }
+        List<String> targets = getSuccessors();
+        if (targets.isEmpty()) {
+            // daca nu avem succesori (nod singur sau factor 1), nu se face replicare
+            return;
+        }
+        if (replicationMode == ReplicationMode.CHAIN) {
+            enqueue(targets.get(0), news, targets.size());
+        } else {
+            for (String target : targets) {
+                enqueue(target, news, 1);
             }
         }
+    }
 
-        if (!success) {
-            client.writeToLogFile("Esec la replicarea stirii " + news.getId() + " catre succesorul " + successorId + " dupa " + maxRetries + " incercari.");
+    private void enqueue(String target, News news, int hops) {
+        ReplicationStream stream = replicationStreams.computeIfAbsent(target, this::newStream);
+        if (stream.enqueue(news, hops)) {
+            // lot complet: nu asteptam urmatorul tick
+            requestSend();
         }
     }
 
-    // gestioneaza cazul in care succesorul nodului cade
-    public synchronized void handleSuccessorFailure() {
-        if (handlingSuccessorFailure) return;
-        handlingSuccessorFailure = true;
+    // la schimbarea membrilor in modul partitionat: parcurge stirile locale in bucati de
+    // handoffChunk (intre bucati fluxurile continua sa trimita) si preda fiecare stire noilor
+    // ei proprietari. o singura copie trimite: primul proprietar vechi care a ramas in inel.
+    // stirile pe care nodul nu le mai detine sunt scoase dupa confirmarea noilor proprietari
+    private void handoff(HashRing oldRing) {
+        if (!client.getNewsList().isLoaded()) {
+            // coada jurnalului inca se incarca; o eliminare acum ar fi anulata de reluare
+            replicationScheduler.schedule(() -> handoff(oldRing), 1, TimeUnit.SECONDS);
+            return;
+        }
+        List<News> local = client.getNewsList().getAllNews();
+        handoffChunk(oldRing, local, 0, new long[2]);
+    }
 
-        // Dacă inelul conține un singur nod, nu se face nimic
-        if (client.getActiveNodes().size() == 1) {
-            handlingSuccessorFailure = false;
+    private void handoffChunk(HashRing oldRing, List<News> local, int from, long[] moved) {
+        HashRing ring = hashRing;
+        String me = client.getId();
+        List<String> dropNow = new ArrayList<>();
+        List<String> dropAfterAck = new ArrayList<>();
+        Map<ReplicationStream, Long> waitFor = new HashMap<>();
+        int to = Math.min(local.size(), from + handoffChunk);
+        for (int i = from; i < to; i++) {
+            News n = local.get(i);
+            if ("stergere".equals(n.getTopic())) {
+                continue;
+            }
+            List<String> owners = ring.owners(n.getId(), replicationFactor);
+            List<String> oldOwners = oldRing.owners(n.getId(), replicationFactor);
+            String sender = me;
+            for (String o : oldOwners) {
+                if (ring.nodes().contains(o)) {
+                    sender = o;
+                    break;
+                }
+            }
+            boolean sent = false;
+            if (sender.equals(me)) {
+                for (String owner : owners) {
+                    if (!owner.equals(me) && !oldOwners.contains(owner)) {
+                        ReplicationStream stream = replicationStreams.computeIfAbsent(owner, this::newStream);
+                        stream.enqueue(n, 1);
+                        waitFor.put(stream, stream.lastSeq());
+                        sent = true;
+                        moved[0]++;
+                    }
+                }
+            }
+            if (!owners.contains(me)) {
+                (sent ? dropAfterAck : dropNow).add(n.getId());
+            }
+        }
+        for (String id : dropNow) {
+            client.getNewsList().evict(id);
+        }
+        moved[1] += dropNow.size() + dropAfterAck.size();
+        if (!dropAfterAck.isEmpty()) {
+            pendingEvictions.add(new PendingEviction(dropAfterAck, waitFor));
+        }
+        evictedSinceSnapshot |= !dropNow.isEmpty();
+
+        if (to < local.size()) {
+            replicationScheduler.execute(() -> handoffChunk(oldRing, local, to, moved));
             return;
         }
+        client.writeToLogFile("[Partitionare] Predare terminata: " + moved[0] + " copii trimise, "
+                + moved[1] + " stiri care nu mai apartin nodului");
+        evictHandedOff();
+    }
 
+    // scoate stirile predate pentru care noii proprietari au confirmat primirea
+    private void evictHandedOff() {
+        PendingEviction pending;
+        while ((pending = pendingEvictions.peek()) != null) {
+            boolean abandoned = false;
+            for (ReplicationStream stream : pending.waitFor.keySet()) {
+                abandoned |= replicationStreams.get(stream.getTargetId()) != stream;
+            }
+            if (abandoned) {
+                // tinta a iesit din inel; stirile raman aici pana la urmatoarea predare
+                pendingEvictions.poll();
+                continue;
+            }
+            if (!isAcked(pending)) {
+                break;
+            }
+            pendingEvictions.poll();
+            for (String id : pending.ids) {
+                client.getNewsList().evict(id);
+            }
+            evictedSinceSnapshot = true;
+        }
+        if (evictedSinceSnapshot && pendingEvictions.isEmpty()) {
+            // snapshot-ul fixeaza eliminarile; altfel reluarea jurnalului le-ar readuce
+            evictedSinceSnapshot = false;
+            ClientExecutors.blocking().execute(() -> {
+                try {
+                    client.getNewsList().snapshot();
+                } catch (IOException e) {
+                    client.writeToLogFile(LogLevel.ERROR, "[Partitionare] Snapshot-ul dupa predare a esuat: " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    private boolean isAcked(PendingEviction pending) {
+        for (Map.Entry<ReplicationStream, Long> e : pending.waitFor.entrySet()) {
+            if (!e.getKey().isAcked(e.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // in modul lant, receptorul trimite stirea mai departe cat timp mai are hop-uri,
+    // dar nu inapoi catre autorul ei sau catre cel de la care a primit-o
+    private void forward(News news, int hops, String fromId) {
         String succ = getSuccessor();
-        if (succ == null || succ.equals(client.getId())) {
-            handlingSuccessorFailure = false;
+        if (hops <= 1 || succ == null || succ.equals(client.getId())
+                || succ.equals(fromId) || succ.equals(authorOf(news))) {
             return;
         }
+        enqueue(succ, news, hops - 1);
+    }
 
-        int failCount = heartbeatFailures.getOrDefault(succ, 0) + 1;
-        heartbeatFailures.put(succ, failCount);
+    // nodul care a creat stirea (id-urile au forma "<autor>:<uuid>")
+    private static String authorOf(News news) {
+        String id = news.getId();
+        int sep = id.indexOf(':');
+        return sep < 0 ? null : id.substring(0, sep);
+    }
 
-        client.writeToLogFile("[RingManager] esec Heartbeat nr. " + failCount + " pentru succesorul " + succ);
+    private ReplicationStream newStream(String targetId) {
+        return new ReplicationStream(client, targetId, replicationBatchSize,
+                replicationResendTimeoutMs, replicationMaxUnacked);
+    }
 
-        if (failCount == 3) {
-            System.out.println("[RingManager] Esec Heartbeat " + failCount + " la " + succ);
-        } else if (failCount >= 5) {
-            System.out.println("[RingManager] Timeout Heartbeat detectat. Succesorul " + succ + " este considerat cazut.");
-            client.writeToLogFile("Timeout Heartbeat. Succesorul " + succ + " este considerat cazut.");
-            client.writeToLogFile("[RingManager] Se cauta un nou succesor...");
+    // tick-ul planificatorului: preda trimiterea si verifica eliminarile, fara sa publice
+    private void flushReplication() {
+        requestSend();
+        if (partitioned) {
+            evictHandedOff();
+        }
+    }
 
-            // Trimite "leave:succ" ca mesaj reținut pentru a elimina mesajul "join:succ"
-            try {
-                if (client.getActiveNodes().contains(succ)) {
-                    client.publishOnTopic("ring_discovery", "leave:" + succ, true); // Mesaj reținut
-                    client.writeToLogFile("Trimitere mesaj leave pentru " + succ);
+    private void requestSend() {
+        sendRequested.set(true);
+        if (sending.compareAndSet(false, true)) {
+            ClientExecutors.blocking().execute(this::sendReplication);
+        }
+    }
+
+    private void sendReplication() {
+        do {
+            sendRequested.set(false);
+            long now = System.currentTimeMillis();
+            for (ReplicationStream stream : replicationStreams.values()) {
+                try {
+                    stream.flush();
+                    stream.resendIfStale(now);
+                } catch (RuntimeException e) {
+                    client.writeToLogFile(LogLevel.ERROR, "[Replicare] Eroare in fluxul catre " + stream.getTargetId() + ": " + e.getMessage());
                 }
-            } catch (MqttException e) {
-                client.writeToLogFile("[RingManager] Eroare la trimiterea leave pt " + succ + ": " + e.getMessage());
             }
+            sending.set(false);
+        } while (sendRequested.get() && sending.compareAndSet(false, true));
+    }
 
-            heartbeatFailures.put(succ, 0); // Reset contor
+    // primeste un lot de replicare, il aplica si confirma cumulativ expeditorului.
+    // confirmarea pleaca doar dupa ce stirile lotului sunt persistate: dupa ea expeditorul isi
+    // goleste fluxul si nu mai retrimite lotul. daca persistarea esueaza, lotul nu este confirmat
+    // si va fi retrimis dupa timeout. jurnalul scrie in ordine, deci loturile se termina in ordine
+    public void handleReplicationBatch(byte[] payload) {
+        ReplicationEnvelope envelope;
+        try {
+            envelope = ReplicationEnvelope.decode(payload);
+        } catch (IllegalArgumentException e) {
+            client.writeToLogFile(LogLevel.WARN, "[Replicare] Lot invalid ignorat: " + e.getMessage());
+            return;
+        }
+        CompletableFuture<?>[] persisted = new CompletableFuture<?>[envelope.news.size()];
+        for (int i = 0; i < envelope.news.size(); i++) {
+            News n = envelope.news.get(i);
+            persisted[i] = client.processNewsInternal(n, true);
+            forward(n, envelope.hops[i], envelope.senderId);
+        }
+        CompletableFuture.allOf(persisted).whenComplete((ok, err) -> {
+            if (err != null) {
+                client.writeToLogFile(LogLevel.WARN, "[Replicare] Lotul " + envelope.firstSeq + ".." + envelope.lastSeq()
+                        + " de la " + envelope.senderId + " nu a fost persistat, nu este confirmat: " + err.getMessage());
+                return;
+            }
+            acknowledge(envelope);
+        });
+    }
 
-            try {
-                Thread.sleep(2000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+    private void acknowledge(ReplicationEnvelope envelope) {
+        long acked;
+        synchronized (replicationReceived) {
+            long[] state = replicationReceived.get(envelope.senderId);
+            if (state == null || state[0] != envelope.epoch) {
+                state = new long[]{envelope.epoch, 0};
+                replicationReceived.put(envelope.senderId, state);
             }
+            // secventele sub prag nu mai pot veni, expeditorul nu le mai are
+            state[1] = Math.max(state[1], envelope.floorSeq);
+            if (envelope.firstSeq <= state[1] + 1) {
+                state[1] = Math.max(state[1], envelope.lastSeq());
+            }
+            acked = state[1];
+        }
+        client.writeToLogFile("[Replicare] Lot " + envelope.firstSeq + ".." + envelope.lastSeq()
+                + " de la " + envelope.senderId + " aplicat, confirmat pana la " + acked);
+
+        String ack = "ack:" + client.getId() + ":" + envelope.epoch + ":" + acked;
+        client.publishAsync("replicate_ack/" + envelope.senderId, ack.getBytes(StandardCharsets.UTF_8), false)
+                .whenComplete((ok, err) -> {
+                    if (err != null) {
+                        client.writeToLogFile(LogLevel.WARN, "[Replicare] Confirmarea catre " + envelope.senderId
+                                + " nu a fost trimisa: " + err.getMessage());
+                    }
+                });
+    }
 
-            removeNode(succ);
-            updateRing();
+    // confirmare de la o tinta: "ack:<nod>:<epoca>:<secventa>"
+    public void handleReplicationAck(String payload) {
+        String[] parts = payload.split(":");
+        if (parts.length != 4 || !parts[0].equals("ack")) {
+            return;
+        }
+        ReplicationStream stream = replicationStreams.get(parts[1]);
+        if (stream == null) {
+            return;
+        }
+        try {
+            stream.onAck(Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+        } catch (NumberFormatException e) {
+            client.writeToLogFile(LogLevel.WARN, "[Replicare] Confirmare invalida: " + payload);
         }
-        handlingSuccessorFailure = false;
     }
 
+    // numarul de stiri replicate dar neconfirmate inca, pe toate fluxurile
+    public long getReplicationLag() {
+        long lag = 0;
+        for (ReplicationStream stream : replicationStreams.values()) {
+            lag += stream.getLag();
+        }
+        return lag;
+    }
 
-    // gestioneaza cazul in care predecesorul nodului cade
+    public long getReplicationResends() {
+        long resends = 0;
+        for (ReplicationStream stream : replicationStreams.values()) {
+            resends += stream.getResends();
+        }
+        return resends;
+    }
 
-    public synchronized void handlePredecessorFailure() {
-        if (handlingPredecessorFailure) return;
-        handlingPredecessorFailure = true;
+    // la schimbarea membrilor (mod nepartitionat): grupul de replici al unui autor este format din
+    // primele k noduri ale inelului incepand cu pozitia autorului, deci o intrare sau o iesire
+    // schimba grupurile doar pentru autorii din intervalele vecine. pentru fiecare astfel de autor,
+    // primul proprietar vechi ramas in inel trimite stirile doar catre proprietarii noi.
+    // la prima formare a inelului (sau cand nodul era singur) nu se stie cine avea ce: trimite
+    // doar primul proprietar nou, deci fiecare nod isi re-trimite stirile proprii ca inainte
+    private void rereplicate(List<String> oldMembers, List<String> newMembers) {
+        replicationStreams.keySet().retainAll(newMembers);
+        ClientExecutors.blocking().execute(() -> rereplicateLocal(oldMembers, newMembers));
+    }
 
-        // Dacă inelul conține un singur nod, nu se face nimic
-        if (client.getActiveNodes().size() == 1) {
-            handlingPredecessorFailure = false;
+    private void rereplicateLocal(List<String> oldMembers, List<String> newMembers) {
+        NewsList list = client.getNewsList();
+        if (!list.isLoaded()) {
+            // coada jurnalului inca se incarca; reluam dupa incarcare ca sa nu ratam stiri
+            replicationScheduler.schedule(() -> ClientExecutors.blocking().execute(
+                    () -> rereplicateLocal(oldMembers, newMembers)), 1, TimeUnit.SECONDS);
             return;
         }
-
-        String pred = getPredecessor();
-        if (pred == null || pred.equals(client.getId())) {
-            handlingPredecessorFailure = false;
+        // doar autorii al caror grup s-a schimbat si pentru care acest nod este expeditorul
+        Map<String, List<String>> targets = new HashMap<>();
+        for (String author : list.authors()) {
+            List<String> to = newReplicaTargets(author, oldMembers, newMembers);
+            if (!to.isEmpty()) {
+                targets.put(author, to);
+            }
+        }
+        if (targets.isEmpty()) {
             return;
         }
+        int count = 0;
+        // parcurgere pe galeti, fara o copie a intregii liste si fara lock-ul tinut mult
+        for (int bucket = 0; bucket < BucketDigest.LEAVES; bucket++) {
+            for (String id : list.idsInBucket(bucket)) {
+                List<String> to = targets.get(NewsList.authorOf(id));
+                News n = to == null ? null : list.getNewsById(id);
+                if (n == null) {
+                    continue;
+                }
+                for (String target : to) {
+                    enqueue(target, n, 1);
+                }
+                count++;
+            }
+        }
+        client.writeToLogFile("[Replicare] " + count + " stiri re-replicate catre proprietarii noi: " + targets);
+    }
 
-        int failCount = predecessorFailures.getOrDefault(pred, 0) + 1;
-        predecessorFailures.put(pred, failCount);
-
-        client.writeToLogFile("[RingManager] esec Heartbeat nr. " + failCount + " pentru predecesorul " + pred);
-
-        if (failCount == 3) {
-            System.out.println("[RingManager] Esec Heartbeat " + failCount + " la " + pred);
-        } else if (failCount >= 5) {
-            System.out.println("[RingManager] Timeout detectat pentru predecesor: " + pred);
-            client.writeToLogFile("Timeout detectat pentru predecesor: " + pred);
-            client.writeToLogFile("[RingManager] Se cauta un nou predecesor...");
-
-            // Trimite "leave:pred" ca mesaj reținut pentru a elimina mesajul "join:pred"
-            try {
-                if (client.getActiveNodes().contains(pred)) {
-                    client.publishOnTopic("ring_discovery", "leave:" + pred, true); // Mesaj reținut
-                    client.writeToLogFile("Trimitere mesaj leave pentru " + pred);
+    // proprietarii noi catre care acest nod trebuie sa trimita stirile autorului; gol daca nu este
+    // expeditorul desemnat
+    private List<String> newReplicaTargets(String author, List<String> oldMembers, List<String> newMembers) {
+        String me = client.getId();
+        int position = client.getNodeIndex(author);
+        List<String> newGroup = replicaGroup(newMembers, position);
+        List<String> oldGroup;
+        String sender = null;
+        if (oldMembers == null || oldMembers.size() <= 1) {
+            oldGroup = Collections.singletonList(me);
+            sender = newGroup.isEmpty() ? null : newGroup.get(0);
+        } else {
+            oldGroup = replicaGroup(oldMembers, position);
+            for (String owner : oldGroup) {
+                if (newMembers.contains(owner)) {
+                    sender = owner;
+                    break;
                 }
-            } catch (MqttException e) {
-                client.writeToLogFile("[RingManager] Eroare la trimiterea leave pt " + pred + ": " + e.getMessage());
             }
+        }
+        if (!me.equals(sender)) {
+            return Collections.emptyList();
+        }
+        List<String> targets = new ArrayList<>();
+        for (String owner : newGroup) {
+            if (!owner.equals(me) && !oldGroup.contains(owner)) {
+                targets.add(owner);
+            }
+        }
+        return targets;
+    }
 
-            predecessorFailures.put(pred, 0); // Reset contor
+    // grupul de replici pentru pozitia unui autor: primele min(k, n) noduri incepand cu autorul sau,
+    // daca autorul nu este in inel, cu primul nod de dupa pozitia lui (acelasi grup ca replicateNews)
+    private List<String> replicaGroup(List<String> ring, int position) {
+        int n = ring.size();
+        if (n == 0) {
+            return Collections.emptyList();
+        }
+        int start = 0;
+        while (start < n && client.getNodeIndex(ring.get(start)) < position) {
+            start++;
+        }
+        if (start == n) {
+            start = 0;
+        }
+        int size = Math.min(replicationFactor, n);
+        List<String> group = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            group.add(ring.get((start + i) % n));
+        }
+        return group;
+    }
 
-            try {
-                Thread.sleep(2000); // Pauză de 2 secunde pentru propagare
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+    // vecinii carora le trimitem heartbeat-uri si pe care ii monitorizam
+    public synchronized List<String> getNeighbours() {
+        List<String> neighbours = new ArrayList<>(2);
+        for (String node : new String[]{successorId, predecessorId}) {
+            if (node != null && !node.equals(client.getId()) && !neighbours.contains(node)) {
+                neighbours.add(node);
             }
+        }
+        return neighbours;
+    }
 
-            removeNode(pred);
-            updateRing();
+    public void heartbeatReceived(String nodeId) {
+        failureDetector.heartbeat(nodeId, System.currentTimeMillis());
+    }
+
+    // nivelul de suspiciune phi pentru un nod
+    public double getPhi(String nodeId) {
+        return failureDetector.phi(nodeId, System.currentTimeMillis());
+    }
+
+    // declara cazut orice vecin al carui phi a depasit pragul
+    public void checkNeighbours() {
+        long now = System.currentTimeMillis();
+        for (String node : getNeighbours()) {
+            double phi = failureDetector.phi(node, now);
+            if (phi >= failureDetector.getThreshold()) {
+                handleNodeFailure(node, phi);
+            }
         }
-        handlingPredecessorFailure = false;
     }
 
-    public void resetFailureCount(String nodeId) {
-        heartbeatFailures.put(nodeId, 0);
-        predecessorFailures.put(nodeId, 0);
+    // un vecin este considerat cazut: anuntam iesirea lui si refacem inelul
+    private synchronized void handleNodeFailure(String nodeId, double phi) {
+        if (!client.getActiveNodes().contains(nodeId)) {
+            return;
+        }
+        nodeFailures.inc();
+        System.out.println("[RingManager] Nodul " + nodeId + " este considerat cazut (phi=" + String.format("%.1f", phi) + ")");
+        client.writeToLogFile(LogLevel.WARN, "[RingManager] Nodul " + nodeId + " este considerat cazut (phi="
+                + String.format("%.1f", phi) + "). Se reface inelul...");
+
+        // Trimite "leave:nod" ca mesaj reținut pentru a elimina mesajul "join:nod".
+        // detectorul ruleaza pe planificator, iar publicarea poate astepta dupa fereastra de publicari
+        ClientExecutors.blocking().execute(() ->
+                client.publishAsync("ring_discovery", ("leave:" + nodeId).getBytes(StandardCharsets.UTF_8), true)
+                        .whenComplete((ok, err) -> {
+                            if (err != null) {
+                                client.writeToLogFile(LogLevel.WARN, "[RingManager] Eroare la trimiterea leave pt " + nodeId + ": " + err.getMessage());
+                            } else {
+                                client.writeToLogFile("Trimitere mesaj leave pentru " + nodeId);
+                            }
+                        }));
+        removeNode(nodeId);
     }
 
+    // monitorizarea nodului reincepe de la zero, cu ceasul pornit acum
+    public void resetFailureDetector(String nodeId) {
+        failureDetector.reset(nodeId, System.currentTimeMillis());
+    }
 
     // elimina un nod din inel si actualizeaza topologia
     public void removeNode(String nodeId) {
         client.removeActiveNode(nodeId);
-        heartbeatFailures.remove(nodeId);
-        predecessorFailures.remove(nodeId);
+        failureDetector.remove(nodeId);
 
         client.writeToLogFile("Nodul " + nodeId + " a fost eliminat din inel.");
         System.out.println("[" + client.getId() + "] Nodul " + nodeId + " a fost eliminat din inel.");
@@ -223,6 +619,34 @@ public class RingManager {
         String newPredecessor = sortedNodes.get((index - 1 + sortedNodes.size()) % sortedNodes.size());
         String newSuccessor = sortedNodes.get((index + 1) % sortedNodes.size());
 
+        if (partitioned && !hashRing.nodes().equals(new HashSet<>(sortedNodes))) {
+            HashRing oldRing = hashRing;
+            hashRing = new HashRing(sortedNodes, virtualNodes);
+            replicationStreams.keySet().retainAll(sortedNodes);
+            client.writeToLogFile("[Partitionare] Inel de hash actualizat: " + sortedNodes.size() + " noduri x "
+                    + virtualNodes + " noduri virtuale");
+            replicationScheduler.execute(() -> handoff(oldRing));
+        }
+
+        List<String> oldSuccessors = this.successors;
+        int copies = Math.min(replicationFactor - 1, sortedNodes.size() - 1);
+        List<String> newSuccessors = new ArrayList<>(copies);
+        for (int i = 1; i <= copies; i++) {
+            newSuccessors.add(sortedNodes.get((index + i) % sortedNodes.size()));
+        }
+        if (!newSuccessors.equals(oldSuccessors)) {
+            this.successors = Collections.unmodifiableList(newSuccessors);
+            client.writeToLogFile("Succesori pentru replicare (k=" + replicationFactor + ", "
+                    + replicationMode + "): " + newSuccessors);
+        }
+        List<String> oldMembers = this.members;
+        if (!sortedNodes.equals(oldMembers)) {
+            this.members = Collections.unmodifiableList(sortedNodes);
+            if (!partitioned) {
+                rereplicate(oldMembers, this.members);
+            }
+        }
+
         if (!newPredecessor.equals(this.predecessorId) || !newSuccessor.equals(this.successorId)) {
             setPredecessor(newPredecessor);
             setSuccessor(newSuccessor);
@@ -230,15 +654,13 @@ public class RingManager {
             // Reset la timp și contor pentru NOUL succesor
             if (!newSuccessor.equals(oldSuccessor)) {
                 client.writeToLogFile("Succesor schimbat din " + oldSuccessor + " in " + newSuccessor);
-                resetFailureCount(newSuccessor);
-                client.getLastHeartbeatReceived().set(System.currentTimeMillis()); // Reset time pentru succesor
+                resetFailureDetector(newSuccessor);
             }
 
             // Reset la timp și contor pentru NOUL predecesor
             if (!newPredecessor.equals(oldPredecessor)) {
                 client.writeToLogFile("Predecesor schimbat din " + oldPredecessor + " in " + newPredecessor);
-                resetFailureCount(newPredecessor);
-                client.getLastPredecessorHeartbeatReceived().set(System.currentTimeMillis()); // Reset time pentru predecesor
+                resetFailureDetector(newPredecessor);
             }
 
             client.writeToLogFile("Succesor nou: " + newSuccessor + ", Predecesor nou: " + newPredecessor);
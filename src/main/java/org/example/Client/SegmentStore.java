@@ -0,0 +1,454 @@
+package org.example.Client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// clasa SegmentStore este un jurnal append-only impartit in segmente de dimensiune fixa.
+// publicatorii pun inregistrarile intr-o coada si primesc un CompletableFuture;
+// un singur thread de scriere le grupeaza in loturi (group commit) pe un FileChannel
+// deschis permanent si aplica politica de fsync configurata.
+//
+// formatul unei inregistrari: [int lungime][int crc32(payload)][payload]
+public class SegmentStore implements AutoCloseable {
+
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_BATCH = 1024;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    // o inregistrare care asteapta sa fie scrisa
+    private static final class PendingWrite {
+        final byte[] payload;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        final long enqueuedNanos = System.nanoTime();
+        // doar pentru appendLocated: primeste segmentul in care a fost scrisa inregistrarea
+        final CompletableFuture<Long> located;
+        long segment;
+
+        PendingWrite(byte[] payload, boolean locate) {
+            this.payload = payload;
+            this.located = locate ? new CompletableFuture<>() : null;
+        }
+
+        void complete() {
+            future.complete(null);
+            if (located != null) {
+                located.complete(segment);
+            }
+        }
+
+        void fail(Throwable e) {
+            future.completeExceptionally(e);
+            if (located != null) {
+                located.completeExceptionally(e);
+            }
+        }
+    }
+
+    // pozitia in jurnal (segment, offset) pana la care toate inregistrarile sunt scrise
+    public static final class Position {
+        public final long segment;
+        public final long offset;
+
+        public Position(long segment, long offset) {
+            this.segment = segment;
+            this.offset = offset;
+        }
+
+        @Override
+        public String toString() {
+            return segment + ":" + offset;
+        }
+    }
+
+    // marcheaza oprirea; nu se foloseste interrupt, care ar inchide FileChannel-ul
+    private static final PendingWrite SHUTDOWN = new PendingWrite(new byte[0], false);
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalMs;
+
+    private final LinkedBlockingQueue<PendingWrite> pending = new LinkedBlockingQueue<>();
+    // latenta append -> scris (si fsync, dupa politica); null daca nu este masurata
+    private volatile Metrics.Histogram appendLatency;
+    private volatile boolean running;
+    private Thread writerThread;
+
+    // stare folosita de thread-ul de scriere
+    private FileChannel channel;
+    private long segmentIndex;
+    private long segmentSize;
+    private boolean dirty;
+    private long lastForce = System.currentTimeMillis();
+    // publicata dupa fiecare scriere, citita de snapshot
+    private volatile Position writtenPosition = new Position(1, 0);
+    // cate inregistrari din lotul curent sunt scrise (iar pentru PER_BATCH si fortate pe disc);
+    // folosit doar de thread-ul de scriere
+    private int batchDone;
+    private ByteBuffer batchBuffer = ByteBuffer.allocate(256 * 1024);
+    private final CRC32 crc = new CRC32();
+
+    public SegmentStore(String directory, long segmentBytes, FsyncPolicy fsyncPolicy, long fsyncIntervalMs) {
+        this.directory = Paths.get(directory);
+        // segmentele sunt mapate in memorie la citire, deci raman sub 2 GB
+        this.segmentBytes = Math.min(segmentBytes, Integer.MAX_VALUE);
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalMs = fsyncIntervalMs;
+    }
+
+    // deschide ultimul segment (trunchiind o eventuala scriere incompleta) si porneste writer-ul
+    public synchronized void start() throws IOException {
+        if (running) return;
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            openSegment(1);
+        } else {
+            Path last = segments.get(segments.size() - 1);
+            long validLength = scanSegment(last, 0, 0, null);
+            segmentIndex = parseIndex(last);
+            channel = FileChannel.open(last, StandardOpenOption.WRITE);
+            channel.truncate(validLength);
+            channel.position(validLength);
+            segmentSize = validLength;
+        }
+        writtenPosition = new Position(segmentIndex, segmentSize);
+        running = true;
+        writerThread = ClientExecutors.newThread("segment-store-writer", this::writerLoop);
+        writerThread.start();
+    }
+
+    // adauga o inregistrare; viitorul se completeaza dupa scriere (si fsync, daca politica o cere)
+    public CompletableFuture<Void> append(byte[] payload) {
+        return enqueue(new PendingWrite(payload, false)).future;
+    }
+
+    // ca append, dar viitorul primeste indexul segmentului in care a fost scrisa inregistrarea
+    // (pentru cine sterge segmentele dupa continutul lor, ca Outbox)
+    public CompletableFuture<Long> appendLocated(byte[] payload) {
+        return enqueue(new PendingWrite(payload, true)).located;
+    }
+
+    private PendingWrite enqueue(PendingWrite write) {
+        if (!running) {
+            write.fail(new IOException("SegmentStore nu este pornit"));
+            return write;
+        }
+        pending.add(write);
+        return write;
+    }
+
+    void setAppendLatency(Metrics.Histogram histogram) {
+        this.appendLatency = histogram;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    // parcurge toate inregistrarile valide din toate segmentele, in ordinea scrierii
+    public void replay(Consumer<byte[]> consumer) throws IOException {
+        replayFrom(new Position(0, 0), consumer);
+    }
+
+    // parcurge doar inregistrarile scrise dupa pozitia data (coada de dupa un snapshot)
+    public void replayFrom(Position from, Consumer<byte[]> consumer) throws IOException {
+        scanFrom(from, (record, next) -> {
+            consumer.accept(record);
+            return true;
+        });
+    }
+
+    // primeste o inregistrare si pozitia de dupa ea; intoarce false ca parcurgerea sa se opreasca
+    public interface RecordVisitor {
+        boolean visit(byte[] record, Position next);
+    }
+
+    // ca replayFrom, dar cu pozitia fiecarei inregistrari, ca o citire ulterioara sa poata relua de acolo
+    public void scanFrom(Position from, RecordVisitor visitor) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        for (Path segment : listSegments()) {
+            long index = parseIndex(segment);
+            if (index < from.segment) {
+                continue;
+            }
+            if (scanSegment(segment, index, index == from.segment ? from.offset : 0, visitor) < 0) {
+                return;
+            }
+        }
+    }
+
+    // pozitia pana la care toate inregistrarile primite au fost scrise in fisier
+    public Position getWrittenPosition() {
+        return writtenPosition;
+    }
+
+    // sterge segmentele acoperite integral de un snapshot
+    public void deleteSegmentsBefore(long segment) throws IOException {
+        for (Path p : listSegments()) {
+            if (parseIndex(p) < segment) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    public List<Path> listSegments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // citeste inregistrarile unui segment (mapat in memorie) si intoarce lungimea prefixului valid,
+    // sau -1 daca vizitatorul a oprit parcurgerea. se opreste la prima inregistrare trunchiata sau cu crc gresit
+    private long scanSegment(Path segment, long index, long startOffset, RecordVisitor visitor) throws IOException {
+        try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size == 0) {
+                return 0;
+            }
+            MappedByteBuffer map = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int position = (int) startOffset;
+            CRC32 check = new CRC32();
+            while (position + HEADER_BYTES <= size) {
+                int length = map.getInt(position);
+                int expectedCrc = map.getInt(position + 4);
+                if (length < 0 || position + HEADER_BYTES + (long) length > size) {
+                    break;
+                }
+                byte[] body = new byte[length];
+                map.position(position + HEADER_BYTES);
+                map.get(body);
+                check.reset();
+                check.update(body, 0, length);
+                if ((int) check.getValue() != expectedCrc) {
+                    break;
+                }
+                position += HEADER_BYTES + length;
+                if (visitor != null && !visitor.visit(body, new Position(index, position))) {
+                    return -1;
+                }
+            }
+            return position;
+        }
+    }
+
+    private void writerLoop() {
+        List<PendingWrite> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !pending.isEmpty()) {
+            try {
+                PendingWrite first = pending.poll(pollTimeoutMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    forceIfDue();
+                    continue;
+                }
+                batch.add(first);
+                pending.drainTo(batch, MAX_BATCH - 1);
+                batch.remove(SHUTDOWN);
+                if (!batch.isEmpty()) {
+                    writeBatch(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException e) {
+                // inregistrarile scrise inainte de eroare raman valide; esueaza doar restul lotului
+                truncateToWritten();
+                for (int i = 0; i < batch.size(); i++) {
+                    if (i < batchDone) {
+                        batch.get(i).complete();
+                    } else {
+                        batch.get(i).fail(e);
+                    }
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private long pollTimeoutMs() {
+        return fsyncPolicy == FsyncPolicy.INTERVAL ? Math.max(1, fsyncIntervalMs) : 1000;
+    }
+
+    private void writeBatch(List<PendingWrite> batch) throws IOException {
+        batchBuffer.clear();
+        batchDone = 0;
+        boolean perBatch = fsyncPolicy == FsyncPolicy.PER_BATCH;
+        for (int i = 0; i < batch.size(); i++) {
+            PendingWrite w = batch.get(i);
+            int recordBytes = HEADER_BYTES + w.payload.length;
+            if (segmentSize + batchBuffer.position() + recordBytes > segmentBytes
+                    && segmentSize + batchBuffer.position() > 0) {
+                flushBatchBuffer();
+                rollSegment();
+                // segmentul vechi este fortat pe disc inainte de inchidere
+                batchDone = i;
+            }
+            if (recordBytes > batchBuffer.remaining()) {
+                flushBatchBuffer();
+                if (!perBatch) {
+                    batchDone = i;
+                }
+                if (recordBytes > batchBuffer.capacity()) {
+                    batchBuffer = ByteBuffer.allocate(recordBytes);
+                }
+            }
+            w.segment = segmentIndex;
+            crc.reset();
+            crc.update(w.payload, 0, w.payload.length);
+            batchBuffer.putInt(w.payload.length);
+            batchBuffer.putInt((int) crc.getValue());
+            batchBuffer.put(w.payload);
+        }
+        flushBatchBuffer();
+        if (!perBatch) {
+            batchDone = batch.size();
+        }
+
+        if (perBatch) {
+            channel.force(false);
+            dirty = false;
+            lastForce = System.currentTimeMillis();
+            batchDone = batch.size();
+        } else {
+            forceIfDue();
+        }
+        Metrics.Histogram latency = appendLatency;
+        for (PendingWrite w : batch) {
+            if (latency != null) {
+                latency.recordSince(w.enqueuedNanos);
+            }
+            w.complete();
+        }
+    }
+
+    // o scriere partiala lasa o inregistrare rupta la sfarsitul segmentului; fara taiere, reluarea
+    // jurnalului s-ar opri la ea si ar ignora tot ce este scris dupa
+    private void truncateToWritten() {
+        Position written = writtenPosition;
+        try {
+            if (channel.isOpen() && written.segment == segmentIndex && channel.size() > written.offset) {
+                channel.truncate(written.offset);
+            }
+            segmentSize = written.segment == segmentIndex ? written.offset : segmentSize;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void flushBatchBuffer() throws IOException {
+        batchBuffer.flip();
+        while (batchBuffer.hasRemaining()) {
+            segmentSize += channel.write(batchBuffer);
+        }
+        batchBuffer.clear();
+        writtenPosition = new Position(segmentIndex, segmentSize);
+        dirty = true;
+    }
+
+    private void forceIfDue() {
+        if (!dirty || fsyncPolicy != FsyncPolicy.INTERVAL) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastForce >= fsyncIntervalMs) {
+            try {
+                channel.force(false);
+                dirty = false;
+                lastForce = now;
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // segmentul nou este deschis inainte de inchiderea celui vechi: daca deschiderea esueaza, ramane
+    // segmentul curent, lotul esueaza, iar urmatorul lot incearca din nou
+    private void rollSegment() throws IOException {
+        FileChannel old = channel;
+        old.force(false);
+        openSegment(segmentIndex + 1);
+        try {
+            old.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // starea writer-ului se schimba doar dupa ce fisierul este deschis
+    private void openSegment(long index) throws IOException {
+        Path path = directory.resolve(segmentName(index));
+        FileChannel opened = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        long size;
+        try {
+            size = opened.size();
+            opened.position(size);
+        } catch (IOException e) {
+            opened.close();
+            throw e;
+        }
+        channel = opened;
+        segmentIndex = index;
+        segmentSize = size;
+        writtenPosition = new Position(segmentIndex, segmentSize);
+    }
+
+    public static String segmentName(long index) {
+        return String.format("%s%010d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX);
+    }
+
+    private static long parseIndex(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    // opreste writer-ul dupa ce goleste coada si face fsync
+    @Override
+    public void close() {
+        Thread t;
+        synchronized (this) {
+            if (!running) return;
+            running = false;
+            t = writerThread;
+        }
+        pending.add(SHUTDOWN);
+        try {
+            t.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
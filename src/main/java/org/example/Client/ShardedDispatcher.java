@@ -0,0 +1,115 @@
+package org.example.Client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// distribuie sarcinile pe shard-uri dupa o cheie (id-ul stirii sau topicul).
+// fiecare shard are o coada proprie si un singur consumator, deci sarcinile cu aceeasi
+// cheie ruleaza in ordinea sosirii, iar cheile diferite ruleaza in paralel pe mai multe nuclee.
+// cozile sunt limitate (IngressQueue); mesajele de control au o banda separata si nu se pierd
+final class ShardedDispatcher {
+
+    private static final Runnable SHUTDOWN = () -> { };
+
+    private final IngressQueue[] queues;
+    private final Thread[] workers;
+    private final Client client;
+    private final Metrics.Histogram processing;
+    private final IngressPolicy policy;
+    private final AtomicLong dropped = new AtomicLong();
+
+    ShardedDispatcher(Client client, String name, int shards, int capacityPerShard, IngressPolicy policy,
+                      long maxBlockMs) {
+        this.client = client;
+        this.policy = policy;
+        Metrics.Histogram queueWait = client.getMetrics().histogram("ingress_queue_wait_seconds",
+                "Timpul petrecut de un mesaj primit in coada shard-ului");
+        this.processing = client.getMetrics().histogram("ingress_processing_seconds",
+                "Timpul de procesare al unui mesaj primit");
+        int n = Math.max(1, shards);
+        this.queues = new IngressQueue[n];
+        this.workers = new Thread[n];
+        for (int i = 0; i < n; i++) {
+            IngressQueue queue = new IngressQueue(capacityPerShard, policy, maxBlockMs, dropped);
+            queue.setQueueWait(queueWait);
+            queues[i] = queue;
+            workers[i] = ClientExecutors.newThread(name + "-" + i, () -> drain(queue));
+            workers[i].start();
+        }
+    }
+
+    // pune o sarcina de date in coada shard-ului cheii, aplicand politica daca este plina;
+    // intoarce false daca sarcina a fost pierduta
+    boolean dispatch(Object key, Runnable task, int priority) {
+        try {
+            return queues[shardOf(key)].offer(task, priority);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.incrementAndGet();
+            return false;
+        }
+    }
+
+    // mesaj de control: intra mereu, fara asteptare
+    void dispatchControl(Object key, Runnable task) {
+        queues[shardOf(key)].offerControl(task);
+    }
+
+    int shardOf(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16; // imprastie bitii de sus, ca la HashMap
+        return (h & 0x7fffffff) % queues.length;
+    }
+
+    int getShardCount() {
+        return queues.length;
+    }
+
+    IngressPolicy getPolicy() {
+        return policy;
+    }
+
+    // numarul total de sarcini care asteapta in cozi
+    int getQueueDepth() {
+        int depth = 0;
+        for (IngressQueue queue : queues) {
+            depth += queue.size();
+        }
+        return depth;
+    }
+
+    // numarul de mesaje pierdute de politica de supraincarcare
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // opreste consumatorii dupa ce termina sarcinile deja primite
+    void close() {
+        for (IngressQueue queue : queues) {
+            queue.offerControl(SHUTDOWN);
+        }
+    }
+
+    private void drain(IngressQueue queue) {
+        while (true) {
+            Runnable task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (task == SHUTDOWN) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                task.run();
+                processing.recordSince(start);
+            } catch (RuntimeException e) {
+                // o sarcina esuata nu opreste shard-ul
+                client.writeToLogFile(LogLevel.ERROR, "[Dispatcher] Eroare in " + Thread.currentThread().getName()
+                        + ": " + e.getMessage());
+            }
+        }
+    }
+}
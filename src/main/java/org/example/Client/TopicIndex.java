@@ -0,0 +1,146 @@
+package org.example.Client;
+
+import java.util.Arrays;
+
+// indexul ordonat al stirilor unui singur topic.
+// stirile sunt adaugate in ordinea secventei globale de insertie; stergerea lasa un gol,
+// iar un arbore Fenwick peste sloturile ocupate ofera in O(log n):
+//  - a k-a stire vie din topic
+//  - cate stiri vii au secventa <= s (pentru filtrarea pe mai multe topicuri)
+// cand golurile depasesc jumatate din sloturi, indexul se compacteaza
+class TopicIndex {
+
+    // pozitia unei stiri in index; actualizata la compactare
+    static final class Entry {
+        final News news;
+        final String topic;
+        final long seq;
+        int slot;
+        // documentul din indexul full-text (-1 daca nu este indexata); actualizat la compactare
+        int docId = -1;
+
+        Entry(News news, String topic, long seq) {
+            this.news = news;
+            this.topic = topic;
+            this.seq = seq;
+        }
+    }
+
+    private Entry[] entries = new Entry[16];
+    private long[] seqs = new long[16];
+    private int[] tree = new int[17]; // Fenwick, indexat de la 1
+    private int size;   // sloturi folosite (inclusiv goluri)
+    private int alive;  // stiri vii
+
+    int alive() {
+        return alive;
+    }
+
+    void add(Entry e) {
+        if (size == entries.length) {
+            grow();
+        }
+        e.slot = size;
+        entries[size] = e;
+        seqs[size] = e.seq;
+        size++;
+        update(size, 1);
+        alive++;
+    }
+
+    void remove(Entry e) {
+        int slot = e.slot;
+        if (slot < 0 || slot >= size || entries[slot] != e) {
+            return;
+        }
+        entries[slot] = null;
+        update(slot + 1, -1);
+        alive--;
+        if (size > 64 && alive < size / 2) {
+            compact();
+        }
+    }
+
+    // a k-a stire vie (k de la 1) sau null
+    Entry kth(int k) {
+        if (k < 1 || k > alive) {
+            return null;
+        }
+        int pos = 0;
+        int step = Integer.highestOneBit(tree.length - 1);
+        while (step > 0) {
+            int next = pos + step;
+            if (next < tree.length && tree[next] < k) {
+                pos = next;
+                k -= tree[next];
+            }
+            step >>= 1;
+        }
+        return entries[pos];
+    }
+
+    // numarul de stiri vii cu secventa <= seq
+    int countUpTo(long seq) {
+        int idx = Arrays.binarySearch(seqs, 0, size, seq);
+        int slots = idx >= 0 ? idx + 1 : -idx - 1;
+        return prefix(slots);
+    }
+
+    // intrarea de la un slot (poate fi null daca a fost stearsa)
+    Entry slot(int i) {
+        return entries[i];
+    }
+
+    int slots() {
+        return size;
+    }
+
+    private int prefix(int i) {
+        int sum = 0;
+        for (; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private void update(int i, int delta) {
+        for (; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private void grow() {
+        int capacity = entries.length * 2;
+        entries = Arrays.copyOf(entries, capacity);
+        seqs = Arrays.copyOf(seqs, capacity);
+        rebuildTree(capacity);
+    }
+
+    private void compact() {
+        int w = 0;
+        for (int r = 0; r < size; r++) {
+            Entry e = entries[r];
+            if (e != null) {
+                e.slot = w;
+                entries[w] = e;
+                seqs[w] = e.seq;
+                w++;
+            }
+        }
+        Arrays.fill(entries, w, size, null);
+        size = w;
+        rebuildTree(entries.length);
+    }
+
+    // construieste arborele Fenwick in O(n)
+    private void rebuildTree(int capacity) {
+        tree = new int[capacity + 1];
+        for (int i = 1; i <= size; i++) {
+            tree[i] += entries[i - 1] != null ? 1 : 0;
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
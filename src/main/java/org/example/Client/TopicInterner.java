@@ -0,0 +1,60 @@
+package org.example.Client;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// registrul topicurilor: fiecare nume distinct primeste un id intreg mic, stabil pe durata procesului.
+// topicurile sunt putine (cele ~9 ale NewsAPI + "stergere" + cele introduse de utilizator), deci o
+// stire pastreaza doar un int in loc de propriul String. registrul este comun tuturor nodurilor din
+// proces si topicurile vin si din retea, deci este limitat la topics.internLimit nume; peste limita
+// intern intoarce NONE, iar stirea pastreaza numele ca String (News.setTopic)
+final class TopicInterner {
+
+    static final int NONE = -1;
+
+    private static final int LIMIT = Math.max(16, AppConfig.getInt("topics.internLimit", 1024));
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    // citit fara blocare; la un topic nou se inlocuieste cu o copie mai mare
+    private static volatile String[] names = new String[16];
+    private static int count;
+
+    private TopicInterner() {
+    }
+
+    static int intern(String topic) {
+        if (topic == null) {
+            return NONE;
+        }
+        Integer id = IDS.get(topic);
+        if (id != null) {
+            return id;
+        }
+        synchronized (TopicInterner.class) {
+            id = IDS.get(topic);
+            if (id != null) {
+                return id;
+            }
+            if (count >= LIMIT) {
+                return NONE;
+            }
+            String[] current = names;
+            if (count == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[count] = topic;
+            names = current;
+            IDS.put(topic, count);
+            return count++;
+        }
+    }
+
+    static String name(int id) {
+        return id == NONE ? null : names[id];
+    }
+
+    static int size() {
+        return IDS.size();
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.Client;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+// regiunea off-heap: directoare separate pe instanta, refolosirea fisierelor golite si compactarea
+public class BodyStoreTest extends TestCase {
+
+    private static final int CHUNK = 64 * 1024;
+
+    private Path dir;
+
+    @Override
+    protected void setUp() throws IOException {
+        dir = Files.createTempDirectory("bodystore-test");
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    public void testInstancesDoNotShareFiles() throws IOException {
+        BodyStore first = new BodyStore(dir.toString(), CHUNK);
+        long ref = first.append(bytes("primul"));
+        BodyStore second = new BodyStore(dir.toString(), CHUNK);
+        second.append(bytes("al doilea"));
+
+        assertFalse(first.getDirectory().equals(second.getDirectory()));
+        assertEquals("primul", new String(first.read(ref), StandardCharsets.UTF_8));
+
+        second.close();
+        assertFalse(Files.exists(second.getDirectory()));
+        assertTrue(Files.exists(first.getDirectory()));
+        first.close();
+    }
+
+    public void testAbandonedInstanceIsRemoved() throws IOException {
+        Path stale = Files.createDirectories(dir.resolve("instance-vechi"));
+        Files.createFile(stale.resolve("lock"));
+        Files.createFile(stale.resolve("bodies-000000.dat"));
+        Files.createFile(dir.resolve("bodies-000000.dat"));
+
+        BodyStore store = new BodyStore(dir.toString(), CHUNK);
+        assertFalse(Files.exists(stale));
+        assertFalse(Files.exists(dir.resolve("bodies-000000.dat")));
+        store.close();
+    }
+
+    public void testFreedChunkIsReused() throws IOException {
+        BodyStore store = new BodyStore(dir.toString(), CHUNK);
+        byte[] body = new byte[1000];
+        List<Long> refs = new ArrayList<>();
+        // umple mai mult de doua fisiere
+        for (int i = 0; i < 3 * CHUNK / body.length; i++) {
+            refs.add(store.append(body));
+        }
+        long capacity = store.capacityBytes();
+        for (long ref : refs) {
+            store.free(ref);
+        }
+        assertEquals(0, store.usedBytes());
+
+        for (int i = 0; i < 3 * CHUNK / body.length; i++) {
+            store.append(body);
+        }
+        assertEquals(capacity, store.capacityBytes());
+        store.close();
+    }
+
+    public void testCompactionEmptiesSparseChunks() throws IOException {
+        BodyStore store = new BodyStore(dir.toString(), CHUNK);
+        List<News> news = new ArrayList<>();
+        // continut aleator, ca sa nu fie comprimat
+        Random random = new Random(17);
+        List<String> contents = new ArrayList<>();
+        for (int i = 0; i < 3 * CHUNK / 1000; i++) {
+            contents.add(randomText(random, 1000));
+            News n = News.restore("N:" + i, "titlu", contents.get(i), "sport");
+            n.moveContentTo(store, 0);
+            news.add(n);
+        }
+        // pastreaza o stire din zece: fisierele vechi raman aproape goale
+        List<News> kept = new ArrayList<>();
+        for (int i = 0; i < news.size(); i++) {
+            if (i % 10 == 0) {
+                kept.add(news.get(i));
+            } else {
+                news.get(i).releaseContent();
+            }
+        }
+        boolean[] sparse = store.sparseChunks(0.5);
+        int moved = 0;
+        for (News n : kept) {
+            if (n.relocateContent(store, sparse)) {
+                moved++;
+            }
+        }
+        assertTrue(moved > 0);
+        for (boolean s : store.sparseChunks(0.5)) {
+            assertFalse(s);
+        }
+        for (int i = 0; i < news.size(); i++) {
+            assertEquals(contents.get(i), news.get(i).getContent());
+        }
+
+        // fisierele golite de compactare sunt refolosite
+        long capacity = store.capacityBytes();
+        for (int i = 0; i < CHUNK / 1000; i++) {
+            store.append(new byte[1000]);
+        }
+        assertEquals(capacity, store.capacityBytes());
+        store.close();
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String randomText(Random random, int n) {
+        StringBuilder sb = new StringBuilder(n);
+        for (int i = 0; i < n; i++) {
+            sb.append((char) ('!' + random.nextInt(90)));
+        }
+        return sb.toString();
+    }
+}
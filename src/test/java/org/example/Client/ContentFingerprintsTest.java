@@ -0,0 +1,135 @@
+package org.example.Client;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+// amprentele de continut: normalizarea url-urilor, variantele aproape identice, LRU-ul si salvarea.
+// distantele SimHash promise in comentariul clasei sunt verificate pe texte de lungimea celor de la
+// NewsAPI (titlu de ~10 cuvinte si descriere de ~30)
+public class ContentFingerprintsTest extends TestCase {
+
+    private static final String TITLE = "Central bank raises interest rates for the third time this year";
+    private static final String BODY = "The central bank raised its benchmark rate by a quarter point on Tuesday, "
+            + "citing persistent inflation in housing and services, and signalled that further increases "
+            + "remain possible if prices do not cool over the coming months";
+
+    private Path dir;
+
+    @Override
+    protected void setUp() throws IOException {
+        dir = Files.createTempDirectory("fingerprints-test");
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    public void testNormalizeUrlDropsTrackingAndWww() {
+        assertEquals("example.com/world/story?id=5",
+                ContentFingerprints.normalizeUrl("https://WWW.Example.com/world/story/?utm_source=rss&id=5&fbclid=x#top"));
+        assertEquals("example.com/a?b=2&c=1", ContentFingerprints.normalizeUrl("http://example.com/a?c=1&b=2&ref=home"));
+        // ref este un parametru de urmarire, referrer nu
+        assertEquals("example.com/a?referrer=x", ContentFingerprints.normalizeUrl("example.com/a?referrer=x"));
+    }
+
+    public void testSameUrlIsDuplicate() {
+        ContentFingerprints fp = new ContentFingerprints(100, 6, null);
+        assertTrue(fp.add("business", "https://www.example.com/rates?utm_medium=social", "Primul titlu", "scurt"));
+        assertFalse(fp.add("business", "http://example.com/rates#comments", "Alt titlu", "alt text"));
+        // pe alt topic este alt articol
+        assertTrue(fp.add("science", "http://example.com/rates", "Alt titlu", "alt text"));
+    }
+
+    public void testNearDuplicateIsCaught() {
+        ContentFingerprints fp = new ContentFingerprints(100, 6, null);
+        assertTrue(fp.add("business", "https://a.example/1", TITLE, BODY));
+        // alt url si un cuvant schimbat in titlu (deci alt hash exact al titlului): doar SimHash-ul il prinde
+        String title = TITLE.replace("third", "fourth");
+        assertTrue(Long.bitCount(ContentFingerprints.simhash(TITLE, BODY) ^ ContentFingerprints.simhash(title, BODY)) <= 6);
+        assertFalse(fp.add("business", "https://b.example/2", title, BODY));
+    }
+
+    public void testUnrelatedTextPasses() {
+        ContentFingerprints fp = new ContentFingerprints(100, 6, null);
+        assertTrue(fp.add("business", null, TITLE, BODY));
+        assertTrue(fp.add("business", null, "Local team wins the regional football championship final",
+                "Supporters filled the stadium on Saturday evening as the home side scored twice in the second "
+                        + "half to secure a first regional title in more than a decade, the coach said afterwards"));
+        assertEquals(2, fp.size());
+    }
+
+    // un cuvant schimbat din ~40 muta SimHash-ul cu cel mult ~10 biti, de obicei cu cel mult 6;
+    // texte fara legatura raman la peste 20
+    public void testSimhashDistances() {
+        Random random = new Random(7);
+        String[] vocabulary = new String[3000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            StringBuilder w = new StringBuilder();
+            for (int c = 3 + random.nextInt(7); c > 0; c--) {
+                w.append((char) ('a' + random.nextInt(26)));
+            }
+            vocabulary[i] = w.toString();
+        }
+        int pairs = 500;
+        int caught = 0;
+        for (int i = 0; i < pairs; i++) {
+            String[] title = words(random, vocabulary, 10);
+            String[] body = words(random, vocabulary, 30);
+            long simhash = ContentFingerprints.simhash(String.join(" ", title), String.join(" ", body));
+            body[random.nextInt(body.length)] = vocabulary[random.nextInt(vocabulary.length)];
+            int near = Long.bitCount(simhash ^ ContentFingerprints.simhash(String.join(" ", title), String.join(" ", body)));
+            assertTrue("un cuvant schimbat: " + near + " biti", near <= 12);
+            if (near <= 6) {
+                caught++;
+            }
+            long other = ContentFingerprints.simhash(String.join(" ", words(random, vocabulary, 10)),
+                    String.join(" ", words(random, vocabulary, 30)));
+            int far = Long.bitCount(simhash ^ other);
+            assertTrue("texte diferite: " + far + " biti", far > 12);
+        }
+        assertTrue("prinse la distanta 6: " + caught + " din " + pairs, caught >= pairs * 8 / 10);
+    }
+
+    public void testOldestEntryIsEvictedAtCapacity() {
+        ContentFingerprints fp = new ContentFingerprints(2, 6, null);
+        assertTrue(fp.add("t", "http://example.com/1", "a", null));
+        assertTrue(fp.add("t", "http://example.com/2", "b", null));
+        // accesul il face pe 1 cel mai recent, deci 2 este uitat primul
+        assertFalse(fp.add("t", "http://example.com/1", "a", null));
+        assertTrue(fp.add("t", "http://example.com/3", "c", null));
+        assertEquals(2, fp.size());
+        assertFalse(fp.add("t", "http://example.com/1", "a", null));
+        assertTrue(fp.add("t", "http://example.com/2", "b", null));
+    }
+
+    public void testStateSurvivesRestart() {
+        Path file = dir.resolve("fingerprints.dat");
+        ContentFingerprints first = new ContentFingerprints(100, 6, file);
+        assertTrue(first.add("business", "https://example.com/rates", TITLE, BODY));
+        assertTrue(first.add("science", null, "a", null));
+        first.save();
+
+        ContentFingerprints second = new ContentFingerprints(100, 6, file);
+        assertEquals(2, second.size());
+        assertFalse(second.add("business", "https://www.example.com/rates/", "alt titlu", "alt continut"));
+        assertFalse(second.add("business", null, TITLE.replace("third", "fourth"), BODY));
+        assertEquals(0, new ContentFingerprints(100, 6, dir.resolve("lipsa.dat")).size());
+    }
+
+    private static String[] words(Random random, String[] vocabulary, int n) {
+        String[] words = new String[n];
+        for (int i = 0; i < n; i++) {
+            words[i] = vocabulary[random.nextInt(vocabulary.length)];
+        }
+        return words;
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.Client;
+
+import junit.framework.TestCase;
+
+import java.util.UUID;
+
+// filtrul pe ferestre: fara fals negative in interiorul retentiei, fals pozitive in jurul ratei
+// configurate, memorie redusa dupa trecerea id-urilor in generatiile Bloom si uitare dupa retentie
+public class DedupFilterTest extends TestCase {
+
+    private static final int IDS = 100_000;
+    private static final long WINDOW = 1000;
+    private static final long T0 = 1_000_000;
+
+    private static String[] ids(int author, int count) {
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = "N" + author + ":" + UUID.randomUUID();
+        }
+        return ids;
+    }
+
+    public void testHundredThousandIdsAcrossRotation() {
+        double fpRate = 1e-3;
+        DedupFilter filter = new DedupFilter(WINDOW, 4, fpRate, IDS, T0);
+        String[] seen = ids(1, IDS);
+        for (String id : seen) {
+            assertTrue(filter.add(id, T0));
+        }
+        assertEquals(IDS, filter.exactSize());
+        long exactBytes = filter.memoryBytes();
+
+        // doua rotiri: id-urile trec din fereastra curenta in cea anterioara, apoi in Bloom
+        long later = T0 + 2 * WINDOW + 1;
+        for (String id : seen) {
+            assertTrue("fals negativ: " + id, filter.mightContain(id, later));
+            assertFalse(filter.add(id, later));
+        }
+        assertEquals(0, filter.exactSize());
+        long bloomBytes = filter.memoryBytes();
+        assertTrue("memorie exacta " + exactBytes + ", dupa rotire " + bloomBytes, bloomBytes * 10 < exactBytes);
+
+        int falsePositives = 0;
+        for (String id : ids(2, IDS)) {
+            if (filter.mightContain(id, later)) {
+                falsePositives++;
+            }
+        }
+        // asteptat ~100; marja larga ca testul sa nu fie instabil
+        assertTrue("fals pozitive: " + falsePositives, falsePositives < IDS * fpRate * 3);
+    }
+
+    public void testForgottenAfterRetention() {
+        DedupFilter filter = new DedupFilter(WINDOW, 2, 1e-6, 1000, T0);
+        String[] seen = ids(1, 1000);
+        for (String id : seen) {
+            filter.add(id, T0);
+        }
+        long afterRetention = T0 + 5 * WINDOW;
+        int remembered = 0;
+        for (String id : seen) {
+            if (filter.mightContain(id, afterRetention)) {
+                remembered++;
+            }
+        }
+        assertEquals(0, remembered);
+        assertTrue(filter.add(seen[0], afterRetention));
+    }
+
+    public void testOtherIdFormsUseHashedKeys() {
+        DedupFilter filter = new DedupFilter(WINDOW, 2, 1e-6, 1000, T0);
+        assertTrue(filter.add("x", T0));
+        assertTrue(filter.add("N1:not-a-uuid", T0));
+        assertFalse(filter.add("x", T0));
+        assertFalse(filter.add("N1:not-a-uuid", T0));
+        assertFalse(filter.mightContain("y", T0));
+    }
+
+    public void testCompactIdSetIsExact() {
+        DedupFilter.CompactIdSet set = new DedupFilter.CompactIdSet(16);
+        String[] kept = ids(3, IDS);
+        for (String id : kept) {
+            assertTrue(set.add(id));
+        }
+        assertEquals(IDS, set.size());
+        for (String id : kept) {
+            assertTrue(set.contains(id));
+            assertFalse(set.add(id));
+        }
+        for (String id : ids(4, 1000)) {
+            assertFalse(set.contains(id));
+        }
+    }
+}
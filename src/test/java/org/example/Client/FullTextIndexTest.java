@@ -0,0 +1,130 @@
+package org.example.Client;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// cautarea cu MaxScore si salturi peste blocuri trebuie sa dea acelasi top-k ca ordonarea completa.
+// documentele sunt sintetice, cu termeni distribuiti Zipf (ca textul real), destul de multe ca
+// listele termenilor frecventi sa aiba zeci de blocuri
+public class FullTextIndexTest extends TestCase {
+
+    private static final int DOCS = 20000;
+    private static final int TOKENS = 88;
+    private static final int VOCABULARY = 20000;
+    private static final String[] TOPICS = {"technology", "science", "sports", "business"};
+
+    private FullTextIndex index;
+    private List<TopicIndex.Entry> entries;
+    private Random random;
+    private double[] cumulative;
+
+    @Override
+    protected void setUp() {
+        random = new Random(42);
+        cumulative = zipf(VOCABULARY, 1.0);
+        index = new FullTextIndex(2.0);
+        entries = new ArrayList<>(DOCS);
+        for (int i = 0; i < DOCS; i++) {
+            StringBuilder content = new StringBuilder();
+            for (int t = 0; t < TOKENS; t++) {
+                content.append(word(nextRank())).append(' ');
+            }
+            News n = News.restore("N1:" + i, word(nextRank()) + " " + word(nextRank()),
+                    content.toString(), TOPICS[i % TOPICS.length]);
+            TopicIndex.Entry e = new TopicIndex.Entry(n, n.getTopic(), i);
+            index.add(e);
+            entries.add(e);
+        }
+    }
+
+    public void testPrunedTopKMatchesExhaustiveRanking() {
+        for (int q = 0; q < 200; q++) {
+            StringBuilder query = new StringBuilder();
+            int words = 1 + random.nextInt(4);
+            for (int w = 0; w < words; w++) {
+                query.append(word(nextRank())).append(' ');
+            }
+            assertSameTop(query.toString(), 10, null);
+        }
+    }
+
+    public void testPrunedPhraseSearchMatchesExhaustiveRanking() {
+        for (int q = 0; q < 100; q++) {
+            // fraza luata dintr-un document existent, plus un cuvant liber
+            String[] tokens = entries.get(random.nextInt(DOCS)).news.getContent().split(" ");
+            int start = random.nextInt(tokens.length - 1);
+            String query = "\"" + tokens[start] + " " + tokens[start + 1] + "\" " + word(nextRank());
+            assertSameTop(query, 10, null);
+        }
+    }
+
+    public void testTopicFilterAndDeletes() {
+        for (int i = 0; i < DOCS; i += 3) {
+            index.remove(entries.get(i));
+        }
+        Set<String> topics = Collections.singleton(TOPICS[1]);
+        for (int q = 0; q < 50; q++) {
+            String query = word(nextRank()) + " " + word(nextRank());
+            List<FullTextIndex.Hit> hits = assertSameTop(query, 10, topics);
+            for (FullTextIndex.Hit hit : hits) {
+                assertEquals(TOPICS[1], hit.news.getTopic());
+                int doc = Integer.parseInt(hit.news.getId().substring(3));
+                assertTrue(doc % 3 != 0);
+            }
+        }
+    }
+
+    // fara top plin nu se taie nimic, deci limit = toate documentele este ordonarea completa
+    private List<FullTextIndex.Hit> assertSameTop(String query, int limit, Set<String> topics) {
+        List<FullTextIndex.Hit> pruned = index.search(query, limit, topics);
+        List<FullTextIndex.Hit> all = index.search(query, DOCS, topics);
+        assertEquals(query, Math.min(limit, all.size()), pruned.size());
+        for (int i = 0; i < pruned.size(); i++) {
+            assertEquals(query, all.get(i).score, pruned.get(i).score, 1e-9);
+        }
+        return pruned;
+    }
+
+    private int nextRank() {
+        double u = random.nextDouble();
+        int lo = 0;
+        int hi = cumulative.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cumulative[mid] < u) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static double[] zipf(int n, double s) {
+        double[] c = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1 / Math.pow(i + 1, s);
+            c[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            c[i] /= sum;
+        }
+        return c;
+    }
+
+    // cuvinte doar din litere, ca tokenizarea sa nu le imparta
+    private static String word(int rank) {
+        StringBuilder sb = new StringBuilder("w");
+        do {
+            sb.append((char) ('a' + rank % 26));
+            rank /= 26;
+        } while (rank > 0);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.Client;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// politicile cozii unui shard: nicio politica nu tine thread-ul apelant (Paho) blocat nelimitat,
+// iar banda de control intra si iese inaintea datelor chiar cu coada plina
+public class IngressQueueTest extends TestCase {
+
+    private static Runnable task(List<Integer> out, int value) {
+        return () -> out.add(value);
+    }
+
+    public void testBlockGivesUpAfterMaxBlock() throws InterruptedException {
+        AtomicLong dropped = new AtomicLong();
+        IngressQueue queue = new IngressQueue(2, IngressPolicy.BLOCK, 50, dropped);
+        List<Integer> out = new ArrayList<>();
+        assertTrue(queue.offer(task(out, 1), 0));
+        assertTrue(queue.offer(task(out, 2), 0));
+
+        long start = System.nanoTime();
+        assertFalse(queue.offer(task(out, 3), 0));
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("a asteptat " + waitedMs + " ms", waitedMs >= 40 && waitedMs < 2000);
+        assertEquals(1, dropped.get());
+    }
+
+    public void testBlockAcceptsWhenSpaceFrees() throws InterruptedException {
+        IngressQueue queue = new IngressQueue(1, IngressPolicy.BLOCK, 5000, new AtomicLong());
+        List<Integer> out = new ArrayList<>();
+        assertTrue(queue.offer(task(out, 1), 0));
+        Thread consumer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+                queue.take().run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+        assertTrue(queue.offer(task(out, 2), 0));
+        consumer.join();
+        queue.take().run();
+        assertEquals(List.of(1, 2), out);
+    }
+
+    public void testControlBypassesFullDataQueue() throws InterruptedException {
+        IngressQueue queue = new IngressQueue(1, IngressPolicy.BLOCK, 0, new AtomicLong());
+        List<Integer> out = new ArrayList<>();
+        assertTrue(queue.offer(task(out, 1), 0));
+        queue.offerControl(task(out, 100));
+        queue.take().run();
+        queue.take().run();
+        assertEquals(List.of(100, 1), out);
+    }
+
+    public void testDropOldestNeverWaits() throws InterruptedException {
+        AtomicLong dropped = new AtomicLong();
+        IngressQueue queue = new IngressQueue(2, IngressPolicy.DROP_OLDEST, 5000, dropped);
+        List<Integer> out = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            assertTrue(queue.offer(task(out, i), 0));
+        }
+        queue.take().run();
+        queue.take().run();
+        assertEquals(List.of(4, 5), out);
+        assertEquals(3, dropped.get());
+    }
+
+    public void testDropByPriorityKeepsHigherPriority() throws InterruptedException {
+        IngressQueue queue = new IngressQueue(2, IngressPolicy.DROP_BY_PRIORITY, 0, new AtomicLong());
+        List<Integer> out = new ArrayList<>();
+        assertTrue(queue.offer(task(out, 1), 5));
+        assertTrue(queue.offer(task(out, 2), 0));
+        assertTrue(queue.offer(task(out, 3), 5));
+        assertFalse(queue.offer(task(out, 4), 0));
+        queue.take().run();
+        queue.take().run();
+        assertEquals(List.of(1, 3), out);
+    }
+
+    public void testQueueWaitIsRecordedForBothLanes() throws InterruptedException {
+        IngressQueue queue = new IngressQueue(4, IngressPolicy.BLOCK, 0, new AtomicLong());
+        Metrics.Histogram wait = new Metrics().histogram("wait", "test");
+        queue.setQueueWait(wait);
+        List<Integer> out = new ArrayList<>();
+        assertTrue(queue.offer(task(out, 1), 0));
+        queue.offerControl(task(out, 100));
+        Thread.sleep(20);
+        queue.take().run();
+        queue.take().run();
+
+        Metrics.Snapshot snapshot = wait.snapshot();
+        assertEquals(2, snapshot.count);
+        assertTrue(snapshot.maxNanos >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.Client;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// fiecare nod are registrul lui: acelasi nume de metrica in doua registre nu se suprascrie.
+// histogramele: fiecare valoare cade in bucket-ul care o contine, iar cuantilele raman in eroarea
+// relativa promisa (~3%), pana la 2^42 ns; valorile mai mari intra in ultimul bucket
+public class MetricsTest extends TestCase {
+
+    private static final long LAST_EXACT = 1L << 42;
+
+    public void testRegistriesAreIndependent() {
+        Metrics first = new Metrics();
+        Metrics second = new Metrics();
+        first.counter("mesaje", "test").add(3);
+        second.counter("mesaje", "test").inc();
+        first.gauge("coada", "test", () -> 1);
+        second.gauge("coada", "test", () -> 2);
+
+        assertEquals(3, first.counter("mesaje", "test").get());
+        assertEquals(1, second.counter("mesaje", "test").get());
+        assertEquals(1.0, gauge(first, "coada"), 0);
+        assertEquals(2.0, gauge(second, "coada"), 0);
+    }
+
+    private static double gauge(Metrics metrics, String name) {
+        for (Metrics.Metric metric : metrics.all()) {
+            if (metric.name.equals(name)) {
+                return ((Metrics.Gauge) metric).get();
+            }
+        }
+        fail(name);
+        return 0;
+    }
+
+    public void testEveryValueFallsInsideItsBucket() {
+        Random random = new Random(3);
+        int previous = -1;
+        for (long v = 0; v < 4096; v++) {
+            int index = Metrics.Histogram.index(v);
+            assertTrue(index >= previous);
+            assertInside(v, index);
+            previous = index;
+        }
+        for (int i = 0; i < 100000; i++) {
+            long v = random.nextLong() >>> (22 + random.nextInt(41));
+            if (v < LAST_EXACT) {
+                assertInside(v, Metrics.Histogram.index(v));
+            }
+        }
+        for (int bit = 1; bit < 42; bit++) {
+            assertInside((1L << bit) - 1, Metrics.Histogram.index((1L << bit) - 1));
+            assertInside(1L << bit, Metrics.Histogram.index(1L << bit));
+        }
+    }
+
+    // latente log-uniforme intre 1 us si 10 s, ca pe calea critica
+    public void testQuantilesStayWithinRelativeError() {
+        Random random = new Random(11);
+        Metrics.Histogram histogram = new Metrics().histogram("latenta", "test");
+        long[] values = new long[200000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(Math.log(1e3) + random.nextDouble() * (Math.log(1e10) - Math.log(1e3)));
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        Metrics.Snapshot snapshot = histogram.snapshot();
+        assertEquals(values.length, snapshot.count);
+        assertEquals(values[values.length - 1], snapshot.maxNanos);
+        for (double q : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            long exact = values[(int) Math.ceil(q * values.length) - 1];
+            long estimate = snapshot.quantileNanos(q);
+            double error = Math.abs(estimate - exact) / (double) exact;
+            assertTrue("q" + q + ": " + estimate + " fata de " + exact, error <= 0.03);
+        }
+    }
+
+    public void testQuantilesOfSmallValuesAreExact() {
+        Metrics.Histogram histogram = new Metrics().histogram("mici", "test");
+        for (long v = 1; v <= 50; v++) {
+            histogram.record(v);
+        }
+        Metrics.Snapshot snapshot = histogram.snapshot();
+        assertEquals(25, snapshot.quantileNanos(0.5));
+        assertEquals(50, snapshot.quantileNanos(0.99));
+        assertEquals(25.5, snapshot.meanNanos(), 1e-9);
+    }
+
+    // peste 2^42 ns valorile intra in ultimul bucket: count, sum si max raman exacte, iar cuantila
+    // este plafonata la ultimul bucket, dar nu depaseste maximul
+    public void testValuesAboveRangeClampToLastBucket() {
+        int last = Metrics.Histogram.index(Long.MAX_VALUE);
+        assertEquals(last, Metrics.Histogram.index(LAST_EXACT * 4));
+        assertTrue(Metrics.Histogram.lowest(last) < LAST_EXACT * 4);
+
+        Metrics.Histogram histogram = new Metrics().histogram("mari", "test");
+        for (int i = 0; i < 98; i++) {
+            histogram.record(1000);
+        }
+        histogram.record(LAST_EXACT * 2);
+        histogram.record(LAST_EXACT * 4);
+        Metrics.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.count);
+        assertEquals(LAST_EXACT * 4, snapshot.maxNanos);
+        assertEquals(98 * 1000 + LAST_EXACT * 6, snapshot.sumNanos);
+        assertEquals(1000, snapshot.quantileNanos(0.5));
+        long p99 = snapshot.quantileNanos(0.99);
+        assertTrue(p99 >= Metrics.Histogram.lowest(last));
+        assertTrue(p99 <= snapshot.maxNanos);
+        // o valoare negativa (ceas dat inapoi) este inregistrata ca 0
+        histogram.record(-5);
+        assertEquals(0, histogram.snapshot().quantileNanos(0.001));
+    }
+
+    private static void assertInside(long v, int index) {
+        long lowest = Metrics.Histogram.lowest(index);
+        assertTrue(v + " sub bucket-ul " + index, lowest <= v);
+        assertTrue(v + " peste bucket-ul " + index, v < lowest + Metrics.Histogram.width(index));
+        // jumatate din latimea bucket-ului, raportata la valoare: eroarea mijlocului bucket-ului
+        assertTrue(v + ": eroare prea mare", v < 64 || Metrics.Histogram.width(index) / 2.0 / v <= 0.03);
+    }
+}
@@ -0,0 +1,203 @@
+package org.example.Client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// NewsApiFetcher contra unui server local (newsapi.baseUrl) care imita /v2/everything:
+// articole de la cel mai nou la cel mai vechi, pageSize pe pagina, filtrate dupa from
+public class NewsApiFetcherTest extends TestCase {
+
+    private static final String TOPIC = "science";
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private HttpServer server;
+    private Path dir;
+    // publicate la START + i minute, in ordinea adaugarii
+    private final List<NewsApiArticle> published = new CopyOnWriteArrayList<>();
+    private final List<Map<String, String>> requests = new CopyOnWriteArrayList<>();
+    private final List<String> warnings = new CopyOnWriteArrayList<>();
+    private volatile int failWithStatus;
+
+    @Override
+    protected void setUp() throws IOException {
+        dir = Files.createTempDirectory("newsapi-test");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/v2/everything", this::handle);
+        server.start();
+        System.setProperty("newsapi.baseUrl", "http://127.0.0.1:" + server.getAddress().getPort() + "/v2/everything");
+        System.setProperty("newsapi.pageSize", "20");
+        System.setProperty("newsapi.requestsPerSecond", "1000");
+        System.setProperty("newsapi.burst", "1000");
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        server.stop(0);
+        System.clearProperty("newsapi.baseUrl");
+        System.clearProperty("newsapi.pageSize");
+        System.clearProperty("newsapi.requestsPerSecond");
+        System.clearProperty("newsapi.burst");
+        System.clearProperty("newsapi.maxPages");
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    public void testFirstRoundTakesOnlyTheNewestPage() throws Exception {
+        publish(50);
+        List<String> titles = fetch(newFetcher());
+
+        assertEquals(1, requests.size());
+        assertEquals(20, titles.size());
+        // de la cel mai vechi la cel mai nou
+        assertEquals("a30", titles.get(0));
+        assertEquals("a49", titles.get(19));
+    }
+
+    public void testLaterRoundPagesBackToLastSeen() throws Exception {
+        NewsApiFetcher fetcher = newFetcher();
+        publish(5);
+        fetch(fetcher);
+        requests.clear();
+
+        // mai multe articole noi decat incap pe o pagina
+        publish(45);
+        List<String> titles = fetch(fetcher);
+
+        assertEquals(45, titles.size());
+        for (int i = 0; i < 45; i++) {
+            assertEquals("a" + (5 + i), titles.get(i));
+        }
+        assertEquals(3, requests.size());
+        assertEquals("1", requests.get(0).get("page"));
+        assertEquals("3", requests.get(2).get("page"));
+        assertNotNull(requests.get(0).get("from"));
+        assertTrue(warnings.isEmpty());
+
+        requests.clear();
+        assertTrue(fetch(fetcher).isEmpty());
+        assertEquals(1, requests.size());
+    }
+
+    public void testPositionSurvivesRestart() throws Exception {
+        publish(3);
+        fetch(newFetcher());
+        publish(2);
+
+        List<String> titles = fetch(newFetcher());
+        assertEquals("a3", titles.get(0));
+        assertEquals(2, titles.size());
+    }
+
+    public void testPageLimitIsReported() throws Exception {
+        System.setProperty("newsapi.maxPages", "2");
+        NewsApiFetcher fetcher = newFetcher();
+        publish(1);
+        fetch(fetcher);
+        requests.clear();
+
+        publish(60);
+        List<String> titles = fetch(fetcher);
+        assertEquals(2, requests.size());
+        assertEquals(40, titles.size());
+        assertEquals("a60", titles.get(39));
+        assertEquals(1, warnings.size());
+    }
+
+    public void testFailedRoundKeepsPosition() throws Exception {
+        NewsApiFetcher fetcher = newFetcher();
+        publish(2);
+        fetch(fetcher);
+
+        publish(3);
+        failWithStatus = 500;
+        assertTrue(fetch(fetcher).isEmpty());
+        assertEquals(1, warnings.size());
+
+        failWithStatus = 0;
+        assertEquals(3, fetch(fetcher).size());
+    }
+
+    private NewsApiFetcher newFetcher() {
+        return new NewsApiFetcher("cheie", dir.resolve("newsapi.state"), (level, message) -> warnings.add(message));
+    }
+
+    private List<String> fetch(NewsApiFetcher fetcher) throws Exception {
+        List<String> titles = new CopyOnWriteArrayList<>();
+        fetcher.fetchAll(Collections.singletonList(TOPIC), (topic, article) -> titles.add(article.title))
+                .get(10, TimeUnit.SECONDS);
+        return new ArrayList<>(titles);
+    }
+
+    private void publish(int count) {
+        for (int i = 0; i < count; i++) {
+            int n = published.size();
+            NewsApiArticle a = new NewsApiArticle();
+            a.title = "a" + n;
+            a.description = "continut " + n;
+            a.url = "https://example.org/" + n;
+            a.publishedAt = START.plusSeconds(60L * n).toString();
+            published.add(a);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        Map<String, String> query = new HashMap<>();
+        for (String pair : exchange.getRequestURI().getRawQuery().split("&")) {
+            int eq = pair.indexOf('=');
+            query.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        requests.add(query);
+        if (failWithStatus != 0) {
+            respond(exchange, failWithStatus, "{\"status\":\"error\",\"message\":\"indisponibil\"}");
+            return;
+        }
+        // from este inclusiv, ora UTC fara fus
+        Instant from = query.containsKey("from")
+                ? LocalDateTime.parse(query.get("from")).toInstant(ZoneOffset.UTC) : Instant.MIN;
+        List<NewsApiArticle> matching = new ArrayList<>();
+        for (int i = published.size() - 1; i >= 0; i--) {
+            if (!Instant.parse(published.get(i).publishedAt).isBefore(from)) {
+                matching.add(published.get(i));
+            }
+        }
+        int pageSize = Integer.parseInt(query.get("pageSize"));
+        int page = Integer.parseInt(query.getOrDefault("page", "1"));
+        List<NewsApiArticle> slice = matching.subList(Math.min(matching.size(), (page - 1) * pageSize),
+                Math.min(matching.size(), page * pageSize));
+        String body = "{\"status\":\"ok\",\"totalResults\":" + matching.size() + ",\"articles\":"
+                + JsonNewsCodec.GSON.toJson(slice) + "}";
+        respond(exchange, 200, body);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
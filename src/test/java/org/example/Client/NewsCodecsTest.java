@@ -0,0 +1,95 @@
+package org.example.Client;
+
+import junit.framework.TestCase;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// codec-urile de stiri: ambele formate se decodifica la aceeasi stire, iar un payload corupt
+// produce IllegalArgumentException (tratat de Client.deserializeNews), nu alta exceptie
+public class NewsCodecsTest extends TestCase {
+
+    private static News sample(int contentChars) {
+        StringBuilder content = new StringBuilder();
+        while (content.length() < contentChars) {
+            content.append("continut ăîșț ");
+        }
+        return new News("N1", "Titlu ăîșț", content.toString(), "sport");
+    }
+
+    private static void assertSameNews(News expected, News actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getContent(), actual.getContent());
+        assertEquals(expected.getTopic(), actual.getTopic());
+    }
+
+    public void testJsonRoundTrip() {
+        News news = sample(100);
+        assertSameNews(news, NewsCodecs.decode(JsonNewsCodec.INSTANCE.encode(news)));
+    }
+
+    public void testBinaryRoundTrip() {
+        // peste pragul de compresie, continutul este pastrat comprimat in stire
+        News news = sample(5000);
+        assertSameNews(news, NewsCodecs.decode(BinaryNewsCodec.INSTANCE.encode(news)));
+    }
+
+    public void testBinaryNullFields() {
+        News news = News.restore("N1:x", null, null, null);
+        News decoded = NewsCodecs.decode(BinaryNewsCodec.INSTANCE.encode(news));
+        assertEquals("N1:x", decoded.getId());
+        assertNull(decoded.getTitle());
+        assertNull(decoded.getContent());
+        assertNull(decoded.getTopic());
+    }
+
+    public void testJsonReadByOldFormat() {
+        byte[] json = "{\"id\":\"N2:1\",\"title\":\"t\",\"content\":\"c\",\"topic\":\"sport\"}".getBytes(StandardCharsets.UTF_8);
+        News decoded = NewsCodecs.decode(json);
+        assertEquals("N2:1", decoded.getId());
+        assertEquals("sport", decoded.getTopic());
+    }
+
+    public void testEveryTruncationRejected() {
+        byte[] full = BinaryNewsCodec.INSTANCE.encode(sample(100));
+        for (int len = 0; len < full.length; len++) {
+            assertRejected(Arrays.copyOf(full, len));
+        }
+    }
+
+    public void testOversizedLengthRejected() {
+        byte[] payload = new byte[2 + 8];
+        payload[0] = BinaryNewsCodec.FORMAT_ID;
+        payload[1] = 100; // campul id declara 99 de octeti, sunt doar 8
+        assertRejected(payload);
+    }
+
+    public void testNegativeLengthRejected() {
+        // varint 0xFFFFFFFF: lungime negativa dupa decodificare
+        byte[] payload = {BinaryNewsCodec.FORMAT_ID, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 1, 2, 3};
+        assertRejected(payload);
+    }
+
+    public void testUnterminatedVarintRejected() {
+        byte[] payload = {BinaryNewsCodec.FORMAT_ID, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80};
+        assertRejected(payload);
+    }
+
+    public void testMalformedJsonRejected() {
+        assertRejected("{\"id\":".getBytes(StandardCharsets.UTF_8));
+        assertRejected("[1,2]".getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void testUnknownFormatRejected() {
+        assertRejected(new byte[]{0x7F, 1, 2});
+    }
+
+    private static void assertRejected(byte[] payload) {
+        try {
+            NewsCodecs.decode(payload);
+            fail("payload acceptat: " + Arrays.toString(payload));
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
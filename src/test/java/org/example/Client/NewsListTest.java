@@ -0,0 +1,55 @@
+package org.example.Client;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+// stergerile sunt definitive: o stire stearsa nu mai este acceptata, oricat de tarziu ar reveni
+// si oricare ar fi retentia filtrului de deduplicare
+public class NewsListTest extends TestCase {
+
+    private Path dir;
+    private NewsList list;
+
+    @Override
+    protected void setUp() throws IOException {
+        dir = Files.createTempDirectory("newslist-test");
+        System.setProperty("persist.dir", dir.toString());
+        // retentie minima pentru filtrul pe ferestre: stergerile nu trebuie sa depinda de el
+        System.setProperty("dedup.windowMs", "1");
+        System.setProperty("dedup.generations", "0");
+        list = new NewsList();
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        System.clearProperty("persist.dir");
+        System.clearProperty("dedup.windowMs");
+        System.clearProperty("dedup.generations");
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    public void testDeletedNewsStaysDeleted() throws InterruptedException {
+        News news = new News("N1", "titlu", "continut", "sport");
+        assertTrue(list.addNews(news));
+        assertEquals(1, list.deleteNewsById(news.getId()));
+        assertFalse(list.existsId(news.getId()));
+
+        Thread.sleep(20);
+        assertTrue(list.isDeleted(news.getId()));
+        assertFalse(list.addNews(News.restore(news.getId(), "titlu", "continut", "sport")));
+    }
+
+    public void testDeleteBeforeArrival() {
+        News news = new News("N2", "titlu", "continut", "sport");
+        assertEquals(0, list.deleteNewsById(news.getId()));
+        assertFalse(list.addNews(news));
+        assertEquals(0, list.size());
+    }
+}
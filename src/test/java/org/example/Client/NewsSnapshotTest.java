@@ -0,0 +1,105 @@
+package org.example.Client;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// un snapshot valid se incarca identic; orice corupere (trunchiere, numar sau lungime falsa,
+// crc gresit) este raportata ca IOException, ca NewsList sa reia tot jurnalul
+public class NewsSnapshotTest extends TestCase {
+
+    private Path dir;
+    private Path file;
+    private List<News> news;
+
+    @Override
+    protected void setUp() throws IOException {
+        dir = Files.createTempDirectory("snapshot-test");
+        file = dir.resolve(NewsSnapshot.FILE_NAME);
+        news = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            news.add(new News("N1", "titlu " + i, "continut " + i, "sport"));
+        }
+        NewsSnapshot.write(dir, new SegmentStore.Position(3, 1234), news);
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    public void testRoundTrip() throws IOException {
+        NewsSnapshot.Loaded loaded = NewsSnapshot.load(dir);
+        assertEquals(3, loaded.position.segment);
+        assertEquals(1234, loaded.position.offset);
+        assertEquals(news.size(), loaded.news.size());
+        for (int i = 0; i < news.size(); i++) {
+            assertEquals(news.get(i).getId(), loaded.news.get(i).getId());
+            assertEquals(news.get(i).getContent(), loaded.news.get(i).getContent());
+        }
+    }
+
+    public void testMissingSnapshot() throws IOException {
+        Files.delete(file);
+        assertNull(NewsSnapshot.load(dir));
+    }
+
+    public void testTruncatedRejected() throws IOException {
+        long size = Files.size(file);
+        for (long len : new long[]{0, 10, 28, 40, size / 2, size - 1}) {
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                raf.setLength(len);
+            }
+            assertCorrupt();
+        }
+    }
+
+    public void testHugeCountRejected() throws IOException {
+        putInt(24, Integer.MAX_VALUE);
+        assertCorrupt();
+    }
+
+    public void testNegativeCountRejected() throws IOException {
+        putInt(24, -1);
+        assertCorrupt();
+    }
+
+    public void testNegativeLengthRejected() throws IOException {
+        putInt(28, -8);
+        assertCorrupt();
+    }
+
+    public void testOversizedLengthRejected() throws IOException {
+        putInt(28, Integer.MAX_VALUE - 4);
+        assertCorrupt();
+    }
+
+    public void testBadCrcRejected() throws IOException {
+        putInt(32, 0);
+        assertCorrupt();
+    }
+
+    private void putInt(long offset, int value) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(offset);
+            raf.writeInt(value);
+        }
+    }
+
+    private void assertCorrupt() {
+        try {
+            NewsSnapshot.load(dir);
+            fail("snapshot corupt acceptat");
+        } catch (IOException expected) {
+        }
+    }
+}
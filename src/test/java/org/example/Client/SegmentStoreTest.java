@@ -0,0 +1,72 @@
+package org.example.Client;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// jurnalul pe segmente: o trecere la segmentul urmator esuata nu opreste scrierile pana la repornire
+public class SegmentStoreTest extends TestCase {
+
+    private Path dir;
+
+    @Override
+    protected void setUp() throws IOException {
+        dir = Files.createTempDirectory("segmentstore-test");
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    public void testFailedRollKeepsStoreWritable() throws Exception {
+        Path journal = dir.resolve("jurnal");
+        SegmentStore store = new SegmentStore(journal.toString(), 64, FsyncPolicy.OS, 0);
+        store.start();
+        store.append(record(40)).get(5, TimeUnit.SECONDS);
+
+        // fara director segmentul urmator nu poate fi creat
+        deleteRecursively(journal);
+        try {
+            store.append(record(40)).get(5, TimeUnit.SECONDS);
+            fail("scrierea trebuia sa esueze");
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof IOException);
+        }
+
+        Files.createDirectories(journal);
+        store.append(record(40)).get(5, TimeUnit.SECONDS);
+        store.append(record(10)).get(5, TimeUnit.SECONDS);
+        store.close();
+
+        List<byte[]> replayed = new ArrayList<>();
+        SegmentStore reopened = new SegmentStore(journal.toString(), 64, FsyncPolicy.OS, 0);
+        reopened.replay(replayed::add);
+        assertEquals(2, replayed.size());
+        assertEquals(40, replayed.get(0).length);
+        assertEquals(10, replayed.get(1).length);
+    }
+
+    private static byte[] record(int length) {
+        byte[] b = new byte[length];
+        Arrays.fill(b, (byte) 'x');
+        return b;
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        try (Stream<Path> files = Files.walk(path)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
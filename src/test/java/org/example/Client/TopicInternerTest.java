@@ -0,0 +1,25 @@
+package org.example.Client;
+
+import junit.framework.TestCase;
+
+// registrul topicurilor este limitat; topicurile de peste limita raman corecte in stiri
+public class TopicInternerTest extends TestCase {
+
+    public void testTopicsBeyondLimitKeepTheirName() {
+        int before = TopicInterner.size();
+        for (int i = 0; i < 5000; i++) {
+            News n = News.restore("N1:" + i, "titlu", "continut", "aleator-" + i);
+            assertEquals("aleator-" + i, n.getTopic());
+        }
+        assertTrue(TopicInterner.size() <= Math.max(before, 1024));
+        // un topic deja inregistrat ramane intern
+        assertEquals(TopicInterner.intern("aleator-0"), TopicInterner.intern("aleator-0"));
+        assertEquals("aleator-0", TopicInterner.name(TopicInterner.intern("aleator-0")));
+
+        News n = new News("N1", "titlu", "continut", "aleator-4999");
+        n.setTopic("sport");
+        assertEquals("sport", n.getTopic());
+        n.setTopic(null);
+        assertNull(n.getTopic());
+    }
+}